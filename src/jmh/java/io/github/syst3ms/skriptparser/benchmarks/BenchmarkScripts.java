@@ -0,0 +1,167 @@
+package io.github.syst3ms.skriptparser.benchmarks;
+
+import io.github.syst3ms.skriptparser.TestRegistration;
+import io.github.syst3ms.skriptparser.log.LogType;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.parsing.ScriptLoader;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sets up the scripts the benchmarks work on: the scripts used by the tests, as well as synthetic scripts
+ * stressing specific parts of the parser.
+ */
+class BenchmarkScripts {
+    private static final String[] TEST_FOLDERS = {"effects", "expressions", "literals", "sections", "tags", "general"};
+    private static boolean registered = false;
+
+    private BenchmarkScripts() {}
+
+    /**
+     * Registers the same syntaxes as the tests do. Only does anything the first time it is called.
+     */
+    static synchronized void register() {
+        if (!registered) {
+            TestRegistration.register();
+            registered = true;
+        }
+    }
+
+    /**
+     * Copies the scripts used by the tests to the given folder, with the extension {@link ScriptLoader} expects.
+     * Scripts that don't load cleanly are left out, since they would mostly measure error reporting.
+     * @param folder the folder
+     * @return the amount of copied scripts
+     */
+    static int copyTestScripts(Path folder) throws IOException {
+        Files.createDirectories(folder);
+        var count = 0;
+        for (var name : TEST_FOLDERS) {
+            var url = ClassLoader.getSystemResource(name);
+            if (url == null)
+                continue;
+            List<Path> files;
+            try (Stream<Path> stream = Files.list(Path.of(url.toURI()))) {
+                files = stream.collect(Collectors.toList());
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+            for (var file : files) {
+                var fileName = file.getFileName().toString();
+                if (fileName.startsWith("-") || !Files.isRegularFile(file))
+                    continue;
+                var script = Files.copy(file, folder.resolve(fileName.replaceAll("\\..+$", "") + ".sk"));
+                if (loadsCleanly(script)) {
+                    count++;
+                } else {
+                    Files.delete(script);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean loadsCleanly(Path script) throws IOException {
+        boolean clean;
+        try {
+            clean = ScriptLoader.reloadScript(script, new SkriptLogger()).stream()
+                    .noneMatch(entry -> entry.getType() == LogType.ERROR);
+        } catch (RuntimeException e) {
+            clean = false;
+        }
+        unload(script);
+        return clean;
+    }
+
+    /**
+     * @param triggers the amount of triggers
+     * @return a script made of many small triggers
+     */
+    static List<String> manyTriggers(int triggers) {
+        List<String> lines = new ArrayList<>();
+        for (var i = 0; i < triggers; i++) {
+            lines.add("test:");
+            lines.add("\tset {_x} to " + i);
+            lines.add("\tadd 2 * {_x} to {var::" + i + "}");
+            lines.add("\tset {_s} to \"value %{_x}%\" in uppercase");
+            lines.add("\tif {_x} is greater than 5:");
+            lines.add("\t\tremove 1 from {_x}");
+            lines.add("");
+        }
+        return lines;
+    }
+
+    /**
+     * @param depth how many sections are nested inside of each other
+     * @return a script made of a single, deeply nested trigger
+     */
+    static List<String> deepNesting(int depth) {
+        List<String> lines = new ArrayList<>();
+        lines.add("test:");
+        lines.add("\tset {_x} to 0");
+        for (var i = 0; i < depth; i++) {
+            var indent = "\t".repeat(i + 1);
+            lines.add(indent + "if {_x} is less than " + (i + 1) + ":");
+            lines.add(indent + "\tadd 1 to {_x}");
+        }
+        return lines;
+    }
+
+    /**
+     * @param size the amount of elements in the list
+     * @return a script made of a single trigger setting a long list literal
+     */
+    static List<String> longList(int size) {
+        var elements = new StringBuilder();
+        for (var i = 0; i < size; i++) {
+            if (i > 0)
+                elements.append(i == size - 1 ? " and " : ", ");
+            elements.append(i % 2 == 0 ? String.valueOf(i) : "\"element " + i + "\"");
+        }
+        return List.of("test:", "\tset {_list::*} to " + elements);
+    }
+
+    static void write(Path file, List<String> lines) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Unloads all triggers of the given script, or of the scripts inside of the given folder, by reloading each of
+     * them as an empty script.
+     * @param folder the script or folder that was loaded
+     */
+    static void unload(Path folder) throws IOException {
+        var empty = Files.createTempDirectory("skript-parser-empty");
+        List<Path> files;
+        if (Files.isDirectory(folder)) {
+            try (Stream<Path> stream = Files.list(folder)) {
+                files = stream.collect(Collectors.toList());
+            }
+        } else {
+            files = List.of(folder);
+        }
+        for (var file : files) {
+            var emptyScript = Files.createFile(empty.resolve(file.getFileName()));
+            ScriptLoader.reloadScript(emptyScript, new SkriptLogger());
+        }
+        delete(empty);
+    }
+
+    static void delete(Path folder) throws IOException {
+        try (Stream<Path> stream = Files.walk(folder)) {
+            for (var file : stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+}
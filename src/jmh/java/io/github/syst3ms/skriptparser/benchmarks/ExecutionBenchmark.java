@@ -0,0 +1,119 @@
+package io.github.syst3ms.skriptparser.benchmarks;
+
+import io.github.syst3ms.skriptparser.lang.Statement;
+import io.github.syst3ms.skriptparser.lang.Trigger;
+import io.github.syst3ms.skriptparser.lang.compiled.CompiledTrigger;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.parsing.ScriptLoader;
+import io.github.syst3ms.skriptparser.syntax.TestContext;
+import io.github.syst3ms.skriptparser.variables.Variables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the execution of loaded triggers through {@link Statement#runAll(Statement, io.github.syst3ms.skriptparser.lang.TriggerContext)},
+ * either walked on, compiled or turned into bytecode, as well as direct variable accesses.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutionBenchmark {
+    private static final List<String> SCRIPT = List.of(
+            "test:",
+            "\tset {_sum} to 0",
+            "\tloop 100 times:",
+            "\t\tadd loop-number * 2 to {_sum}",
+            "\t\tif {_sum} is greater than 1000:",
+            "\t\t\tremove 1000 from {_sum}",
+            "\tset {_list::*} to 1, 2, 3, 4 and 5",
+            "\tloop {_list::*}:",
+            "\t\tset {benchmark::%loop-index%} to loop-value"
+    );
+
+    /**
+     * Whether the trigger is {@linkplain Trigger#compile() compiled}.
+     */
+    @Param({"false", "true"})
+    public boolean compiled;
+
+    /**
+     * Whether the compiled trigger is turned into bytecode during warmup. Has no effect on triggers that aren't compiled.
+     */
+    @Param({"false", "true"})
+    public boolean jit;
+
+    private Path folder;
+    private Trigger trigger;
+    // The same context is reused every time, so that local variables don't pile up
+    private final TestContext context = new TestContext.SubTestContext();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BenchmarkScripts.register();
+        folder = Files.createTempDirectory("skript-parser-benchmark");
+        BenchmarkScripts.write(folder.resolve("execution.sk"), SCRIPT);
+        ScriptLoader.setCompilingTriggers(compiled);
+        var logs = ScriptLoader.loadScriptsFolder(folder.toFile(), new SkriptLogger(), false, false);
+        if (!logs.isEmpty())
+            throw new IllegalStateException("The benchmark script didn't load properly: " + logs.get(0).getMessage());
+        ScriptLoader.setCompilingTriggers(false);
+        CompiledTrigger.setJitEnabled(jit);
+        trigger = ScriptLoader.getTriggerMap().get("execution.sk").get(0);
+        Variables.setVariable("global", 42, null, false);
+        Variables.setVariable("local", 42, context, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkScripts.unload(folder);
+        BenchmarkScripts.delete(folder);
+        Variables.clearVariables();
+        CompiledTrigger.setJitEnabled(false);
+    }
+
+    @Benchmark
+    public boolean runAll() {
+        return Statement.runAll(trigger, context);
+    }
+
+    @Benchmark
+    public Optional<Object> getGlobalVariable() {
+        return Variables.getVariable("global", context, false);
+    }
+
+    @Benchmark
+    public Optional<Object> getLocalVariable() {
+        return Variables.getVariable("local", context, true);
+    }
+
+    @Benchmark
+    public void setListVariable() {
+        Variables.setVariable("benchmark::1", 42, context, false);
+    }
+
+    @Benchmark
+    public Optional<Object> getListVariable() {
+        return Variables.getVariable("benchmark::*", context, false);
+    }
+}
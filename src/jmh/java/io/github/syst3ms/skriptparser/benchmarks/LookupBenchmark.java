@@ -0,0 +1,68 @@
+package io.github.syst3ms.skriptparser.benchmarks;
+
+import io.github.syst3ms.skriptparser.types.Type;
+import io.github.syst3ms.skriptparser.types.TypeManager;
+import io.github.syst3ms.skriptparser.types.comparisons.Comparator;
+import io.github.syst3ms.skriptparser.types.comparisons.Comparators;
+import io.github.syst3ms.skriptparser.types.conversions.Converters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures how fast converters, comparators and types are resolved from classes, which happens for nearly every
+ * value handled at runtime. Runs on several threads, since executions may run concurrently.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LookupBenchmark {
+
+    @Setup
+    public void setup() {
+        BenchmarkScripts.register();
+    }
+
+    @Benchmark
+    public Optional<? extends Function<? super BigInteger, Optional<? extends String>>> getConverter() {
+        return Converters.getConverter(BigInteger.class, String.class);
+    }
+
+    @Benchmark
+    public Optional<? extends Function<? super Duration, Optional<? extends BigInteger>>> getMissingConverter() {
+        return Converters.getConverter(Duration.class, BigInteger.class);
+    }
+
+    @Benchmark
+    public Optional<? extends Comparator<? super BigInteger, ? super BigInteger>> getComparator() {
+        return Comparators.getComparator(BigInteger.class, BigInteger.class);
+    }
+
+    @Benchmark
+    public Optional<? extends Type<? super BigInteger>> getTypeBySubclass() {
+        return TypeManager.getByClass(BigInteger.class);
+    }
+
+    @Benchmark
+    public String typesToString() {
+        return TypeManager.toString(new Object[] {BigInteger.ONE, "text", Duration.ZERO, true});
+    }
+}
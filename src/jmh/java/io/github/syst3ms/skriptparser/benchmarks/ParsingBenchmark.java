@@ -0,0 +1,106 @@
+package io.github.syst3ms.skriptparser.benchmarks;
+
+import io.github.syst3ms.skriptparser.lang.Effect;
+import io.github.syst3ms.skriptparser.lang.Expression;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.parsing.ParserState;
+import io.github.syst3ms.skriptparser.parsing.SyntaxParser;
+import io.github.syst3ms.skriptparser.pattern.PatternElement;
+import io.github.syst3ms.skriptparser.pattern.PatternParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parsing of single lines, patterns and expressions, out of any script. The average time of the line
+ * benchmarks is the parsing latency of a single line.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParsingBenchmark {
+    private static final String[] PATTERNS = {
+            "set %~objects% to %objects%",
+            "[the] (0:(past|previous)|1:|2:(future|next)) [ctx:context-]<.+>",
+            "%number% (1:[is] divisible|2:(isn't|is not) divisible) by %number% [with %number%]",
+            "(1:(first|last)|2:random) [element] [out] of %objects%"
+    };
+    private static final String[] EXPRESSIONS = {
+            "1 + 2 * 3 - 4 / 5",
+            "\"hello %{_x}% world\" in uppercase",
+            "length of \"hello world\"",
+            "1, 2, 3, \"four\" and 5",
+            "{_list::*}"
+    };
+    private static final String[] EFFECTS = {
+            "set {_x} to 5",
+            "add 2 * {_x} to {var::%{_x}%}",
+            "set {_s} to \"value %{_x}%\" in uppercase",
+            "remove 1 from {_x}"
+    };
+
+    private ParserState parserState;
+
+    @Setup
+    public void setup() {
+        BenchmarkScripts.register();
+        parserState = new ParserState();
+    }
+
+    @Benchmark
+    public PatternElement[] parsePattern() {
+        var logger = new SkriptLogger();
+        var patterns = new PatternElement[PATTERNS.length];
+        for (var i = 0; i < PATTERNS.length; i++) {
+            patterns[i] = PatternParser.parsePattern(PATTERNS[i], logger).orElseThrow();
+        }
+        return patterns;
+    }
+
+    @Benchmark
+    public Expression<?>[] parseExpression() {
+        var expressions = new Expression<?>[EXPRESSIONS.length];
+        for (var i = 0; i < EXPRESSIONS.length; i++) {
+            expressions[i] = SyntaxParser.parseExpression(EXPRESSIONS[i], SyntaxParser.OBJECTS_PATTERN_TYPE, parserState, new SkriptLogger())
+                    .orElseThrow();
+        }
+        return expressions;
+    }
+
+    @Benchmark
+    public Optional<? extends Effect> parseSimpleLine() {
+        return SyntaxParser.parseEffect(EFFECTS[0], parserState, new SkriptLogger());
+    }
+
+    @Benchmark
+    public Optional<? extends Effect> parseComplexLine() {
+        return SyntaxParser.parseEffect(EFFECTS[1], parserState, new SkriptLogger());
+    }
+
+    @Benchmark
+    public Optional<? extends Effect> parseUnknownLine() {
+        return SyntaxParser.parseEffect("this line doesn't match anything", parserState, new SkriptLogger());
+    }
+
+    @Benchmark
+    public Effect[] parseLines() {
+        var effects = new Effect[EFFECTS.length];
+        for (var i = 0; i < EFFECTS.length; i++) {
+            effects[i] = SyntaxParser.parseEffect(EFFECTS[i], parserState, new SkriptLogger()).orElseThrow();
+        }
+        return effects;
+    }
+}
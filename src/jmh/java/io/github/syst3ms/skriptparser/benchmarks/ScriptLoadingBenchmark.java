@@ -0,0 +1,87 @@
+package io.github.syst3ms.skriptparser.benchmarks;
+
+import io.github.syst3ms.skriptparser.log.LogEntry;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.parsing.ScriptLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ScriptLoader#loadScriptsFolder(java.io.File, SkriptLogger, boolean, boolean)} on whole folders of
+ * scripts. Loading registers triggers, so every load is a single shot followed by unloading everything again.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 30)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScriptLoadingBenchmark {
+    /**
+     * The scripts to load: the test scripts, or one of the synthetic scripts.
+     */
+    @Param({"tests", "manyTriggers", "deepNesting", "longList"})
+    public String scripts;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private Path folder;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BenchmarkScripts.register();
+        folder = Files.createTempDirectory("skript-parser-benchmark");
+        switch (scripts) {
+            case "tests":
+                BenchmarkScripts.copyTestScripts(folder);
+                break;
+            case "manyTriggers":
+                // Several files, so that parallel loading has something to split
+                for (var i = 0; i < 8; i++) {
+                    BenchmarkScripts.write(folder.resolve("triggers" + i + ".sk"), BenchmarkScripts.manyTriggers(100));
+                }
+                break;
+            case "deepNesting":
+                BenchmarkScripts.write(folder.resolve("nesting.sk"), BenchmarkScripts.deepNesting(200));
+                break;
+            case "longList":
+                BenchmarkScripts.write(folder.resolve("list.sk"), BenchmarkScripts.longList(2000));
+                break;
+            default:
+                throw new IllegalArgumentException(scripts);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void unload() throws IOException {
+        BenchmarkScripts.unload(folder);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkScripts.delete(folder);
+    }
+
+    @Benchmark
+    public List<LogEntry> loadScriptsFolder() {
+        return ScriptLoader.loadScriptsFolder(folder.toFile(), new SkriptLogger(), false, parallel);
+    }
+}
@@ -1,13 +1,20 @@
 package io.github.syst3ms.skriptparser;
 
+import io.github.syst3ms.skriptparser.lang.compiled.CompiledTrigger;
 import io.github.syst3ms.skriptparser.log.LogEntry;
 import io.github.syst3ms.skriptparser.log.LogType;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.parsing.ExpressionMemo;
+import io.github.syst3ms.skriptparser.parsing.ParseProfiler;
 import io.github.syst3ms.skriptparser.parsing.ScriptLoader;
 import io.github.syst3ms.skriptparser.registration.DefaultRegistration;
 import io.github.syst3ms.skriptparser.registration.SkriptAddon;
 import io.github.syst3ms.skriptparser.registration.SkriptRegistration;
 import io.github.syst3ms.skriptparser.util.ConsoleColors;
 import io.github.syst3ms.skriptparser.util.FileUtils;
+import io.github.syst3ms.skriptparser.util.Scheduler;
+import io.github.syst3ms.skriptparser.variables.LogVariableStorage;
+import io.github.syst3ms.skriptparser.variables.Variables;
 
 import java.io.File;
 import java.io.IOException;
@@ -28,6 +35,8 @@ import java.util.jar.Manifest;
 
 public class Parser {
     public static final String CONSOLE_FORMAT = "[%tT] %s: %s%n";
+    // How many lines and syntaxes the parsing profile lists
+    private static final int PROFILE_REPORT_SIZE = 10;
     private static SkriptRegistration registration;
 
     private static List<LogEntry> logs;
@@ -35,6 +44,8 @@ public class Parser {
     public static void main(String[] args) throws URISyntaxException, IOException {
         boolean debug = false;
         boolean tipsEnabled = true;
+        boolean parallel = false;
+        boolean persistentVariables = false;
 
         Path parserPath = Paths.get(Parser.class
                                             .getProtectionDomain()
@@ -48,17 +59,42 @@ public class Parser {
                 debug = true;
             } else if (s.equalsIgnoreCase("--no-tips") || s.equalsIgnoreCase("--nt")) {
                 tipsEnabled = false;
+            } else if (s.equalsIgnoreCase("--parallel")) {
+                parallel = true;
+            } else if (s.equalsIgnoreCase("--parse-cache")) {
+                ScriptLoader.setParseCacheFolder(Paths.get("cache"));
+            } else if (s.equalsIgnoreCase("--profile")) {
+                ScriptLoader.setProfiler(new ParseProfiler());
+            } else if (s.equalsIgnoreCase("--compile")) {
+                ScriptLoader.setCompilingTriggers(true);
+            } else if (s.equalsIgnoreCase("--jit")) {
+                ScriptLoader.setCompilingTriggers(true);
+                CompiledTrigger.setJitEnabled(true);
+            } else if (s.equalsIgnoreCase("--virtual-threads")) {
+                Scheduler.setVirtualThreads(true);
+            } else if (s.equalsIgnoreCase("--persistent-variables")) {
+                persistentVariables = true;
+            } else if (s.equalsIgnoreCase("--change-driven-when")) {
+                Skript.setChangeDrivenWhen(true);
+            } else if (s.equalsIgnoreCase("--suspending-waits")) {
+                if (Scheduler.supportsVirtualThreads()) {
+                    Scheduler.setSuspendingWaits(true);
+                } else {
+                    System.err.println("Waits can only suspend executions from Java 21 on, ignoring --suspending-waits");
+                }
             }
         }
         String[] programArgs = Arrays.copyOfRange(args, 0, args.length);
         init(new String[0], new String[0], programArgs, parserPath, true);
+        if (persistentVariables)
+            loadVariables(Paths.get("variables"));
         Path newParserPath = Paths.get("scripts");
         File scriptsFolder = new File(newParserPath.toUri());
         if (!scriptsFolder.exists()) {
             boolean created = scriptsFolder.mkdirs();
             if (created) System.out.println("Scripts folder has been generated as no folder was found.");
         }
-        run(scriptsFolder, debug, tipsEnabled);
+        run(scriptsFolder, debug, tipsEnabled, parallel);
     }
 
     /**
@@ -132,14 +168,54 @@ public class Parser {
         }
     }
 
+    /**
+     * Loads the global variables saved in the given folder, and saves them there until the program exits.
+     * @param folder the folder
+     */
+    public static void loadVariables(Path folder) {
+        long start = System.currentTimeMillis();
+        try {
+            Variables.setStorage(new LogVariableStorage(folder));
+        } catch (IOException e) {
+            System.err.println("Couldn't load variables:");
+            e.printStackTrace();
+            return;
+        }
+        System.out.println("Variables have been loaded in " + (System.currentTimeMillis() - start) + "ms");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                Variables.closeStorage();
+            } catch (IOException e) {
+                System.err.println("Couldn't save variables:");
+                e.printStackTrace();
+            }
+        }));
+    }
+
     public static void run(File scriptsFolder, boolean debug, boolean tipsEnabled) {
+        run(scriptsFolder, debug, tipsEnabled, false);
+    }
+
+    public static void run(File scriptsFolder, boolean debug, boolean tipsEnabled, boolean parallel) {
         Calendar time = Calendar.getInstance();
 
         long start = System.currentTimeMillis();
         //logs = ScriptLoader.loadScript(scriptPath, debug);
-        logs = ScriptLoader.loadScriptsFolder(scriptsFolder, debug);
+        logs = ScriptLoader.loadScriptsFolder(scriptsFolder, new SkriptLogger(debug), debug, parallel);
         long elapsed = System.currentTimeMillis()-start;
         System.out.println("Scripts have been parsed in " + elapsed + "ms");
+        if (debug)
+            System.out.println("Expression memoization: " + ExpressionMemo.getHits() + " hits, " + ExpressionMemo.getMisses() + " misses");
+        var profiler = ScriptLoader.getProfiler();
+        if (profiler != null) {
+            System.out.println(profiler.getReport(PROFILE_REPORT_SIZE));
+            try {
+                profiler.writeJson(Paths.get("profile.json"));
+            } catch (IOException e) {
+                System.err.println("Couldn't write the parsing profile:");
+                e.printStackTrace();
+            }
+        }
         if (!logs.isEmpty()) {
             System.out.print(ConsoleColors.PURPLE);
             System.out.println("Parsing log:");
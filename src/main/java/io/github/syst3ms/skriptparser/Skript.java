@@ -1,18 +1,25 @@
 package io.github.syst3ms.skriptparser;
 
 import io.github.syst3ms.skriptparser.event.*;
+import io.github.syst3ms.skriptparser.lang.ExecutionFrame;
 import io.github.syst3ms.skriptparser.lang.SkriptEvent;
 import io.github.syst3ms.skriptparser.lang.Statement;
 import io.github.syst3ms.skriptparser.lang.Trigger;
+import io.github.syst3ms.skriptparser.lang.TriggerContext;
 import io.github.syst3ms.skriptparser.registration.SkriptAddon;
 import io.github.syst3ms.skriptparser.structures.functions.StructFunction;
 import io.github.syst3ms.skriptparser.util.DurationUtils;
-import io.github.syst3ms.skriptparser.util.ThreadUtils;
+import io.github.syst3ms.skriptparser.util.Scheduler;
 import io.github.syst3ms.skriptparser.util.Time;
+import io.github.syst3ms.skriptparser.variables.VariableTracker;
+import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The {@link SkriptAddon} representing Skript itself
@@ -25,11 +32,30 @@ public class Skript extends SkriptAddon {
     private final List<Trigger> periodicalTriggers = new ArrayList<>();
     private final List<Trigger> whenTriggers = new ArrayList<>();
     private final List<Trigger> atTimeTriggers = new ArrayList<>();
+    // How to stop each trigger that runs on its own
+    private final Map<Trigger, Runnable> scheduledTriggers = new HashMap<>();
+    private boolean finishedLoading = false;
+    private static boolean changeDrivenWhen = false;
 
     public Skript(String[] mainArgs) {
         this.mainArgs = mainArgs;
     }
 
+    /**
+     * Sets whether the conditions of the {@link EvtWhen when} triggers started from now on should only be checked again
+     * once one of the global variables they read is {@linkplain VariableTracker written to}, instead of every tick.
+     * Conditions that read something that changes on its own, such as the current date, are still checked every tick.
+     * In both cases, the trigger runs whenever its condition is checked and met.
+     * @param enabled whether to enable it
+     */
+    public static void setChangeDrivenWhen(boolean enabled) {
+        changeDrivenWhen = enabled;
+    }
+
+    public static boolean isChangeDrivenWhen() {
+        return changeDrivenWhen;
+    }
+
     @Override
     public void handleTrigger(Trigger trigger) {
         SkriptEvent event = trigger.getEvent();
@@ -47,30 +73,148 @@ public class Skript extends SkriptAddon {
             atTimeTriggers.add(trigger);
         } else if (event instanceof StructFunction function) {
             function.register(trigger);
+            return;
         }
+        // Triggers added by a reload are started right away
+        if (finishedLoading)
+            start(trigger);
+    }
+
+    @Override
+    public void unhandleTrigger(Trigger trigger) {
+        mainTriggers.remove(trigger);
+        periodicalTriggers.remove(trigger);
+        whenTriggers.remove(trigger);
+        atTimeTriggers.remove(trigger);
+        var stop = scheduledTriggers.remove(trigger);
+        if (stop != null)
+            stop.run();
+        if (trigger.getEvent() instanceof StructFunction function)
+            function.unregister();
     }
 
     @Override
     public void finishedLoading() {
-        for (Trigger trigger : mainTriggers) {
-            Statement.runAll(trigger, new ScriptLoadContext(mainArgs));
-        }
-        for (Trigger trigger : periodicalTriggers) {
+        finishedLoading = true;
+        mainTriggers.forEach(this::start);
+        periodicalTriggers.forEach(this::start);
+        whenTriggers.forEach(this::start);
+        atTimeTriggers.forEach(this::start);
+    }
+
+    private void start(Trigger trigger) {
+        var event = trigger.getEvent();
+        if (event instanceof EvtScriptLoad) {
+            Scheduler.get().runSuspendable(() -> Statement.runAll(trigger, new ScriptLoadContext(mainArgs)));
+        } else if (event instanceof EvtPeriodical) {
             var ctx = new PeriodicalContext();
-            var dur = ((EvtPeriodical) trigger.getEvent()).getDuration().getSingle().orElseThrow(AssertionError::new);
-            ThreadUtils.runPeriodically(() -> Statement.runAll(trigger, ctx), dur);
-        }
-        for (Trigger trigger : whenTriggers) {
+            var dur = ((EvtPeriodical) event).getDuration().getSingle().orElseThrow(AssertionError::new);
+            schedule(trigger, ctx, dur, dur);
+        } else if (event instanceof EvtWhen) {
             var ctx = new WhenContext();
-            ThreadUtils.runPeriodically(() -> Statement.runAll(trigger, ctx), Duration.ofMillis(DurationUtils.TICK));
-        }
-        for (Trigger trigger : atTimeTriggers) {
+            var tick = Duration.ofMillis(DurationUtils.TICK);
+            if (changeDrivenWhen) {
+                var watcher = new WhenWatcher(trigger, ctx);
+                watcher.evaluateLater();
+                scheduledTriggers.put(trigger, watcher::stop);
+            } else {
+                schedule(trigger, ctx, tick, tick);
+            }
+        } else if (event instanceof EvtAtTime) {
             var ctx = new AtTimeContext();
-            var time = ((EvtAtTime) trigger.getEvent()).getTime().getSingle().orElseThrow(AssertionError::new);
+            var time = ((EvtAtTime) event).getTime().getSingle().orElseThrow(AssertionError::new);
             var initialDelay = (Time.now().getTime().isAfter(time.getTime())
                     ? Time.now().difference(Time.LATEST).plus(time.difference(Time.MIDNIGHT))
                     : Time.now().difference(time));
-            ThreadUtils.runPeriodically(() -> Statement.runAll(trigger, ctx), initialDelay, Duration.ofDays(1));
+            schedule(trigger, ctx, initialDelay, Duration.ofDays(1));
+        }
+    }
+
+    /*
+     * The task is kept, so that it can be cancelled when the trigger is unloaded.
+     */
+    private void schedule(Trigger trigger, TriggerContext ctx, Duration initialDelay, Duration period) {
+        var running = new AtomicBoolean();
+        var task = Scheduler.get().scheduleAtFixedRate(() -> runExclusively(trigger, ctx, running), initialDelay, period);
+        scheduledTriggers.put(trigger, task::cancel);
+    }
+
+    /*
+     * All runs of a trigger share the same context, so a run is skipped while the previous one didn't finish, be it
+     * because it is suspended or because the rest of it was delayed.
+     */
+    private static void runExclusively(Statement first, TriggerContext ctx, AtomicBoolean running) {
+        if (!running.compareAndSet(false, true))
+            return;
+        if (ExecutionFrame.isRunning(ctx)) {
+            running.set(false);
+            return;
+        }
+        try {
+            Scheduler.get().runSuspendable(() -> {
+                try {
+                    Statement.runAll(first, ctx);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Evaluates the condition of a {@link EvtWhen when} trigger again only once one of the global variables it read
+     * was written to, or on the next tick if it read something that may change on its own.
+     */
+    private static class WhenWatcher {
+        private final Trigger trigger;
+        private final WhenContext ctx;
+        private final AtomicBoolean pending = new AtomicBoolean();
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile boolean stopped = false;
+        @Nullable
+        private volatile VariableTracker.Watch watch;
+        @Nullable
+        private volatile Scheduler.Task task;
+
+        private WhenWatcher(Trigger trigger, WhenContext ctx) {
+            this.trigger = trigger;
+            this.ctx = ctx;
+        }
+
+        private void evaluate() {
+            pending.set(false);
+            if (stopped)
+                return;
+            var met = new boolean[1];
+            var recording = VariableTracker.record(ctx, () -> met[0] = trigger.getEvent().check(ctx));
+            if (recording.isVolatile()) {
+                evaluateLater();
+            } else {
+                watch = VariableTracker.watch(recording, this::evaluateLater);
+            }
+            if (met[0])
+                trigger.getFirst().ifPresent(first -> runExclusively(first, ctx, running));
+        }
+
+        /*
+         * Changes are coalesced until the next tick
+         */
+        private void evaluateLater() {
+            if (!stopped && pending.compareAndSet(false, true))
+                task = Scheduler.get().schedule(this::evaluate, Duration.ofMillis(DurationUtils.TICK));
+        }
+
+        private void stop() {
+            stopped = true;
+            var watch = this.watch;
+            if (watch != null)
+                watch.cancel();
+            var task = this.task;
+            if (task != null)
+                task.cancel();
         }
     }
 
@@ -2,6 +2,7 @@ package io.github.syst3ms.skriptparser.effects;
 
 import io.github.syst3ms.skriptparser.Parser;
 import io.github.syst3ms.skriptparser.lang.Effect;
+import io.github.syst3ms.skriptparser.lang.ExecutionFrame;
 import io.github.syst3ms.skriptparser.lang.Expression;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
 import io.github.syst3ms.skriptparser.parsing.ParseContext;
@@ -42,7 +43,14 @@ public class EffAsync extends Effect {
 
     @Override
     public void execute(TriggerContext ctx) {
-        ThreadUtils.runAsync(() -> effect.walk(ctx));
+        ExecutionFrame.beginRun(ctx);
+        ThreadUtils.runAsync(() -> {
+            try {
+                effect.walk(ctx);
+            } finally {
+                ExecutionFrame.endRun(ctx);
+            }
+        });
     }
 
     @Override
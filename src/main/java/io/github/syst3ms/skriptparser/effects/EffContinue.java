@@ -3,8 +3,12 @@ package io.github.syst3ms.skriptparser.effects;
 import io.github.syst3ms.skriptparser.Parser;
 import io.github.syst3ms.skriptparser.lang.Effect;
 import io.github.syst3ms.skriptparser.lang.Expression;
+import io.github.syst3ms.skriptparser.lang.Literal;
 import io.github.syst3ms.skriptparser.lang.Statement;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
+import io.github.syst3ms.skriptparser.lang.compiled.Compilable;
+import io.github.syst3ms.skriptparser.lang.compiled.CompiledTrigger;
+import io.github.syst3ms.skriptparser.lang.compiled.Instruction;
 import io.github.syst3ms.skriptparser.lang.control.Continuable;
 import io.github.syst3ms.skriptparser.lang.control.Finishing;
 import io.github.syst3ms.skriptparser.lang.lambda.ArgumentSection;
@@ -24,7 +28,7 @@ import java.util.stream.Collectors;
  * @since ALPHA
  * @author Mwexim
  */
-public class EffContinue extends Effect {
+public class EffContinue extends Effect implements Compilable {
     static {
         Parser.getMainRegistration().addEffect(
             EffContinue.class,
@@ -60,21 +64,41 @@ public class EffContinue extends Effect {
 
     @Override
 	public Optional<? extends Statement> walk(TriggerContext ctx) {
-        // Indices start at 1
-        int pos = position != null ? position.getSingle(ctx)
+        int pos = getPosition(ctx);
+        if (pos == -1)
+            return Optional.empty();
+        return continueLoop(pos, ctx);
+    }
+
+    @Override
+    public Instruction compile(CompiledTrigger trigger) {
+        if (position != null && !(position instanceof Literal))
+            return trigger.walking(this);
+        // The continued loop is known in advance
+        int pos = getPosition(TriggerContext.DUMMY);
+        if (pos == -1)
+            return ctx -> Instruction.END;
+        return ctx -> trigger.jump(ctx, continueLoop(pos, ctx));
+    }
+
+    /*
+     * Indices start at 1, the returned position starts at 0, or is -1 if it is invalid
+     */
+    private int getPosition(TriggerContext ctx) {
+        return position != null ? position.getSingle(ctx)
                 .filter(val -> val.compareTo(BigInteger.ZERO) > 0 && val.compareTo(BigInteger.valueOf(sections.size())) <= 0)
                 .map(val -> val.intValue() - 1)
                 .orElse(-1) : 0;
-        if (pos == -1)
-            return Optional.empty();
+    }
 
+    private Optional<? extends Statement> continueLoop(int pos, TriggerContext ctx) {
         sections.subList(0, pos).forEach(sec -> {
             if (sec instanceof Finishing)
-                ((Finishing) sec).finish();
+                ((Finishing) sec).finish(ctx);
         });
 
         if (sections.get(pos) instanceof ArgumentSection) {
-            ((ArgumentSection) sections.get(0)).step(this);
+            ((ArgumentSection) sections.get(0)).step(this, ctx);
         }
 		return sections.get(pos).getContinued(ctx);
     }
@@ -7,6 +7,10 @@ import io.github.syst3ms.skriptparser.lang.Expression;
 import io.github.syst3ms.skriptparser.lang.Literal;
 import io.github.syst3ms.skriptparser.lang.Statement;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
+import io.github.syst3ms.skriptparser.lang.compiled.Compilable;
+import io.github.syst3ms.skriptparser.lang.compiled.CompiledTrigger;
+import io.github.syst3ms.skriptparser.lang.compiled.Instruction;
+import io.github.syst3ms.skriptparser.lang.compiled.Instructions;
 import io.github.syst3ms.skriptparser.lang.control.Finishing;
 import io.github.syst3ms.skriptparser.lang.control.SelfReferencing;
 import io.github.syst3ms.skriptparser.parsing.ParseContext;
@@ -33,7 +37,7 @@ import java.util.Optional;
  * @since ALPHA
  * @author Mwexim
  */
-public class EffExit extends Effect {
+public class EffExit extends Effect implements Compilable {
     static {
         Parser.getMainRegistration().addEffect(
                 EffExit.class,
@@ -69,19 +73,40 @@ public class EffExit extends Effect {
 
     @Override
     public Optional<? extends Statement> walk(TriggerContext ctx) {
+        List<Finishing> exited = new ArrayList<>();
+        var next = escape(exited);
+        for (var section : exited)
+            section.finish(ctx);
+        return next;
+    }
+
+    @Override
+    public Instruction compile(CompiledTrigger trigger) {
+        // The exited sections are known in advance, since the amount is a literal
+        List<Finishing> exited = new ArrayList<>();
+        var next = trigger.indexOf(escape(exited));
+        var finishing = exited.toArray(new Finishing[0]);
+        return Instructions.test(ctx -> {
+            for (var section : finishing)
+                section.finish(ctx);
+            return true;
+        }, next, next);
+    }
+
+    private Optional<Statement> escape(List<Finishing> exited) {
         switch (pattern) {
             case 0:
                 // We do this instead of returning an empty Optional,
                 // because we need to call finish() on certain sections.
-                return escapeSections(currentSections.size(), this);
+                return escapeSections(currentSections.size(), this, exited);
             case 1:
-                return escapeSections(1, this);
+                return escapeSections(1, this, exited);
             case 2:
                 return amount.getSingle()
-                        .flatMap(sec -> escapeSections(sec.intValue(), this));
+                        .flatMap(sec -> escapeSections(sec.intValue(), this, exited));
             case 3:
                 // The current trigger is also a part of the current sections!
-                return escapeSections(currentSections.size() - 1, this);
+                return escapeSections(currentSections.size() - 1, this, exited);
             default:
                 throw new IllegalStateException();
         }
@@ -104,7 +129,7 @@ public class EffExit extends Effect {
     }
 
     @SuppressWarnings("unchecked")
-    private Optional<Statement> escapeSections(int amount, Statement start) {
+    private Optional<Statement> escapeSections(int amount, Statement start, List<Finishing> exited) {
         Optional<Statement> temp;
         Optional<Statement> statement = Optional.of(start);
         Statement stm = statement.get();
@@ -119,7 +144,7 @@ public class EffExit extends Effect {
                     || mark == 1 && (stm instanceof SecLoop || stm instanceof SecWhile)
                     || mark == 2 && stm instanceof SecConditional) {
                 if (stm instanceof Finishing)
-                    ((Finishing) stm).finish();
+                    exited.add((Finishing) stm);
                 amount--;
                 continue;
             }
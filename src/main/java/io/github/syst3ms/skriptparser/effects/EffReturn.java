@@ -104,8 +104,8 @@ public class EffReturn extends Effect {
             function.setReturnValue(returned.getValues(ctx));
             return Optional.empty(); // stop the trigger
         }
-        section.setReturned(returned.getValues(ctx));
-        section.step(this);
+        section.setReturned(ctx, returned.getValues(ctx));
+        section.step(this, ctx);
         return Optional.of(section);
     }
 
@@ -5,6 +5,7 @@ import io.github.syst3ms.skriptparser.lang.Effect;
 import io.github.syst3ms.skriptparser.lang.Expression;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
 import io.github.syst3ms.skriptparser.parsing.ParseContext;
+import io.github.syst3ms.skriptparser.util.Scheduler;
 
 /**
  * Shuts down the whole current sessions.
@@ -31,6 +32,8 @@ public class EffShutdown extends Effect {
 
     @Override
     public void execute(TriggerContext ctx) {
+        // Nothing that is scheduled may run anymore
+        Scheduler.shutdownNow();
         System.exit(0);
     }
 
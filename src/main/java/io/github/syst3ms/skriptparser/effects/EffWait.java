@@ -2,19 +2,19 @@ package io.github.syst3ms.skriptparser.effects;
 
 import io.github.syst3ms.skriptparser.Parser;
 import io.github.syst3ms.skriptparser.lang.Effect;
+import io.github.syst3ms.skriptparser.lang.ExecutionFrame;
 import io.github.syst3ms.skriptparser.lang.Expression;
 import io.github.syst3ms.skriptparser.lang.Literal;
 import io.github.syst3ms.skriptparser.lang.Statement;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
 import io.github.syst3ms.skriptparser.parsing.ParseContext;
 import io.github.syst3ms.skriptparser.util.DurationUtils;
+import io.github.syst3ms.skriptparser.util.Scheduler;
 import io.github.syst3ms.skriptparser.util.ThreadUtils;
 
 import java.time.Duration;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Waits a certain duration and then executes all the code after this effect.
@@ -69,53 +69,88 @@ public class EffWait extends Effect {
         if (getNext().isEmpty())
             return Optional.empty();
 
-        if (isConditional) {
-            var cond = condition.getSingle(ctx);
-            // The code we want to run each check.
-            Consumer<ExecutorService> code = exec -> {
-                if (cond.filter(b -> negated == b.booleanValue()).isPresent()) {
-                    Statement.runAll(getNext().get(), ctx);
-                    exec.shutdownNow();
-                }
-            };
-
-            if (duration == null) {
-                var thread = ThreadUtils.buildPeriodic();
-                thread.scheduleAtFixedRate(
-                        () -> code.accept(thread),
-                        0,
-                        DurationUtils.TICK,
-                        TimeUnit.MILLISECONDS
-                );
-            } else {
+        if (Scheduler.canSuspend()) {
+            try {
+                suspend(ctx);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+            return getNext();
+        } else if (isConditional) {
+            var done = new AtomicBoolean();
+            // The execution goes on once resumed, so it isn't complete yet
+            ExecutionFrame.beginRun(ctx);
+            ThreadUtils.runAsync(() -> check(ctx, done));
+            if (duration != null) {
                 var dur = ((Optional<Duration>) ((Literal<Duration>) duration).getSingle()).orElse(Duration.ZERO);
-                long millis = dur.toMillis();
-                var thread = ThreadUtils.buildPeriodic();
-                thread.scheduleAtFixedRate(
-                        () -> code.accept(thread),
-                        0,
-                        DurationUtils.TICK,
-                        TimeUnit.MILLISECONDS
-                );
-                thread.schedule(
-                        () -> {
-                            Statement.runAll(getNext().get(), ctx);
-                            thread.shutdownNow();
-                        },
-                        millis,
-                        TimeUnit.MILLISECONDS
-                );
+                ThreadUtils.runAfter(() -> resume(ctx, done), dur);
             }
         } else {
             Optional<? extends Duration> dur = duration.getSingle(ctx);
             if (dur.isEmpty())
                 return getNext();
 
-            ThreadUtils.runAfter(() -> Statement.runAll(getNext().get(), ctx), dur.get());
+            ExecutionFrame.beginRun(ctx);
+            ThreadUtils.runAfter(() -> {
+                try {
+                    Statement.runAll(getNext().get(), ctx);
+                } finally {
+                    ExecutionFrame.endRun(ctx);
+                }
+            }, dur.get());
         }
         return Optional.empty();
     }
 
+    /*
+     * Waits on the current thread, which is only suspended
+     */
+    @SuppressWarnings("unchecked")
+    private void suspend(TriggerContext ctx) throws InterruptedException {
+        var scheduler = Scheduler.get();
+        if (isConditional) {
+            var start = System.nanoTime();
+            var limit = duration != null
+                    ? ((Optional<Duration>) ((Literal<Duration>) duration).getSingle()).orElse(Duration.ZERO).toNanos()
+                    : -1;
+            var tick = Duration.ofMillis(DurationUtils.TICK);
+            while (!isMet(ctx) && (limit < 0 || System.nanoTime() - start < limit))
+                scheduler.sleep(tick);
+        } else {
+            Optional<? extends Duration> dur = duration.getSingle(ctx);
+            if (dur.isPresent())
+                scheduler.sleep(dur.get());
+        }
+    }
+
+    private boolean isMet(TriggerContext ctx) {
+        return condition.getSingle(ctx).filter(b -> negated == b.booleanValue()).isPresent();
+    }
+
+    /*
+     * Checks the condition, and then again every tick until it is met
+     */
+    private void check(TriggerContext ctx, AtomicBoolean done) {
+        if (done.get())
+            return;
+        if (isMet(ctx)) {
+            resume(ctx, done);
+        } else {
+            ThreadUtils.runAfter(() -> check(ctx, done), Duration.ofMillis(DurationUtils.TICK));
+        }
+    }
+
+    private void resume(TriggerContext ctx, AtomicBoolean done) {
+        if (done.compareAndSet(false, true)) {
+            try {
+                Statement.runAll(getNext().orElseThrow(AssertionError::new), ctx);
+            } finally {
+                ExecutionFrame.endRun(ctx);
+            }
+        }
+    }
+
     @Override
     public String toString(TriggerContext ctx, boolean debug) {
         return "wait " + duration.toString(ctx, debug);
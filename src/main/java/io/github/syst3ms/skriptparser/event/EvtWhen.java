@@ -35,9 +35,7 @@ public class EvtWhen extends SkriptEvent {
 
     @Override
     public boolean check(TriggerContext ctx) {
-        if (condition.getSingle(ctx).isEmpty())
-            return false;
-        return ctx instanceof WhenContext && condition.getSingle(ctx).get();
+        return ctx instanceof WhenContext && condition.getSingle(ctx).filter(Boolean::booleanValue).isPresent();
     }
 
     @Override
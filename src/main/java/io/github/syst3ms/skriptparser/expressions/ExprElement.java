@@ -5,6 +5,7 @@ import io.github.syst3ms.skriptparser.lang.Expression;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
 import io.github.syst3ms.skriptparser.parsing.ParseContext;
 import io.github.syst3ms.skriptparser.util.math.NumberMath;
+import io.github.syst3ms.skriptparser.variables.VariableTracker;
 
 import java.math.BigInteger;
 import java.util.Arrays;
@@ -99,6 +100,7 @@ public class ExprElement implements Expression<Object> {
 					case 1:
 						return new Object[] {values[values.length - 1]};
 					case 2:
+						VariableTracker.markVolatile();
 						return new Object[] {values[NumberMath.random(0, values.length - 1, true, random).intValue()]};
 					case 3:
 						return new Object[] {values[r - 1]};
@@ -112,6 +114,7 @@ public class ExprElement implements Expression<Object> {
 					return Arrays.copyOfRange(values, values.length - r, values.length);
 				}
 			case 2:
+				VariableTracker.markVolatile();
 				var shuffled = Arrays.asList(values);
 				Collections.shuffle(shuffled, random);
 				return shuffled.subList(0, r).toArray();
@@ -122,17 +122,18 @@ public class ExprLoopValue extends SectionValue<SecLoop, Object> {
 	public Object[] getSectionValues(SecLoop loop, TriggerContext ctx) {
 		Object[] one = (Object[]) Array.newInstance(getReturnType(), 1);
 		if (isVariableLoop) {
-			if (loop.getArguments() == null || loop.getArguments()[0] == null) {
+			var arguments = loop.getArguments(ctx);
+			if (arguments == null || arguments[0] == null) {
 				return new Object[0];
 			}
-			var current = (Pair<String, Object>) loop.getArguments()[0];
+			var current = (Pair<String, Object>) arguments[0];
 			if (isIndex) {
 				return new String[] {current.getFirst()};
 			}
 			one[0] = current.getSecond();
 			return one;
 		}
-		one[0] = loop.getArguments()[0];
+		one[0] = loop.getArguments(ctx)[0];
 		return one;
 	}
 
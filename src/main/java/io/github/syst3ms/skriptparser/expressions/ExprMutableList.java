@@ -4,6 +4,7 @@ import io.github.syst3ms.skriptparser.Parser;
 import io.github.syst3ms.skriptparser.lang.Expression;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
 import io.github.syst3ms.skriptparser.parsing.ParseContext;
+import io.github.syst3ms.skriptparser.variables.VariableTracker;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -49,6 +50,7 @@ public class ExprMutableList implements Expression<Object> {
                 Collections.reverse(Arrays.asList(values));
                 break;
             case 1:
+                VariableTracker.markVolatile();
                 Collections.shuffle(Arrays.asList(values));
                 break;
             case 2:
@@ -9,6 +9,7 @@ import io.github.syst3ms.skriptparser.types.comparisons.Comparators;
 import io.github.syst3ms.skriptparser.types.comparisons.Relation;
 import io.github.syst3ms.skriptparser.util.DoubleOptional;
 import io.github.syst3ms.skriptparser.util.math.NumberMath;
+import io.github.syst3ms.skriptparser.variables.VariableTracker;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -53,6 +54,7 @@ public class ExprRandomNumber implements Expression<Number> {
 
     @Override
     public Number[] getValues(TriggerContext ctx) {
+        VariableTracker.markVolatile();
         return DoubleOptional.ofOptional(lowerNumber.getSingle(ctx), maxNumber.getSingle(ctx))
                 .flatMap((l, m) -> DoubleOptional.of(
                         Relation.SMALLER_OR_EQUAL.is(numComp.apply(l, m)) ? l : m,
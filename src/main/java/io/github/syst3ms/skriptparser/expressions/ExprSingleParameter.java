@@ -24,8 +24,9 @@ public class ExprSingleParameter extends SectionValue<ArgumentSection, Object> {
 
     @Override
     public Object[] getSectionValues(ArgumentSection section, TriggerContext ctx) {
-        if (section.getArguments().length == 1) {
-            return section.getArguments();
+        var arguments = section.getArguments(ctx);
+        if (arguments.length == 1) {
+            return arguments;
         } else {
             return new Object[0];
         }
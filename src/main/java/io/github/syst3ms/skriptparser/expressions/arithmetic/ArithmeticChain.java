@@ -19,9 +19,13 @@
 package io.github.syst3ms.skriptparser.expressions.arithmetic;
 
 import io.github.syst3ms.skriptparser.lang.Expression;
+import io.github.syst3ms.skriptparser.lang.Literal;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
 import io.github.syst3ms.skriptparser.types.conversions.Converters;
+import io.github.syst3ms.skriptparser.util.math.NumberMath;
+import org.jetbrains.annotations.Nullable;
 
+import java.math.BigInteger;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -41,25 +45,40 @@ public class ArithmeticChain<L, R, T> implements ArithmeticGettable<T> {
 		o -> o.equals(Operator.MULTIPLICATION) || o.equals(Operator.DIVISION),
 		o -> o.equals(Operator.EXPONENTIATION)
 	};
+	// Returned instead of a value whose result is a primitive long, which is then found in the slot
+	private static final Object LONG = new Object();
 
 	private final ArithmeticGettable<L> left;
 	private final ArithmeticGettable<R> right;
 	private final Operator operator;
 	private final Class<? extends T> returnType;
 
-	private OperationInfo<? extends L, ? extends R, ? extends T> operationInfo;
+	// The operation found at parse time, if the types of both operands were known then
+	@Nullable
+	private final OperationInfo<L, R, T> operationInfo;
+	// Otherwise, the operation found for the last classes the operands had at runtime, which rarely change
+	@Nullable
+	private volatile CachedOperation<L, R, T> cachedOperation;
+	// Whether this chain only adds, subtracts or multiplies numbers, in which case integers are computed as primitive longs
+	private final boolean integral;
 
-	public ArithmeticChain(ArithmeticGettable<L> left, Operator operator, ArithmeticGettable<R> right, OperationInfo<L, R, T> operationInfo) {
+	public ArithmeticChain(ArithmeticGettable<L> left, Operator operator, ArithmeticGettable<R> right, @Nullable OperationInfo<L, R, T> operationInfo) {
 		this.left = left;
 		this.right = right;
 		this.operator = operator;
 		this.operationInfo = operationInfo;
 		this.returnType = operationInfo != null ? operationInfo.getReturnType() : (Class<? extends T>) Object.class;
+		this.integral = isIntegral(operator, left, right);
 	}
 
 	@Override
 	@SuppressWarnings("unchecked")
 	public T get(TriggerContext ctx) {
+		if (integral) {
+			var slot = new LongSlot();
+			var result = getIntegral(ctx, slot);
+			return (T) (result == LONG ? BigInteger.valueOf(slot.value) : result);
+		}
 		L left = this.left.get(ctx);
 		if (left == null && this.left instanceof ArithmeticChain)
 			return null;
@@ -68,18 +87,64 @@ public class ArithmeticChain<L, R, T> implements ArithmeticGettable<T> {
 		if (right == null && this.right instanceof ArithmeticChain)
 			return null;
 
-		Class<? extends L> leftClass = left != null ? (Class<? extends L>) left.getClass() : this.left.getReturnType();
-		Class<? extends R> rightClass = right != null ? (Class<? extends R>) right.getClass() : this.right.getReturnType();
+		return calculate(left, right);
+	}
 
-		if (leftClass == Object.class && rightClass == Object.class)
+	/*
+	 * Same as get, except that integers that fit in a long are only boxed once the whole chain is computed, or if it
+	 * has to fall back to the registered operations. Operands are evaluated only once either way.
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private Object getIntegral(TriggerContext ctx, LongSlot slot) {
+		var left = evaluate(this.left, ctx, slot);
+		if (left == null && this.left instanceof ArithmeticChain)
 			return null;
+		var leftValue = slot.value;
 
-		if (left == null && leftClass == Object.class) {
-			operationInfo = lookupOperationInfo(rightClass, OperationInfo::getRight);
-		} else if (right == null && rightClass == Object.class) {
-			operationInfo = lookupOperationInfo(leftClass, OperationInfo::getLeft);
-		} else if (operationInfo == null) {
-			operationInfo = Arithmetics.lookupOperationInfo(operator, leftClass, rightClass, returnType);
+		var right = evaluate(this.right, ctx, slot);
+		if (right == null && this.right instanceof ArithmeticChain)
+			return null;
+		var rightValue = slot.value;
+
+		if (left == LONG && right == LONG) {
+			try {
+				slot.value = switch (operator) {
+					case ADDITION -> Math.addExact(leftValue, rightValue);
+					case SUBTRACTION -> Math.subtractExact(leftValue, rightValue);
+					default -> Math.multiplyExact(leftValue, rightValue);
+				};
+				return LONG;
+			} catch (ArithmeticException ignored) {
+				// The result doesn't fit in a long
+			}
+		}
+		return calculate(
+			(L) (left == LONG ? BigInteger.valueOf(leftValue) : left),
+			(R) (right == LONG ? BigInteger.valueOf(rightValue) : right)
+		);
+	}
+
+	@Nullable
+	private static Object evaluate(ArithmeticGettable<?> gettable, TriggerContext ctx, LongSlot slot) {
+		if (gettable instanceof ArithmeticChain && ((ArithmeticChain<?, ?, ?>) gettable).integral)
+			return ((ArithmeticChain<?, ?, ?>) gettable).getIntegral(ctx, slot);
+		var value = gettable.get(ctx);
+		if (value instanceof Number && NumberMath.fitsInLong((Number) value)) {
+			slot.value = ((Number) value).longValue();
+			return LONG;
+		}
+		return value;
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private T calculate(@Nullable L left, @Nullable R right) {
+		OperationInfo<L, R, T> operationInfo = this.operationInfo;
+		if (operationInfo == null) {
+			Class<? extends L> leftClass = left != null ? (Class<? extends L>) left.getClass() : this.left.getReturnType();
+			Class<? extends R> rightClass = right != null ? (Class<? extends R>) right.getClass() : this.right.getReturnType();
+			operationInfo = getOperationInfo(leftClass, rightClass, left == null, right == null);
 		}
 
 		if (operationInfo == null)
@@ -92,7 +157,28 @@ public class ArithmeticChain<L, R, T> implements ArithmeticGettable<T> {
 		if (right == null)
 			return null;
 
-		return ((Operation<L, R, T>) operationInfo.getOperation()).calculate(left, right);
+		return operationInfo.getOperation().calculate(left, right);
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private OperationInfo<L, R, T> getOperationInfo(Class<? extends L> leftClass, Class<? extends R> rightClass, boolean leftMissing, boolean rightMissing) {
+		var cached = cachedOperation;
+		if (cached != null && cached.leftClass == leftClass && cached.rightClass == rightClass)
+			return cached.operationInfo;
+
+		OperationInfo<L, R, T> operationInfo;
+		if (leftClass == Object.class && rightClass == Object.class) {
+			operationInfo = null;
+		} else if (leftMissing && leftClass == Object.class) {
+			operationInfo = lookupOperationInfo(rightClass, OperationInfo::getRight);
+		} else if (rightMissing && rightClass == Object.class) {
+			operationInfo = lookupOperationInfo(leftClass, OperationInfo::getLeft);
+		} else {
+			operationInfo = Arithmetics.lookupOperationInfo(operator, (Class<L>) leftClass, (Class<R>) rightClass, (Class<T>) returnType);
+		}
+		cachedOperation = new CachedOperation<>(leftClass, rightClass, operationInfo);
+		return operationInfo;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -117,6 +203,22 @@ public class ArithmeticChain<L, R, T> implements ArithmeticGettable<T> {
 		return returnType;
 	}
 
+	/*
+	 * Primitive arithmetic must give the same results as the operation that would be used for integers otherwise
+	 */
+	private static boolean isIntegral(Operator operator, ArithmeticGettable<?> left, ArithmeticGettable<?> right) {
+		if (operator != Operator.ADDITION && operator != Operator.SUBTRACTION && operator != Operator.MULTIPLICATION)
+			return false;
+		if (!mayBeNumber(left.getReturnType()) || !mayBeNumber(right.getReturnType()))
+			return false;
+		OperationInfo<?, ?, ?> operationInfo = Arithmetics.lookupOperationInfo(operator, BigInteger.class, BigInteger.class);
+		return operationInfo != null && operationInfo.getLeft() == Number.class && operationInfo.getRight() == Number.class;
+	}
+
+	private static boolean mayBeNumber(Class<?> type) {
+		return type == Object.class || Number.class.isAssignableFrom(type);
+	}
+
 	@SuppressWarnings("unchecked")
 	public static <L, R, T> ArithmeticGettable<T> parse(List<Object> chain) {
 		for (Predicate<Object> checker : CHECKERS) {
@@ -139,14 +241,37 @@ public class ArithmeticChain<L, R, T> implements ArithmeticGettable<T> {
 						return null;
 				}
 
-				return new ArithmeticChain<>(left, operator, right, operationInfo);
+				var arithmeticChain = new ArithmeticChain<>(left, operator, right, operationInfo);
+				if (operationInfo != null && left instanceof ArithmeticConstant && right instanceof ArithmeticConstant) {
+					// Both operands are known, so is the result
+					T result = fold(arithmeticChain);
+					if (result != null)
+						return new ArithmeticConstant<>(result, operationInfo.getReturnType());
+				}
+				return arithmeticChain;
 			}
 		}
 
 		if (chain.size() != 1)
 			throw new IllegalStateException();
 
-		return new ArithmeticExpressionInfo<>((Expression<T>) chain.get(0));
+		Expression<T> expression = (Expression<T>) chain.get(0);
+		if (expression instanceof Literal && expression.isSingle()) {
+			T value = ((Literal<T>) expression).getSingle().orElse(null);
+			if (value != null)
+				return new ArithmeticConstant<>(value, expression.getReturnType());
+		}
+		return new ArithmeticExpressionInfo<>(expression);
+	}
+
+	@Nullable
+	private static <T> T fold(ArithmeticChain<?, ?, T> chain) {
+		try {
+			return chain.get(TriggerContext.DUMMY);
+		} catch (RuntimeException e) {
+			// The operation will fail at runtime instead, like it would have without folding
+			return null;
+		}
 	}
 
 	/**
@@ -165,4 +290,24 @@ public class ArithmeticChain<L, R, T> implements ArithmeticGettable<T> {
 		return lastIndex;
 	}
 
+	/**
+	 * Holds the primitive result of an integral chain while it is being computed.
+	 */
+	private static class LongSlot {
+		private long value;
+	}
+
+	private static class CachedOperation<L, R, T> {
+		private final Class<?> leftClass;
+		private final Class<?> rightClass;
+		@Nullable
+		private final OperationInfo<L, R, T> operationInfo;
+
+		private CachedOperation(Class<?> leftClass, Class<?> rightClass, @Nullable OperationInfo<L, R, T> operationInfo) {
+			this.leftClass = leftClass;
+			this.rightClass = rightClass;
+			this.operationInfo = operationInfo;
+		}
+	}
+
 }
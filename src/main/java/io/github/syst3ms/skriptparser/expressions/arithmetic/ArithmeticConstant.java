@@ -0,0 +1,32 @@
+package io.github.syst3ms.skriptparser.expressions.arithmetic;
+
+import io.github.syst3ms.skriptparser.lang.Literal;
+import io.github.syst3ms.skriptparser.lang.TriggerContext;
+
+/**
+ * An operand whose value is known at parse time, either because it is a {@link Literal} or because it is the result
+ * of an operation between such operands.
+ *
+ * @param <T> the type of the value
+ */
+public class ArithmeticConstant<T> implements ArithmeticGettable<T> {
+
+	private final T value;
+	private final Class<? extends T> returnType;
+
+	public ArithmeticConstant(T value, Class<? extends T> returnType) {
+		this.value = value;
+		this.returnType = returnType;
+	}
+
+	@Override
+	public T get(TriggerContext ctx) {
+		return value;
+	}
+
+	@Override
+	public Class<? extends T> getReturnType() {
+		return returnType;
+	}
+
+}
@@ -3,10 +3,13 @@ package io.github.syst3ms.skriptparser.expressions.arithmetic;
 import io.github.syst3ms.skriptparser.util.SkriptDate;
 import io.github.syst3ms.skriptparser.util.Time;
 import io.github.syst3ms.skriptparser.util.math.BigDecimalMath;
+import io.github.syst3ms.skriptparser.util.math.NumberMath;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.Duration;
+import java.util.function.BinaryOperator;
+import java.util.function.LongBinaryOperator;
 
 public class DefaultOperations {
 
@@ -17,9 +20,10 @@ public class DefaultOperations {
 				var l = BigDecimalMath.getBigDecimal(left);
 				var r = BigDecimalMath.getBigDecimal(right);
 				return l.add(r);
+			} else if (isFloating(left) || isFloating(right)) {
+				return left.doubleValue() + right.doubleValue();
 			} else {
-				assert left instanceof BigInteger && right instanceof BigInteger;
-				return ((BigInteger) left).add(((BigInteger) right));
+				return integral(left, right, Math::addExact, BigInteger::add);
 			}
 		});
 		Arithmetics.registerOperation(Operator.SUBTRACTION, Number.class, (left, right) -> {
@@ -27,9 +31,10 @@ public class DefaultOperations {
 				var l = BigDecimalMath.getBigDecimal(left);
 				var r = BigDecimalMath.getBigDecimal(right);
 				return l.subtract(r);
+			} else if (isFloating(left) || isFloating(right)) {
+				return left.doubleValue() - right.doubleValue();
 			} else {
-				assert left instanceof BigInteger && right instanceof BigInteger;
-				return ((BigInteger) left).subtract(((BigInteger) right));
+				return integral(left, right, Math::subtractExact, BigInteger::subtract);
 			}
 		});
 		Arithmetics.registerOperation(Operator.MULTIPLICATION, Number.class, (left, right) -> {
@@ -37,27 +42,39 @@ public class DefaultOperations {
 				var l = BigDecimalMath.getBigDecimal(left);
 				var r = BigDecimalMath.getBigDecimal(right);
 				return l.multiply(r);
+			} else if (isFloating(left) || isFloating(right)) {
+				return left.doubleValue() * right.doubleValue();
 			} else {
-				assert left instanceof BigInteger && right instanceof BigInteger;
-				return ((BigInteger) left).multiply(((BigInteger) right));
+				return integral(left, right, Math::multiplyExact, BigInteger::multiply);
 			}
 		});
 		Arithmetics.registerOperation(Operator.DIVISION, Number.class, (left, right) -> {
 			if (isZero(right)) {
 				return BigInteger.ZERO;
-			} else {
-				return BigDecimalMath.getBigDecimal(left).divide(BigDecimalMath.getBigDecimal(right), BigDecimalMath.DEFAULT_CONTEXT);
+			} else if (NumberMath.fitsInLong(left) && NumberMath.fitsInLong(right)) {
+				// Exact quotients don't need a division in arbitrary precision
+				long l = left.longValue();
+				long r = right.longValue();
+				if (l % r == 0 && (l != Long.MIN_VALUE || r != -1))
+					return BigDecimal.valueOf(l / r);
 			}
+			return BigDecimalMath.getBigDecimal(left).divide(BigDecimalMath.getBigDecimal(right), BigDecimalMath.DEFAULT_CONTEXT);
 		});
 		Arithmetics.registerOperation(Operator.EXPONENTIATION, Number.class, (left, right) -> {
 			if (isZero(right)) {
 				return left instanceof BigDecimal ? BigDecimal.ONE : BigInteger.ONE;
 			}
-			if (left instanceof BigDecimal || right instanceof BigDecimal) {
+			if (left instanceof BigDecimal || right instanceof BigDecimal || isFloating(left) || isFloating(right)) {
 				return BigDecimalMath.pow(BigDecimalMath.getBigDecimal(left), BigDecimalMath.getBigDecimal(right), BigDecimalMath.DEFAULT_CONTEXT);
 			} else {
-				assert left instanceof BigInteger && right instanceof BigInteger;
-				return pow((BigInteger) left, (BigInteger) right);
+				if (NumberMath.fitsInLong(left) && NumberMath.fitsInLong(right) && right.longValue() > 0) {
+					try {
+						return BigInteger.valueOf(pow(left.longValue(), right.longValue()));
+					} catch (ArithmeticException ignored) {
+						// The result doesn't fit in a long
+					}
+				}
+				return pow(BigDecimalMath.getBigInteger(left), BigDecimalMath.getBigInteger(right));
 			}
 		});
 		Arithmetics.registerDifference(Number.class, (left, right) -> {
@@ -65,9 +82,10 @@ public class DefaultOperations {
 				var l = BigDecimalMath.getBigDecimal(left);
 				var r = BigDecimalMath.getBigDecimal(right);
 				return l.subtract(r).abs();
+			} else if (isFloating(left) || isFloating(right)) {
+				return Math.abs(left.doubleValue() - right.doubleValue());
 			} else {
-				assert left instanceof BigInteger && right instanceof BigInteger;
-				return ((BigInteger) left).subtract(((BigInteger) right)).abs();
+				return integral(left, right, (l, r) -> Math.absExact(Math.subtractExact(l, r)), (l, r) -> l.subtract(r).abs());
 			}
 		});
 		Arithmetics.registerDefaultValue(Number.class, () -> BigInteger.ZERO);
@@ -137,7 +155,48 @@ public class DefaultOperations {
 	}
 
 	private static boolean isZero(Number n) {
-		return BigDecimalMath.getBigDecimal(n).compareTo(BigDecimal.ZERO) == 0;
+		if (n instanceof BigInteger) {
+			return ((BigInteger) n).signum() == 0;
+		} else if (n instanceof BigDecimal) {
+			return ((BigDecimal) n).signum() == 0;
+		} else {
+			return n.doubleValue() == 0;
+		}
+	}
+
+	private static boolean isFloating(Number n) {
+		return n instanceof Double || n instanceof Float;
+	}
+
+	/**
+	 * Computes an operation between two integers with primitive arithmetic whenever both of them fit in a {@code long},
+	 * only falling back to {@link BigInteger} when they don't or when the result overflows.
+	 * @param left the left operand
+	 * @param right the right operand
+	 * @param exact the primitive operation, which must throw an {@link ArithmeticException} on overflow
+	 * @param big the same operation, in arbitrary precision
+	 * @return the result
+	 */
+	private static BigInteger integral(Number left, Number right, LongBinaryOperator exact, BinaryOperator<BigInteger> big) {
+		if (NumberMath.fitsInLong(left) && NumberMath.fitsInLong(right)) {
+			try {
+				return BigInteger.valueOf(exact.applyAsLong(left.longValue(), right.longValue()));
+			} catch (ArithmeticException ignored) {
+				// The result doesn't fit in a long
+			}
+		}
+		return big.apply(BigDecimalMath.getBigInteger(left), BigDecimalMath.getBigInteger(right));
+	}
+
+	private static long pow(long x, long y) {
+		long result = 1;
+		while (true) {
+			if ((y & 1) != 0)
+				result = Math.multiplyExact(result, x);
+			if ((y >>= 1) == 0)
+				return result;
+			x = Math.multiplyExact(x, x);
+		}
 	}
 
 	private static BigInteger pow(BigInteger x, BigInteger y) {
@@ -0,0 +1,201 @@
+package io.github.syst3ms.skriptparser.lang;
+
+import io.github.syst3ms.skriptparser.parsing.ParserState;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The state of a single execution of a trigger, carried alongside its {@link TriggerContext}.
+ * <br>
+ * Parsed statements are shared by every execution of their trigger, so anything that is specific to one execution
+ * (the iterator of a loop, the arguments of a section...) can't be stored in them. Such values are stored in
+ * {@linkplain Slot slots} instead, which are assigned at parse time through {@link ParserState#newFrameSlot()}. Each
+ * execution, identified by its context, gets its own frame holding the values of all the slots of the trigger.
+ * <br>
+ * An execution is made of {@linkplain #beginRun(TriggerContext) runs}: {@link Statement#runAll(Statement, TriggerContext)}
+ * is one, and so is any code carrying on the execution later or on another thread, like a wait does. Frames are freed
+ * as soon as the last run of their execution ends. Frames used outside of any run live as long as their context does.
+ */
+public class ExecutionFrame {
+    private static final Map<TriggerContext, Execution> executions = new ConcurrentHashMap<>();
+    private static final Map<TriggerContext, ExecutionFrame> detached = Collections.synchronizedMap(new WeakHashMap<>());
+    // Executions very rarely jump from one context to another, so this saves most lookups
+    private static final ThreadLocal<ExecutionFrame> lastUsed = new ThreadLocal<>();
+
+    private final WeakReference<TriggerContext> context;
+    private final Layout layout;
+    private Object[] values;
+    // The frame of another trigger running under the same context
+    @Nullable
+    private ExecutionFrame next;
+    private volatile boolean freed = false;
+
+    private ExecutionFrame(TriggerContext context, Layout layout) {
+        this.context = new WeakReference<>(context);
+        this.layout = layout;
+        this.values = new Object[layout.size];
+    }
+
+    /**
+     * Marks the start of a run of the execution with the given context, which keeps its frames alive until the run
+     * {@linkplain #endRun(TriggerContext) ends}.
+     * @param ctx the context of the execution
+     */
+    public static void beginRun(TriggerContext ctx) {
+        executions.compute(ctx, (__, execution) -> {
+            if (execution == null) {
+                execution = new Execution();
+                // Values set before the execution started belong to it from now on
+                execution.frames = detached.remove(ctx);
+            }
+            execution.runs++;
+            return execution;
+        });
+    }
+
+    /**
+     * Marks the end of a run started with {@link #beginRun(TriggerContext)}. If it was the last run of its execution,
+     * the frames of the execution are freed.
+     * @param ctx the context of the execution
+     */
+    public static void endRun(TriggerContext ctx) {
+        var completed = new Execution[1];
+        executions.computeIfPresent(ctx, (__, execution) -> {
+            if (--execution.runs > 0)
+                return execution;
+            completed[0] = execution;
+            return null;
+        });
+        if (completed[0] == null)
+            return;
+        synchronized (completed[0]) {
+            for (var frame = completed[0].frames; frame != null; frame = frame.next) {
+                // Other threads may still point to the frame, but not to what it held
+                frame.freed = true;
+                frame.values = new Object[0];
+            }
+        }
+        lastUsed.remove();
+    }
+
+    /**
+     * @param ctx the context of an execution
+     * @return whether the execution has a run that hasn't ended yet
+     */
+    public static boolean isRunning(TriggerContext ctx) {
+        return executions.containsKey(ctx);
+    }
+
+    private static ExecutionFrame of(TriggerContext ctx, Layout layout) {
+        var frame = lastUsed.get();
+        if (frame != null && frame.layout == layout && frame.context.get() == ctx && !frame.freed)
+            return frame;
+        var execution = executions.get(ctx);
+        if (execution != null) {
+            synchronized (execution) {
+                frame = execution.frames;
+                while (frame != null && frame.layout != layout)
+                    frame = frame.next;
+                if (frame == null) {
+                    frame = new ExecutionFrame(ctx, layout);
+                    frame.next = execution.frames;
+                    execution.frames = frame;
+                }
+            }
+        } else {
+            synchronized (detached) {
+                var head = detached.get(ctx);
+                frame = head;
+                while (frame != null && frame.layout != layout)
+                    frame = frame.next;
+                if (frame == null) {
+                    frame = new ExecutionFrame(ctx, layout);
+                    frame.next = head;
+                    detached.put(ctx, frame);
+                }
+            }
+        }
+        lastUsed.set(frame);
+        return frame;
+    }
+
+    @Nullable
+    private Object get(int index) {
+        return index < values.length ? values[index] : null;
+    }
+
+    private void set(int index, @Nullable Object value) {
+        if (index >= values.length)
+            values = Arrays.copyOf(values, layout.size);
+        values[index] = value;
+    }
+
+    /**
+     * The slots of a single trigger. Every frame of that trigger holds a value for each of them.
+     */
+    public static class Layout {
+        private int size = 0;
+
+        /**
+         * @param <T> the type of the values stored in the slot
+         * @return a new slot in this layout
+         */
+        public <T> Slot<T> newSlot() {
+            return new Slot<>(this, size++);
+        }
+
+        /**
+         * @return the amount of slots in this layout
+         */
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A value that is stored separately for every execution of a trigger.
+     * @param <T> the type of the value
+     */
+    public static class Slot<T> {
+        private final Layout layout;
+        private final int index;
+
+        private Slot(Layout layout, int index) {
+            this.layout = layout;
+            this.index = index;
+        }
+
+        /**
+         * @param ctx the context of the execution
+         * @return the value of this slot for that execution, or {@code null} if it wasn't set
+         */
+        @SuppressWarnings("unchecked")
+        @Nullable
+        public T get(TriggerContext ctx) {
+            return (T) of(ctx, layout).get(index);
+        }
+
+        /**
+         * @param ctx the context of the execution
+         * @param value the value of this slot for that execution
+         */
+        public void set(TriggerContext ctx, @Nullable T value) {
+            of(ctx, layout).set(index, value);
+        }
+    }
+
+    /**
+     * The frames of an execution that hasn't completed yet.
+     */
+    private static class Execution {
+        private int runs = 0;
+        @Nullable
+        private ExecutionFrame frames;
+    }
+}
@@ -2,6 +2,7 @@ package io.github.syst3ms.skriptparser.lang;
 
 import io.github.syst3ms.skriptparser.parsing.ParseContext;
 import io.github.syst3ms.skriptparser.util.ClassUtils;
+import io.github.syst3ms.skriptparser.variables.VariableTracker;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.Nullable;
 
@@ -87,6 +88,7 @@ public class ExpressionList<T> implements Expression<T> {
             }
             return values.toArray((T[]) Array.newInstance(returnType, values.size()));
         } else {
+            VariableTracker.markVolatile();
             var shuffle = Arrays.asList(expressions);
             Collections.shuffle(shuffle);
             for (var expr : shuffle) {
@@ -145,6 +147,7 @@ public class ExpressionList<T> implements Expression<T> {
     @Override
     public Iterator<? extends T> iterator(TriggerContext ctx) {
         if (!and) {
+            VariableTracker.markVolatile();
             var shuffle = Arrays.asList(expressions);
             Collections.shuffle(shuffle);
             for (var expression : shuffle) {
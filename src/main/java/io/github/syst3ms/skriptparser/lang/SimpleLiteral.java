@@ -6,6 +6,7 @@ import io.github.syst3ms.skriptparser.types.TypeManager;
 import io.github.syst3ms.skriptparser.types.conversions.Converters;
 import io.github.syst3ms.skriptparser.util.ClassUtils;
 import io.github.syst3ms.skriptparser.util.CollectionUtils;
+import io.github.syst3ms.skriptparser.variables.VariableTracker;
 import org.jetbrains.annotations.Contract;
 
 import java.lang.reflect.Array;
@@ -46,6 +47,7 @@ public class SimpleLiteral<T> implements Literal<T> {
         if (isAndList) {
             return values;
         } else {
+            VariableTracker.markVolatile();
             var copy = (T[]) Array.newInstance(getReturnType(), 1);
             copy[0] = CollectionUtils.getRandom(values);
             return copy;
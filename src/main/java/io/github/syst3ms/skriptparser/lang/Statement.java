@@ -82,14 +82,24 @@ public abstract class Statement implements SyntaxElement {
     }
 
     /**
-     * Runs all code starting at a given point sequentially
+     * Runs all code starting at a given point sequentially. If the trigger the code belongs to was
+     * {@linkplain Trigger#compile() compiled}, the compiled version is run instead.
      * @param start the Statement the method should first run
      * @param context the context
      * @return {@code true} if the code ran normally, and {@code false} if any exception occurred
      */
     public static boolean runAll(Statement start, TriggerContext context) {
         Optional<? extends Statement> item = Optional.of(start);
+        ExecutionFrame.beginRun(context);
         try {
+            var root = start;
+            while (root.parent != null)
+                root = root.parent;
+            if (root instanceof Trigger) {
+                var compiled = ((Trigger) root).getCompiled();
+                if (compiled.isPresent() && compiled.get().run(start, context))
+                    return true;
+            }
             while (item.isPresent())
                 item = item.flatMap(i -> i.walk(context));
             return true;
@@ -99,6 +109,8 @@ public abstract class Statement implements SyntaxElement {
         } catch (Exception e) {
             System.err.println("An exception occurred. Stack trace:");
             e.printStackTrace();
+        } finally {
+            ExecutionFrame.endRun(context);
         }
         return false;
     }
@@ -1,9 +1,14 @@
 package io.github.syst3ms.skriptparser.lang;
 
 import io.github.syst3ms.skriptparser.file.FileSection;
+import io.github.syst3ms.skriptparser.lang.compiled.Compilable;
+import io.github.syst3ms.skriptparser.lang.compiled.CompiledTrigger;
+import io.github.syst3ms.skriptparser.lang.compiled.Instruction;
+import io.github.syst3ms.skriptparser.lang.compiled.Instructions;
 import io.github.syst3ms.skriptparser.log.SkriptLogger;
 import io.github.syst3ms.skriptparser.parsing.ParseContext;
 import io.github.syst3ms.skriptparser.parsing.ParserState;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Optional;
 
@@ -11,8 +16,10 @@ import java.util.Optional;
  * A top-level section, that is not contained in code.
  * Usually declares an event.
  */
-public class Trigger extends CodeSection {
+public class Trigger extends CodeSection implements Compilable {
     private final SkriptEvent event;
+    @Nullable
+    private CompiledTrigger compiled;
 
     public Trigger(SkriptEvent event) {
         this.event = event;
@@ -38,11 +45,33 @@ public class Trigger extends CodeSection {
         return getFirst().filter(__ -> event.check(ctx));
     }
 
+    @Override
+    public Instruction compile(CompiledTrigger trigger) {
+        var first = trigger.indexOf(getFirst());
+        return Instructions.test(event::check, first, Instruction.END);
+    }
+
     @Override
     public String toString(TriggerContext ctx, boolean debug) {
         return event.toString(ctx, debug);
     }
 
+    /**
+     * Compiles this trigger, so that {@link Statement#runAll(Statement, TriggerContext)} runs the compiled version
+     * from now on. Must only be called once this trigger is completely loaded.
+     * @see CompiledTrigger
+     */
+    public void compile() {
+        compiled = CompiledTrigger.compile(this);
+    }
+
+    /**
+     * @return the compiled version of this trigger, if it was compiled
+     */
+    public Optional<CompiledTrigger> getCompiled() {
+        return Optional.ofNullable(compiled);
+    }
+
     public SkriptEvent getEvent() {
         return event;
     }
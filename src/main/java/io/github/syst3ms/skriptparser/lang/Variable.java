@@ -14,6 +14,7 @@ import io.github.syst3ms.skriptparser.types.comparisons.Relation;
 import io.github.syst3ms.skriptparser.types.conversions.Converters;
 import io.github.syst3ms.skriptparser.util.ClassUtils;
 import io.github.syst3ms.skriptparser.util.Pair;
+import io.github.syst3ms.skriptparser.variables.LocalVariables;
 import io.github.syst3ms.skriptparser.variables.Variables;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.Nullable;
@@ -31,13 +32,31 @@ public class Variable<T> implements Expression<T> {
     private final VariableString name;
     private final boolean local;
     private final boolean list;
+    // Only present for local variables whose name is constant
+    @Nullable
+    private final LocalVariables.Slot slot;
     private Class<?> type;
     private Class<?> supertype;
 
     public Variable(VariableString name, boolean local, boolean list, Class<?> type) {
+        this(name, local, list, null, type);
+    }
+
+    /**
+     * Creates a local variable whose name is constant, and was resolved to a slot at parse time.
+     * @param name the name of the variable
+     * @param slot the slot of the variable
+     * @param type the type of the variable
+     */
+    public Variable(VariableString name, LocalVariables.Slot slot, Class<?> type) {
+        this(name, true, false, slot, type);
+    }
+
+    private Variable(VariableString name, boolean local, boolean list, @Nullable LocalVariables.Slot slot, Class<?> type) {
         this.name = name;
         this.local = local;
         this.list = list;
+        this.slot = slot;
         this.type = type;
         this.supertype = ClassUtils.getCommonSuperclass(this.type);
     }
@@ -76,6 +95,10 @@ public class Variable<T> implements Expression<T> {
      * @return the raw value
      */
     public Optional<Object> getRaw(TriggerContext ctx) {
+        if (slot != null) {
+            return Variables.getVariable(slot, ctx)
+                    .or(() -> Variables.getVariable(Variables.LOCAL_VARIABLE_TOKEN + slot.getName(), ctx, false));
+        }
         var n = name.toString(ctx);
         if (n.endsWith(Variables.LIST_SEPARATOR + "*") != list) // prevents e.g. {%expr%} where "%expr%" ends with "::*" from returning a Map
             return Optional.empty();
@@ -300,7 +323,7 @@ public class Variable<T> implements Expression<T> {
         var val = Variables.getVariable(name + "*", ctx, local);
         if (val.isEmpty())
             return Collections.emptyIterator();
-        assert val.get() instanceof TreeMap;
+        assert val.get() instanceof Map;
         // Temporary list to prevent CMEs
         var keys = new ArrayList<>(((Map<String, Object>) val.get()).keySet()).iterator();
         return new Iterator<>() {
@@ -315,7 +338,7 @@ public class Variable<T> implements Expression<T> {
                     @Nullable String key = keys.next();
                     if (key != null) {
                         next = (T) Converters.convert(Variables.getVariable(name + key, ctx, local), type).orElse(null);
-                        if (next != null && !(next instanceof TreeMap))
+                        if (next != null && !(next instanceof Map))
                             return true;
                     }
                 }
@@ -370,7 +393,7 @@ public class Variable<T> implements Expression<T> {
                     key = keys.next();
                     if (key != null) {
                         next = Variables.getVariable(name + key, ctx, local).orElse(null);
-                        if (next != null && !(next instanceof TreeMap))
+                        if (next != null && !(next instanceof Map))
                             return true;
                     }
                 }
@@ -397,7 +420,7 @@ public class Variable<T> implements Expression<T> {
 
     @Override
     public <C> Optional<? extends Expression<C>> convertExpression(Class<C> to) {
-        return Optional.of(new Variable<>(name, local, list, to));
+        return Optional.of(new Variable<>(name, local, list, slot, to));
     }
 
     @Override
@@ -415,6 +438,10 @@ public class Variable<T> implements Expression<T> {
     }
 
     private void set(TriggerContext ctx, @Nullable Object value) {
+        if (slot != null) {
+            Variables.setVariable(slot, value, ctx);
+            return;
+        }
         Variables.setVariable(name.toString(ctx), value, ctx, local);
     }
 
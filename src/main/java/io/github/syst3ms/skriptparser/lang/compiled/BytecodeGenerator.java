@@ -0,0 +1,429 @@
+package io.github.syst3ms.skriptparser.lang.compiled;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Turns the instructions of a {@link CompiledTrigger} into the bytecode of a hidden class implementing
+ * {@link GeneratedCode}.
+ * <br>
+ * The generated method is a single {@code tableswitch} on the index to start from, followed by one block of code per
+ * instruction. The blocks of the instructions from {@link Instructions} call the statement, condition or test they
+ * hold directly and jump straight to the blocks of the instructions that follow, so that every call site only ever
+ * sees a single class and can be inlined by the JVM. Any other instruction is executed as is, and the index it returns
+ * is dispatched through the {@code tableswitch} again.
+ * <br>
+ * Outside of a block, the operand stack is always empty and no local variable is used besides the parameters, so a
+ * single kind of stack map frame is needed.
+ */
+class BytecodeGenerator {
+    private static final String PACKAGE = "io/github/syst3ms/skriptparser/lang/compiled/";
+    private static final String CLASS_NAME = PACKAGE + "GeneratedTrigger";
+    private static final String OBJECT = "java/lang/Object";
+    private static final String OBJECT_ARRAY = "[Ljava/lang/Object;";
+    private static final String CONTEXT = "Lio/github/syst3ms/skriptparser/lang/TriggerContext;";
+    private static final String STATEMENT = "io/github/syst3ms/skriptparser/lang/Statement";
+    private static final String EXPRESSION = "io/github/syst3ms/skriptparser/lang/Expression";
+    private static final String PREDICATE = "java/util/function/Predicate";
+    private static final String INSTRUCTION = PACKAGE + "Instruction";
+    private static final int JAVA_17 = 61;
+
+    private static final int NOP = 0x00, ILOAD_1 = 0x1B, ALOAD_0 = 0x2A, ALOAD_1 = 0x2B, ALOAD_2 = 0x2C,
+            AALOAD = 0x32, ISTORE_1 = 0x3C, SIPUSH = 0x11, POP = 0x57, IFEQ = 0x99, IFNE = 0x9A, GOTO = 0xA7,
+            TABLESWITCH = 0xAA, RETURN = 0xB1, GETFIELD = 0xB4, PUTFIELD = 0xB5, INVOKEVIRTUAL = 0xB6,
+            INVOKESPECIAL = 0xB7, INVOKESTATIC = 0xB8, INVOKEINTERFACE = 0xB9, CHECKCAST = 0xC0;
+
+    private final Instruction[] instructions;
+    private final ConstantPool pool = new ConstantPool();
+    private final List<Object> constants = new ArrayList<>();
+    // Labels 0 to n - 1 are the blocks of the instructions, n is the end of the method and n + 1 the dispatch
+    private final int[] labels;
+    private final List<Jump> jumps = new ArrayList<>();
+    private byte[] code = new byte[256];
+    private int length = 0;
+
+    private BytecodeGenerator(Instruction[] instructions) {
+        this.instructions = instructions;
+        this.labels = new int[instructions.length + 2];
+    }
+
+    /**
+     * @param instructions the instructions of a trigger
+     * @return the bytecode of these instructions, ready to run
+     * @throws IllegalStateException if the bytecode couldn't be generated or defined
+     */
+    static GeneratedCode generate(Instruction[] instructions) {
+        var generator = new BytecodeGenerator(instructions);
+        var bytes = generator.generateClass();
+        try {
+            var lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            var constructor = lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class, Object[].class));
+            return (GeneratedCode) constructor.invoke(generator.constants.toArray());
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] generateClass() {
+        var run = generateRun();
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            // Everything must be in the constant pool before it is written
+            var thisClass = pool.classRef(CLASS_NAME);
+            var superClass = pool.classRef(OBJECT);
+            var generatedCode = pool.classRef(PACKAGE + "GeneratedCode");
+            var constantsName = pool.utf8("constants");
+            var constantsType = pool.utf8(OBJECT_ARRAY);
+            var initName = pool.utf8("<init>");
+            var initType = pool.utf8("(" + OBJECT_ARRAY + ")V");
+            var runName = pool.utf8("run");
+            var runType = pool.utf8("(I" + CONTEXT + ")V");
+            var init = generateInit();
+            var codeName = pool.utf8("Code");
+            var stackMapName = pool.utf8("StackMapTable");
+            var stackMap = generateStackMap();
+
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(JAVA_17);
+            pool.write(out);
+            out.writeShort(0x0030); // final super
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(generatedCode);
+
+            out.writeShort(1);
+            out.writeShort(0x0012); // private final
+            out.writeShort(constantsName);
+            out.writeShort(constantsType);
+            out.writeShort(0);
+
+            out.writeShort(2);
+            writeMethod(out, initName, initType, codeName, 2, 2, init, -1, null);
+            writeMethod(out, runName, runType, codeName, 2, 3, run, stackMapName, stackMap);
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] generateInit() {
+        var init = new ByteArrayOutputStream();
+        init.write(ALOAD_0);
+        init.write(INVOKESPECIAL);
+        writeShort(init, pool.methodRef(OBJECT, "<init>", "()V", false));
+        init.write(ALOAD_0);
+        init.write(ALOAD_1);
+        init.write(PUTFIELD);
+        writeShort(init, pool.fieldRef(CLASS_NAME, "constants", OBJECT_ARRAY));
+        init.write(RETURN);
+        return init.toByteArray();
+    }
+
+    private byte[] generateRun() {
+        var n = instructions.length;
+        // A frame at offset 0 is best avoided
+        u1(NOP);
+        labels[n + 1] = length;
+        u1(ILOAD_1);
+        var address = length;
+        u1(TABLESWITCH);
+        while (length % 4 != 0)
+            u1(0);
+        jumps.add(new Jump(address, length, n, true));
+        u4(0);
+        u4(0);
+        u4(n - 1);
+        for (var i = 0; i < n; i++) {
+            jumps.add(new Jump(address, length, i, true));
+            u4(0);
+        }
+        for (var i = 0; i < n; i++) {
+            labels[i] = length;
+            generateBlock(instructions[i], i + 1);
+        }
+        labels[n] = length;
+        u1(RETURN);
+
+        for (var jump : jumps) {
+            var offset = labels[jump.label] - jump.address;
+            if (jump.wide) {
+                put4(jump.position, offset);
+            } else if (offset > Short.MAX_VALUE || offset < Short.MIN_VALUE) {
+                throw new IllegalStateException("The trigger is too large to be compiled");
+            } else {
+                put2(jump.position, offset);
+            }
+        }
+        return Arrays.copyOf(code, length);
+    }
+
+    private void generateBlock(Instruction instruction, int following) {
+        if (instruction instanceof Instructions.Jump) {
+            goTo(((Instructions.Jump) instruction).target, following);
+        } else if (instruction instanceof Instructions.Run) {
+            var run = (Instructions.Run) instruction;
+            loadConstant(run.statement, STATEMENT);
+            u1(ALOAD_2);
+            u1(INVOKEVIRTUAL);
+            u2(pool.methodRef(STATEMENT, "run", "(" + CONTEXT + ")Z", false));
+            branch(run.next, run.exit, following);
+        } else if (instruction instanceof Instructions.Branch) {
+            var branch = (Instructions.Branch) instruction;
+            loadConstant(branch.condition, EXPRESSION);
+            u1(ALOAD_2);
+            invokeInterface(EXPRESSION, "getValues", "(" + CONTEXT + ")" + OBJECT_ARRAY);
+            u1(INVOKESTATIC);
+            u2(pool.methodRef(PACKAGE + "Instructions", "isTrue", "(" + OBJECT_ARRAY + ")Z", false));
+            branch(branch.ifTrue, branch.ifFalse, following);
+        } else if (instruction instanceof Instructions.Test) {
+            var test = (Instructions.Test) instruction;
+            loadConstant(test.test, PREDICATE);
+            u1(ALOAD_2);
+            invokeInterface(PREDICATE, "test", "(L" + OBJECT + ";)Z");
+            branch(test.ifTrue, test.ifFalse, following);
+        } else {
+            loadConstant(instruction, INSTRUCTION);
+            u1(ALOAD_2);
+            invokeInterface(INSTRUCTION, "execute", "(" + CONTEXT + ")I");
+            u1(ISTORE_1);
+            u1(GOTO);
+            jump(instructions.length + 1);
+        }
+    }
+
+    /*
+     * Consumes the boolean on top of the stack
+     */
+    private void branch(int ifTrue, int ifFalse, int following) {
+        if (ifTrue == ifFalse) {
+            u1(POP);
+            goTo(ifTrue, following);
+        } else if (label(ifFalse) == following) {
+            u1(IFNE);
+            jump(label(ifTrue));
+        } else {
+            u1(IFEQ);
+            jump(label(ifFalse));
+            goTo(ifTrue, following);
+        }
+    }
+
+    private void goTo(int target, int following) {
+        if (label(target) != following) {
+            u1(GOTO);
+            jump(label(target));
+        }
+    }
+
+    private int label(int target) {
+        return target == Instruction.END ? instructions.length : target;
+    }
+
+    /*
+     * Must directly follow the opcode of the jump
+     */
+    private void jump(int label) {
+        jumps.add(new Jump(length - 1, length, label, false));
+        u2(0);
+    }
+
+    private void loadConstant(Object constant, String type) {
+        var index = constants.size();
+        if (index > Short.MAX_VALUE)
+            throw new IllegalStateException("The trigger is too large to be compiled");
+        constants.add(constant);
+        u1(ALOAD_0);
+        u1(GETFIELD);
+        u2(pool.fieldRef(CLASS_NAME, "constants", OBJECT_ARRAY));
+        u1(SIPUSH);
+        u2(index);
+        u1(AALOAD);
+        u1(CHECKCAST);
+        u2(pool.classRef(type));
+    }
+
+    private void invokeInterface(String owner, String name, String descriptor) {
+        u1(INVOKEINTERFACE);
+        u2(pool.methodRef(owner, name, descriptor, true));
+        u1(2);
+        u1(0);
+    }
+
+    private byte[] generateStackMap() {
+        // Every label has the same frame as the start of the method
+        var offsets = new TreeSet<Integer>();
+        for (var label : labels)
+            offsets.add(label);
+        var frames = new ByteArrayOutputStream();
+        writeShort(frames, offsets.size());
+        var previous = -1;
+        for (int offset : offsets) {
+            var delta = offset - previous - 1;
+            if (delta < 64) {
+                frames.write(delta); // same_frame
+            } else {
+                frames.write(251); // same_frame_extended
+                writeShort(frames, delta);
+            }
+            previous = offset;
+        }
+        return frames.toByteArray();
+    }
+
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeName, int maxStack,
+                                    int maxLocals, byte[] code, int stackMapName, byte[] stackMap) throws IOException {
+        out.writeShort(0x0001); // public
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        var attributesLength = stackMap != null ? 6 + stackMap.length : 0;
+        out.writeInt(12 + code.length + attributesLength);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        if (stackMap != null) {
+            out.writeShort(1);
+            out.writeShort(stackMapName);
+            out.writeInt(stackMap.length);
+            out.write(stackMap);
+        } else {
+            out.writeShort(0);
+        }
+    }
+
+    private static void writeShort(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private void u1(int value) {
+        if (length == code.length)
+            code = Arrays.copyOf(code, length * 2);
+        code[length++] = (byte) value;
+    }
+
+    private void u2(int value) {
+        u1(value >>> 8);
+        u1(value);
+    }
+
+    private void u4(int value) {
+        u2(value >>> 16);
+        u2(value);
+    }
+
+    private void put2(int position, int value) {
+        code[position] = (byte) (value >>> 8);
+        code[position + 1] = (byte) value;
+    }
+
+    private void put4(int position, int value) {
+        put2(position, value >>> 16);
+        put2(position + 2, value);
+    }
+
+    private static class Jump {
+        // The address of the jumping instruction, which offsets are relative to
+        private final int address;
+        // Where the offset is written
+        private final int position;
+        private final int label;
+        private final boolean wide;
+
+        private Jump(int address, int position, int label, boolean wide) {
+            this.address = address;
+            this.position = position;
+            this.label = label;
+            this.wide = wide;
+        }
+    }
+
+    private static class ConstantPool {
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final ByteArrayOutputStream entries = new ByteArrayOutputStream();
+        private int count = 1;
+
+        private int utf8(String value) {
+            return entry("U" + value, out -> {
+                out.writeByte(1);
+                out.writeUTF(value);
+            });
+        }
+
+        private int classRef(String name) {
+            var nameIndex = utf8(name);
+            return entry("C" + name, out -> {
+                out.writeByte(7);
+                out.writeShort(nameIndex);
+            });
+        }
+
+        private int nameAndType(String name, String descriptor) {
+            var nameIndex = utf8(name);
+            var descriptorIndex = utf8(descriptor);
+            return entry("N" + name + ' ' + descriptor, out -> {
+                out.writeByte(12);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+        }
+
+        private int fieldRef(String owner, String name, String descriptor) {
+            return memberRef(9, owner, name, descriptor);
+        }
+
+        private int methodRef(String owner, String name, String descriptor, boolean isInterface) {
+            return memberRef(isInterface ? 11 : 10, owner, name, descriptor);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) {
+            var ownerIndex = classRef(owner);
+            var nameAndTypeIndex = nameAndType(name, descriptor);
+            return entry(tag + owner + '.' + name + ' ' + descriptor, out -> {
+                out.writeByte(tag);
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndTypeIndex);
+            });
+        }
+
+        private int entry(String key, EntryWriter writer) {
+            var index = indices.get(key);
+            if (index != null)
+                return index;
+            try {
+                writer.write(new DataOutputStream(entries));
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+            indices.put(key, count);
+            return count++;
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            out.writeShort(count);
+            entries.writeTo(out);
+        }
+    }
+
+    @FunctionalInterface
+    private interface EntryWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
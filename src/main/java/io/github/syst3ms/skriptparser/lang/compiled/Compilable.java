@@ -0,0 +1,20 @@
+package io.github.syst3ms.skriptparser.lang.compiled;
+
+import io.github.syst3ms.skriptparser.lang.Statement;
+import io.github.syst3ms.skriptparser.lang.TriggerContext;
+
+/**
+ * {@linkplain Statement Statements} implementing this interface know how to turn themselves into an
+ * {@link Instruction} of a {@link CompiledTrigger}, whose jumps are resolved once and for all.
+ * <br>
+ * Statements that don't implement it are still {@linkplain Statement#walk(TriggerContext) walked} on when running
+ * a compiled trigger, and the statement they return is looked up every time.
+ */
+public interface Compilable {
+    /**
+     * The returned instruction must behave exactly like {@link Statement#walk(TriggerContext)} would.
+     * @param trigger the trigger being compiled, used to resolve the statements to jump to
+     * @return the instruction executing this statement
+     */
+    Instruction compile(CompiledTrigger trigger);
+}
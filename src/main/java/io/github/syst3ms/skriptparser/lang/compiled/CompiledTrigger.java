@@ -0,0 +1,248 @@
+package io.github.syst3ms.skriptparser.lang.compiled;
+
+import io.github.syst3ms.skriptparser.lang.CodeSection;
+import io.github.syst3ms.skriptparser.lang.Statement;
+import io.github.syst3ms.skriptparser.lang.Trigger;
+import io.github.syst3ms.skriptparser.lang.TriggerContext;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Trigger} lowered into a flat array of {@linkplain Instruction instructions}, one per statement.
+ * <br>
+ * Running a compiled trigger is equivalent to {@linkplain Statement#walk(TriggerContext) walking} on its statements,
+ * except that where each statement leads to is resolved when compiling, instead of on every step:
+ * <ul>
+ *     <li>statements that don't override {@link Statement#walk(TriggerContext)} are {@linkplain Statement#run(TriggerContext) run}
+ *     and jump to the precomputed index of the statement after them;</li>
+ *     <li>{@link Compilable} statements provide their own instruction;</li>
+ *     <li>any other statement is walked on, and the statement it returns is looked up.</li>
+ * </ul>
+ * Compilation relies on the structure of the trigger, so it must happen after the trigger is completely loaded.
+ * <br>
+ * When {@linkplain #setJitEnabled(boolean) enabled}, a trigger that has run {@linkplain #setJitThreshold(int) enough}
+ * times is further turned into bytecode, which then replaces the instructions for all later executions. Should that
+ * fail, the trigger keeps running its instructions.
+ */
+public class CompiledTrigger {
+    private static final AtomicInteger jitCompilations = new AtomicInteger();
+    private static final AtomicInteger jitFailures = new AtomicInteger();
+    private static volatile boolean jitEnabled = false;
+    private static volatile int jitThreshold = 1000;
+
+    private final Map<Statement, Integer> indices = new IdentityHashMap<>();
+    private final List<Instruction> instructions = new ArrayList<>();
+    private final Instruction[] code;
+    // Not exact under contention, which doesn't matter for a threshold
+    private int executions = 0;
+    private volatile boolean jitAttempted = false;
+    @Nullable
+    private volatile GeneratedCode generated;
+
+    private CompiledTrigger(Trigger trigger) {
+        List<Statement> statements = new ArrayList<>();
+        collect(trigger, statements);
+        for (var i = 0; i < statements.size(); i++) {
+            indices.put(statements.get(i), i);
+            instructions.add(null);
+        }
+        for (var i = 0; i < statements.size(); i++) {
+            instructions.set(i, compile(statements.get(i)));
+        }
+        code = instructions.toArray(new Instruction[0]);
+    }
+
+    /**
+     * @param trigger a completely loaded trigger
+     * @return the compiled trigger
+     */
+    public static CompiledTrigger compile(Trigger trigger) {
+        return new CompiledTrigger(trigger);
+    }
+
+    private static void collect(Statement statement, List<Statement> statements) {
+        statements.add(statement);
+        if (statement instanceof CodeSection && ((CodeSection) statement).getItems() != null) {
+            for (var item : ((CodeSection) statement).getItems()) {
+                collect(item, statements);
+            }
+        }
+    }
+
+    private Instruction compile(Statement statement) {
+        if (statement instanceof Compilable) {
+            return ((Compilable) statement).compile(this);
+        } else if (walksByDefault(statement)) {
+            // Mirrors Statement#walk
+            var next = indexOf(statement.getNext());
+            var exit = statement.getParent().isPresent() ? indexOf(statement.getParent().get().getNext()) : Instruction.END;
+            return Instructions.run(statement, next, exit);
+        } else {
+            return walking(statement);
+        }
+    }
+
+    private static boolean walksByDefault(Statement statement) {
+        try {
+            return statement.getClass().getMethod("walk", TriggerContext.class).getDeclaringClass() == Statement.class;
+        } catch (NoSuchMethodException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Runs this trigger from the given statement on, if it is part of this trigger.
+     * @param start the statement to start from
+     * @param ctx the context
+     * @return {@code true} if the statement is part of this trigger and was run, {@code false} otherwise
+     */
+    public boolean run(Statement start, TriggerContext ctx) {
+        var index = indices.get(start);
+        if (index == null)
+            return false;
+        var generated = this.generated;
+        if (generated == null && jitEnabled && !jitAttempted && ++executions >= jitThreshold)
+            generated = tierUp();
+        if (generated != null) {
+            generated.run(index, ctx);
+            return true;
+        }
+        var code = this.code;
+        int current = index;
+        while (current != Instruction.END)
+            current = code[current].execute(ctx);
+        return true;
+    }
+
+    @Nullable
+    private synchronized GeneratedCode tierUp() {
+        if (!jitAttempted) {
+            try {
+                generated = BytecodeGenerator.generate(code);
+                jitCompilations.incrementAndGet();
+            } catch (IllegalStateException | LinkageError e) {
+                jitFailures.incrementAndGet();
+            }
+            jitAttempted = true;
+        }
+        return generated;
+    }
+
+    /**
+     * Resolves a statement to jump to when compiling. Should only be called from {@link Compilable#compile(CompiledTrigger)}.
+     * @param statement the statement, or an empty Optional to stop the execution
+     * @return the index of the instruction executing that statement
+     */
+    public int indexOf(Optional<? extends Statement> statement) {
+        if (statement.isEmpty())
+            return Instruction.END;
+        var index = indices.get(statement.get());
+        if (index == null) {
+            // A statement from somewhere else, that can only be interpreted
+            var foreign = statement.get();
+            index = instructions.size();
+            indices.put(foreign, index);
+            instructions.add(ctx -> {
+                interpret(Optional.of(foreign), ctx);
+                return Instruction.END;
+            });
+        }
+        return index;
+    }
+
+    /**
+     * Resolves a statement to jump to at runtime.
+     * @param ctx the context
+     * @param next the statement, or an empty Optional to stop the execution
+     * @return the index of the instruction executing that statement
+     */
+    public int jump(TriggerContext ctx, Optional<? extends Statement> next) {
+        if (next.isEmpty())
+            return Instruction.END;
+        var index = indices.get(next.get());
+        if (index != null)
+            return index;
+        interpret(next, ctx);
+        return Instruction.END;
+    }
+
+    /**
+     * @param statement a statement of this trigger
+     * @return an instruction walking on that statement, and jumping to the statement it returns
+     */
+    public Instruction walking(Statement statement) {
+        return ctx -> jump(ctx, statement.walk(ctx));
+    }
+
+    private static void interpret(Optional<? extends Statement> item, TriggerContext ctx) {
+        while (item.isPresent())
+            item = item.flatMap(i -> i.walk(ctx));
+    }
+
+    /**
+     * @return the amount of instructions of this trigger
+     */
+    public int size() {
+        return code.length;
+    }
+
+    /**
+     * @return the amount of times this trigger was run before being turned into bytecode
+     */
+    public int getExecutions() {
+        return executions;
+    }
+
+    /**
+     * @return whether this trigger now runs as bytecode
+     */
+    public boolean isJitCompiled() {
+        return generated != null;
+    }
+
+    /**
+     * Sets whether hot compiled triggers should be turned into bytecode. Disabling it doesn't affect triggers
+     * that already were.
+     * @param enabled whether to enable it
+     */
+    public static void setJitEnabled(boolean enabled) {
+        jitEnabled = enabled;
+    }
+
+    public static boolean isJitEnabled() {
+        return jitEnabled;
+    }
+
+    /**
+     * @param threshold the amount of executions after which a compiled trigger is turned into bytecode
+     */
+    public static void setJitThreshold(int threshold) {
+        if (threshold < 1)
+            throw new IllegalArgumentException("The threshold must be positive");
+        jitThreshold = threshold;
+    }
+
+    public static int getJitThreshold() {
+        return jitThreshold;
+    }
+
+    /**
+     * @return the amount of triggers that were turned into bytecode so far
+     */
+    public static int getJitCompilations() {
+        return jitCompilations.get();
+    }
+
+    /**
+     * @return the amount of triggers that couldn't be turned into bytecode, and kept running as instructions
+     */
+    public static int getJitFailures() {
+        return jitFailures.get();
+    }
+}
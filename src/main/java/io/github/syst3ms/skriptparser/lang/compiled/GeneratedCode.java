@@ -0,0 +1,15 @@
+package io.github.syst3ms.skriptparser.lang.compiled;
+
+import io.github.syst3ms.skriptparser.lang.TriggerContext;
+
+/**
+ * The bytecode of a {@link CompiledTrigger}, implemented by the hidden classes {@link BytecodeGenerator} defines.
+ */
+interface GeneratedCode {
+    /**
+     * Runs the trigger until it is over
+     * @param start the index of the instruction to start from
+     * @param ctx the context
+     */
+    void run(int start, TriggerContext ctx);
+}
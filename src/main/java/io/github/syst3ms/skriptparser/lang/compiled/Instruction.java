@@ -0,0 +1,22 @@
+package io.github.syst3ms.skriptparser.lang.compiled;
+
+import io.github.syst3ms.skriptparser.lang.Statement;
+import io.github.syst3ms.skriptparser.lang.TriggerContext;
+
+/**
+ * A single step of a {@link CompiledTrigger}, usually executing a single {@link Statement}.
+ */
+@FunctionalInterface
+public interface Instruction {
+    /**
+     * The index returned by an instruction after which the execution stops.
+     */
+    int END = -1;
+
+    /**
+     * Executes this instruction
+     * @param ctx the context
+     * @return the index of the next instruction to execute, or {@link #END} if the execution is over
+     */
+    int execute(TriggerContext ctx);
+}
@@ -0,0 +1,127 @@
+package io.github.syst3ms.skriptparser.lang.compiled;
+
+import io.github.syst3ms.skriptparser.lang.Expression;
+import io.github.syst3ms.skriptparser.lang.Statement;
+import io.github.syst3ms.skriptparser.lang.TriggerContext;
+import io.github.syst3ms.skriptparser.parsing.SkriptRuntimeException;
+
+import java.util.function.Predicate;
+
+/**
+ * Common kinds of {@linkplain Instruction instructions}, whose jumps are all known in advance.
+ * <br>
+ * {@link Compilable} statements should build their instructions from these whenever possible: unlike arbitrary
+ * instructions, they can be turned into plain bytecode branches once a trigger gets hot.
+ */
+public class Instructions {
+    private Instructions() {}
+
+    /**
+     * @param target the index of the next instruction
+     * @return an instruction that does nothing but jump to the given index
+     */
+    public static Instruction jump(int target) {
+        return new Jump(target);
+    }
+
+    /**
+     * @param condition the condition
+     * @param ifTrue the index to jump to if the condition is true
+     * @param ifFalse the index to jump to if the condition is false or has no value
+     * @return an instruction checking the given condition, the same way as {@link Expression#getSingle(TriggerContext)} would
+     */
+    public static Instruction branch(Expression<Boolean> condition, int ifTrue, int ifFalse) {
+        return new Branch(condition, ifTrue, ifFalse);
+    }
+
+    /**
+     * @param test the test, which may have side effects
+     * @param ifTrue the index to jump to if the test passes
+     * @param ifFalse the index to jump to if the test fails
+     * @return an instruction running the given test
+     */
+    public static Instruction test(Predicate<TriggerContext> test, int ifTrue, int ifFalse) {
+        return new Test(test, ifTrue, ifFalse);
+    }
+
+    /*
+     * Mirrors Statement#walk for statements that don't override it
+     */
+    static Instruction run(Statement statement, int next, int exit) {
+        return new Run(statement, next, exit);
+    }
+
+    /*
+     * Called by generated code as well
+     */
+    static boolean isTrue(Object[] values) {
+        if (values.length == 0) {
+            return false;
+        } else if (values.length > 1) {
+            throw new SkriptRuntimeException("Can't call getSingle on an expression that returns multiple values!");
+        } else {
+            return values[0] != null && (Boolean) values[0];
+        }
+    }
+
+    static class Jump implements Instruction {
+        final int target;
+
+        private Jump(int target) {
+            this.target = target;
+        }
+
+        @Override
+        public int execute(TriggerContext ctx) {
+            return target;
+        }
+    }
+
+    static class Branch implements Instruction {
+        final Expression<Boolean> condition;
+        final int ifTrue, ifFalse;
+
+        private Branch(Expression<Boolean> condition, int ifTrue, int ifFalse) {
+            this.condition = condition;
+            this.ifTrue = ifTrue;
+            this.ifFalse = ifFalse;
+        }
+
+        @Override
+        public int execute(TriggerContext ctx) {
+            return isTrue(condition.getValues(ctx)) ? ifTrue : ifFalse;
+        }
+    }
+
+    static class Test implements Instruction {
+        final Predicate<TriggerContext> test;
+        final int ifTrue, ifFalse;
+
+        private Test(Predicate<TriggerContext> test, int ifTrue, int ifFalse) {
+            this.test = test;
+            this.ifTrue = ifTrue;
+            this.ifFalse = ifFalse;
+        }
+
+        @Override
+        public int execute(TriggerContext ctx) {
+            return test.test(ctx) ? ifTrue : ifFalse;
+        }
+    }
+
+    static class Run implements Instruction {
+        final Statement statement;
+        final int next, exit;
+
+        private Run(Statement statement, int next, int exit) {
+            this.statement = statement;
+            this.next = next;
+            this.exit = exit;
+        }
+
+        @Override
+        public int execute(TriggerContext ctx) {
+            return statement.run(ctx) ? next : exit;
+        }
+    }
+}
@@ -39,8 +39,9 @@ public interface Finishing {
 	 * <br>
 	 * Another example is {@link EffExit}, which finishes every section that implements this interface,
 	 * because of the same reasons specified above.
+	 * @param ctx the context of the execution being finished
 	 * @see EffExit
 	 * @see EffContinue
 	 */
-	void finish();
+	void finish(TriggerContext ctx);
 }
@@ -2,17 +2,30 @@ package io.github.syst3ms.skriptparser.lang.lambda;
 
 import io.github.syst3ms.skriptparser.effects.EffContinue;
 import io.github.syst3ms.skriptparser.effects.EffReturn;
+import io.github.syst3ms.skriptparser.file.FileSection;
 import io.github.syst3ms.skriptparser.lang.CodeSection;
+import io.github.syst3ms.skriptparser.lang.ExecutionFrame;
 import io.github.syst3ms.skriptparser.lang.Statement;
+import io.github.syst3ms.skriptparser.lang.TriggerContext;
 import io.github.syst3ms.skriptparser.lang.control.Finishing;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.parsing.ParserState;
 
 import java.util.Optional;
 
 /**
  * A {@link CodeSection} that can hold information about arguments.
+ * The arguments are stored in the {@link ExecutionFrame} of each execution, so that the same section can
+ * be run by multiple executions at once.
  */
 public abstract class ArgumentSection extends CodeSection implements Finishing {
-    private Object[] arguments;
+    private ExecutionFrame.Slot<Object[]> arguments;
+
+    @Override
+    public boolean loadSection(FileSection section, ParserState parserState, SkriptLogger logger) {
+        arguments = parserState.newFrameSlot();
+        return super.loadSection(section, parserState, logger);
+    }
 
     /**
      * This function is called from the section containing the code, and returns an Optional describing
@@ -31,30 +44,33 @@ public abstract class ArgumentSection extends CodeSection implements Finishing {
      * <br>
      * Note that this function only needs to be called for <b>iterative</b> sections, like
      * loops and maps, that need to execute certain actions after <i>each</i> iteration, instead
-     * of only when the execution has finished (see {@linkplain #finish()} for that)
+     * of only when the execution has finished (see {@linkplain #finish(TriggerContext)} for that)
      * <br>
      * By default, does nothing.
      * @param item the last statement
+     * @param ctx the context of the execution
      * @see EffContinue
      * @see EffReturn
      */
-    public void step(Statement item) { /* Nothing */ }
+    public void step(Statement item, TriggerContext ctx) { /* Nothing */ }
 
     @Override
-    public void finish() { /* Nothing */ }
+    public void finish(TriggerContext ctx) { /* Nothing */ }
 
     /**
-     * @return the arguments passed to this section's code
+     * @param ctx the context of the execution
+     * @return the arguments passed to this section's code during that execution
      */
-    public Object[] getArguments() {
-        return arguments;
+    public Object[] getArguments(TriggerContext ctx) {
+        return arguments.get(ctx);
     }
 
     /**
      * Sets the arguments that should be passed to the section code.
+     * @param ctx the context of the execution
      * @param arguments this section's arguments
      */
-    public void setArguments(Object... arguments) {
-        this.arguments = arguments;
+    public void setArguments(TriggerContext ctx, Object... arguments) {
+        this.arguments.set(ctx, arguments);
     }
 }
@@ -2,6 +2,7 @@ package io.github.syst3ms.skriptparser.log;
 
 import io.github.syst3ms.skriptparser.file.FileElement;
 import io.github.syst3ms.skriptparser.file.FileSection;
+import io.github.syst3ms.skriptparser.util.Pair;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
@@ -62,6 +63,8 @@ public class SkriptLogger {
     // Logs
     private final List<LogEntry> logEntries = new ArrayList<>();
     private final List<LogEntry> logged = new ArrayList<>();
+    // Recordings, along with the recursion depth they were started at
+    private final LinkedList<Pair<Integer, List<LogEntry>>> recordings = new LinkedList<>();
 
     public SkriptLogger(boolean debug) {
         this.debug = debug;
@@ -145,9 +148,9 @@ public class SkriptLogger {
         if (open) {
             List<ErrorContext> ctx = new ArrayList<>(errorContext);
             if (line == -1) {
-                logEntries.add(new LogEntry(message, type, line, ctx, error, tip));
+                add(new LogEntry(message, type, line, ctx, error, tip));
             } else {
-                logEntries.add(new LogEntry(
+                add(new LogEntry(
                         String.format(
                                 LOG_FORMAT,
                                 message,
@@ -160,6 +163,67 @@ public class SkriptLogger {
         }
     }
 
+    private void add(LogEntry entry) {
+        logEntries.add(entry);
+        for (var recording : recordings) {
+            recording.getSecond().add(entry);
+        }
+    }
+
+    /**
+     * Starts recording every entry logged from now on, so that they can later be {@linkplain #replay(List) replayed}.
+     * Recordings can be nested, and each of them must be ended using {@link #stopRecording()}.
+     */
+    public void startRecording() {
+        recordings.addLast(new Pair<>(errorContext.size(), new ArrayList<>()));
+    }
+
+    /**
+     * Ends the latest recording. The error contexts of the returned entries are relative to the recursion depth the
+     * recording was started at.
+     * @return the entries logged since the matching call to {@link #startRecording()} that haven't been cleared since
+     */
+    public List<LogEntry> stopRecording() {
+        var recording = recordings.removeLast();
+        int depth = recording.getFirst();
+        List<LogEntry> entries = new ArrayList<>();
+        for (var entry : recording.getSecond()) {
+            if (!logEntries.contains(entry))
+                continue;
+            var ctx = entry.getErrorContext();
+            entries.add(new LogEntry(
+                    entry.getMessage(),
+                    entry.getType(),
+                    entry.getLine(),
+                    List.copyOf(ctx.subList(depth - 1, ctx.size())),
+                    entry.getErrorType(),
+                    entry.getTip().orElse(null)
+            ));
+        }
+        return entries;
+    }
+
+    /**
+     * Logs entries obtained from {@link #stopRecording()} again, as if the code that originally logged them was run
+     * at the current recursion depth.
+     * @param entries the recorded entries
+     */
+    public void replay(List<LogEntry> entries) {
+        if (!open)
+            return;
+        for (var entry : entries) {
+            if (entry.getType() == LogType.ERROR) {
+                if (hasError)
+                    continue;
+                clearNotError();
+                hasError = true;
+            }
+            List<ErrorContext> ctx = new ArrayList<>(errorContext.subList(0, errorContext.size() - 1));
+            ctx.addAll(entry.getErrorContext());
+            add(new LogEntry(entry.getMessage(), entry.getType(), entry.getLine(), ctx, entry.getErrorType(), entry.getTip().orElse(null)));
+        }
+    }
+
     /**
      * Logs an error message
      * @param message the error message
@@ -293,6 +357,17 @@ public class SkriptLogger {
         return fileName;
     }
 
+    /**
+     * @return whether any error has been made definitive since this Logger was created
+     */
+    public boolean hasLoggedErrors() {
+        for (var entry : logged) {
+            if (entry.getType() == LogType.ERROR)
+                return true;
+        }
+        return false;
+    }
+
     /**
      * @return whether or not this Logger has an error stored
      */
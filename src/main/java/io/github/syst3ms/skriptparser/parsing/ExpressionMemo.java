@@ -0,0 +1,118 @@
+package io.github.syst3ms.skriptparser.parsing;
+
+import io.github.syst3ms.skriptparser.lang.Expression;
+import io.github.syst3ms.skriptparser.lang.ExpressionList;
+import io.github.syst3ms.skriptparser.lang.Variable;
+import io.github.syst3ms.skriptparser.log.LogEntry;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A memoization table for the expressions parsed inside of a single line of code.
+ * <br>
+ * While a line is being matched, the same substring is often parsed as the same type over and over again, because
+ * every possible split of a pattern is tried out. This table remembers the outcome of each of these parses, be it
+ * successful or not, alongside the logs it produced, so that it is only performed once per line. A table never
+ * outlives the line it was created for, so the {@link ParserState} is the same for all of its entries.
+ * @see ParserState#pushExpressionMemo()
+ */
+public class ExpressionMemo {
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    private final Map<Key, Entry> entries = new HashMap<>();
+
+    /**
+     * Returns the memoized result of the given parse, or performs it and memoizes its result.
+     * @param s the string being parsed
+     * @param type an object describing what the string is parsed as
+     * @param logger the logger
+     * @param parser the actual parsing function
+     * @param <E> the type of the expression
+     * @return the result of the parse
+     */
+    @SuppressWarnings("unchecked")
+    <E extends Expression<?>> Optional<? extends E> parse(String s, Object type, SkriptLogger logger, Supplier<Optional<? extends E>> parser) {
+        var key = new Key(s, type);
+        var entry = entries.get(key);
+        if (entry != null) {
+            hits.incrementAndGet();
+            if (entry.result.isPresent())
+                logger.clearErrors();
+            logger.replay(entry.logs);
+            return (Optional<? extends E>) entry.result;
+        }
+        misses.incrementAndGet();
+        Optional<? extends E> result;
+        List<LogEntry> logs;
+        logger.startRecording();
+        try {
+            result = parser.get();
+        } finally {
+            logs = logger.stopRecording();
+        }
+        /*
+         * Variables and expression lists may still be modified by the syntax they end up being part of
+         * (see ExpressionElement and CondExprCompare), so they can't be shared. They are cheap to parse anyway.
+         */
+        if (result.filter(e -> e instanceof Variable || e instanceof ExpressionList).isEmpty())
+            entries.put(key, new Entry(result, logs));
+        return result;
+    }
+
+    /**
+     * @return the amount of parses that were answered by a memoization table, since startup
+     */
+    public static long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the amount of parses that had to actually be performed while a memoization table was in use, since startup
+     */
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    private static class Key {
+        private final String s;
+        private final Object type;
+
+        private Key(String s, Object type) {
+            this.s = s;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+            var key = (Key) o;
+            return s.equals(key.s) && type.equals(key.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(s, type);
+        }
+    }
+
+    private static class Entry {
+        private final Optional<? extends Expression<?>> result;
+        private final List<LogEntry> logs;
+
+        private Entry(Optional<? extends Expression<?>> result, List<LogEntry> logs) {
+            this.result = result;
+            this.logs = logs;
+        }
+    }
+}
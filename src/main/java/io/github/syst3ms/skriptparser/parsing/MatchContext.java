@@ -18,7 +18,8 @@ import java.util.regex.MatchResult;
  * An object that provides contextual information during syntax matching.
  */
 public class MatchContext {
-    private final String originalPattern;
+    @Nullable
+    private String originalPattern;
     private final PatternElement originalElement;
     // Provided to the syntax's class
     private final ParserState parserState;
@@ -35,7 +36,6 @@ public class MatchContext {
     }
 
     public MatchContext(PatternElement e, ParserState parserState, SkriptLogger logger, @Nullable MatchContext source) {
-        this.originalPattern = e.toString();
         this.originalElement = e;
         this.parserState = parserState;
         this.logger = logger;
@@ -53,6 +53,8 @@ public class MatchContext {
      * @return the string version of {@link #getOriginalElement()}
      */
     public String getOriginalPattern() {
+        if (originalPattern == null) // Only rarely needed, and costly to build for every branch
+            originalPattern = originalElement.toString();
         return originalPattern;
     }
 
@@ -143,7 +145,7 @@ public class MatchContext {
      * @return a {@link ParseContext} based on this {@link MatchContext}
      */
     public ParseContext toParseResult() {
-        return new ParseContext(parserState, originalElement, regexMatches, marks, originalPattern, logger);
+        return new ParseContext(parserState, originalElement, regexMatches, marks, getOriginalPattern(), logger);
     }
 
     public ParserState getParserState() {
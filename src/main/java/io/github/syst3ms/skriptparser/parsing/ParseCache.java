@@ -0,0 +1,160 @@
+package io.github.syst3ms.skriptparser.parsing;
+
+import io.github.syst3ms.skriptparser.registration.SyntaxInfo;
+import io.github.syst3ms.skriptparser.registration.SyntaxManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An on-disk record of which syntax matched each piece of code of a script, used to speed up later loads of the same
+ * script.
+ * <br>
+ * Whenever an effect, section, event or expression is successfully parsed, the class of the syntax that matched it is
+ * remembered, along with the context it was parsed in. The next time the same code is parsed in the same context, that
+ * syntax is tried before any other one. A cache is only valid
+ * for the exact contents of its script and the exact syntaxes that were registered when it was saved; otherwise, it is
+ * discarded.
+ * @see ScriptLoader#setParseCacheFolder(Path)
+ */
+public class ParseCache {
+    /**
+     * The different kinds of code that are recorded.
+     */
+    public enum Kind {
+        EFFECT, SECTION, EVENT, EXPRESSION
+    }
+
+    private final Path file;
+    private final String fingerprint;
+    private final String contentHash;
+    private final Map<Kind, Map<String, String>> matches = new HashMap<>();
+    private boolean modified = false;
+
+    private ParseCache(Path file, String fingerprint, String contentHash) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+        this.contentHash = contentHash;
+        for (var kind : Kind.values()) {
+            matches.put(kind, new HashMap<>());
+        }
+    }
+
+    /**
+     * Loads the cache stored in the given file, if it is still valid for the given script.
+     * @param file the cache file, which doesn't need to exist
+     * @param lines the lines of the script
+     * @return the cache, empty if the file doesn't exist or is outdated
+     */
+    public static ParseCache load(Path file, List<String> lines) {
+        var cache = new ParseCache(file, SyntaxManager.getFingerprint(), hash(lines));
+        if (!Files.isRegularFile(file))
+            return cache;
+        try {
+            var content = Files.readAllLines(file, StandardCharsets.UTF_8);
+            if (content.size() < 2 || !content.get(0).equals(cache.fingerprint) || !content.get(1).equals(cache.contentHash)) {
+                cache.modified = true; // Outdated, so it must be overwritten
+                return cache;
+            }
+            for (var line : content.subList(2, content.size())) {
+                var parts = line.split("\t", 3);
+                if (parts.length == 3)
+                    cache.matches.get(Kind.valueOf(parts[0])).put(parts[2], parts[1]);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            cache.matches.values().forEach(Map::clear);
+            cache.modified = true;
+        }
+        return cache;
+    }
+
+    /**
+     * Saves this cache to its file, if anything was recorded since it was loaded.
+     * @throws IOException if the file couldn't be written
+     */
+    public void save() throws IOException {
+        if (!modified)
+            return;
+        List<String> content = new ArrayList<>();
+        content.add(fingerprint);
+        content.add(contentHash);
+        for (var entry : matches.entrySet()) {
+            for (var match : entry.getValue().entrySet()) {
+                content.add(entry.getKey().name() + '\t' + match.getValue() + '\t' + match.getKey());
+            }
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, content, StandardCharsets.UTF_8);
+        modified = false;
+    }
+
+    /**
+     * Moves the syntax that matched the given code last time it was parsed in the same context, if any, to the front of
+     * the given candidates.
+     * @param kind the kind of code being parsed
+     * @param context everything else that can change which syntax matches first, like the expected type
+     * @param code the code being parsed
+     * @param candidates the syntaxes that are about to be tried, in order
+     * @param <T> the type of {@link SyntaxInfo}
+     * @return the candidates, in the order they should be tried in
+     */
+    public <T extends SyntaxInfo<?>> List<T> prioritize(Kind kind, String context, String code, List<T> candidates) {
+        var className = matches.get(kind).get(key(context, code));
+        if (className == null)
+            return candidates;
+        for (var i = 0; i < candidates.size(); i++) {
+            var candidate = candidates.get(i);
+            if (candidate.getSyntaxClass().getName().equals(className)) {
+                if (i == 0)
+                    return candidates;
+                List<T> prioritized = new ArrayList<>(candidates.size());
+                prioritized.add(candidate);
+                prioritized.addAll(candidates.subList(0, i));
+                prioritized.addAll(candidates.subList(i + 1, candidates.size()));
+                return prioritized;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Records which syntax successfully matched the given code.
+     * @param kind the kind of code that was parsed
+     * @param context everything else that can change which syntax matches first, like the expected type
+     * @param code the code that was parsed
+     * @param info the syntax that matched it
+     */
+    public void acknowledge(Kind kind, String context, String code, SyntaxInfo<?> info) {
+        if (code.indexOf('\n') != -1 || code.indexOf('\r') != -1)
+            return;
+        var className = info.getSyntaxClass().getName();
+        if (!className.equals(matches.get(kind).put(key(context, code), className)))
+            modified = true;
+    }
+
+    // The code comes last, which is the only part that may contain tabs once saved
+    private static String key(String context, String code) {
+        return context + '\t' + code;
+    }
+
+    private static String hash(List<String> lines) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            for (var line : lines) {
+                digest.update((line + '\n').getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
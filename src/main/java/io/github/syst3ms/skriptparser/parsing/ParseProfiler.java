@@ -0,0 +1,244 @@
+package io.github.syst3ms.skriptparser.parsing;
+
+import io.github.syst3ms.skriptparser.file.FileElement;
+import io.github.syst3ms.skriptparser.registration.SyntaxInfo;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Records where the time spent parsing scripts goes, both per line of code and per syntax.
+ * <br>
+ * For every line, the time spent parsing it, the number of syntaxes that were tried against it, how many of them
+ * failed and how deeply the attempts were nested are recorded. For every syntax, the number of times it was tried,
+ * how many of these attempts failed, the time they took and their deepest nesting are recorded. All times exclude
+ * the time spent on nested lines and attempts, so that they add up to the total time spent parsing.
+ * <br>
+ * A profiler may be shared by multiple threads, as long as each line is parsed by a single thread.
+ * @see ScriptLoader#setProfiler(ParseProfiler)
+ */
+public class ParseProfiler {
+    private final Map<String, LineStats> lines = new ConcurrentHashMap<>();
+    private final Map<SyntaxInfo<?>, SyntaxStats> syntaxes = new ConcurrentHashMap<>();
+    private final ThreadLocal<Deque<Frame>> frames = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Marks the start of the parsing of a line. Must be followed by a call to {@link #endLine()} on the same thread.
+     * @param element the line
+     */
+    public void startLine(FileElement element) {
+        var stats = lines.computeIfAbsent(element.getFileName() + ':' + element.getLine(), __ -> new LineStats(element));
+        frames.get().push(new Frame(stats, null, 0));
+    }
+
+    /**
+     * Marks the end of the parsing of the last line that was started on this thread.
+     */
+    public void endLine() {
+        var stack = frames.get();
+        var frame = stack.pop();
+        var elapsed = System.nanoTime() - frame.start;
+        assert frame.line != null;
+        frame.line.nanos.addAndGet(elapsed - frame.excluded);
+        // Neither the section that contains this line nor the line of that section should account for it
+        var parent = stack.peek();
+        if (parent != null && parent.syntax != null)
+            parent.excluded += elapsed;
+        for (var enclosing : stack) {
+            if (enclosing.syntax == null) {
+                enclosing.excluded += elapsed;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Marks the start of an attempt at matching the given syntax. Must be followed by a call to
+     * {@link #endAttempt(boolean)} on the same thread.
+     * @param info the syntax
+     */
+    public void startAttempt(SyntaxInfo<?> info) {
+        var stack = frames.get();
+        var enclosing = stack.peek();
+        var line = enclosing != null ? enclosing.line : null;
+        var depth = enclosing != null && enclosing.syntax != null ? enclosing.depth + 1 : 1;
+        stack.push(new Frame(line, syntaxes.computeIfAbsent(info, SyntaxStats::new), depth));
+    }
+
+    /**
+     * Marks the end of the last attempt that was started on this thread.
+     * @param matched whether the syntax matched
+     */
+    public void endAttempt(boolean matched) {
+        var stack = frames.get();
+        var frame = stack.pop();
+        var elapsed = System.nanoTime() - frame.start;
+        assert frame.syntax != null;
+        frame.syntax.record(elapsed - frame.excluded, matched, frame.depth);
+        if (frame.line != null)
+            frame.line.record(matched, frame.depth);
+        var parent = stack.peek();
+        if (parent != null && parent.syntax != null)
+            parent.excluded += elapsed;
+    }
+
+    /**
+     * @param limit the maximum number of lines and syntaxes to list
+     * @return a human-readable report of the most expensive lines, and of the syntaxes that failed to match the most
+     */
+    public String getReport(int limit) {
+        var builder = new StringBuilder("Most expensive lines:");
+        var sortedLines = getSortedLines();
+        for (var line : sortedLines.subList(0, Math.min(limit, sortedLines.size()))) {
+            builder.append(String.format("%n  %s:%d  %.3fms, %d attempts (%d failed), depth %d: %s",
+                    line.fileName, line.line, toMillis(line.nanos.get()), line.attempts.get(), line.failures.get(),
+                    line.maxDepth.get(), line.content));
+        }
+        builder.append(String.format("%nSyntaxes tried the most without matching:"));
+        var sortedSyntaxes = getSortedSyntaxes();
+        for (var syntax : sortedSyntaxes.subList(0, Math.min(limit, sortedSyntaxes.size()))) {
+            builder.append(String.format("%n  %s  %d attempts (%d failed), %.3fms, depth %d",
+                    syntax.info.getSyntaxClass().getName(), syntax.attempts.get(), syntax.failures.get(),
+                    toMillis(syntax.nanos.get()), syntax.maxDepth.get()));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes everything that was recorded to the given file, as JSON. Lines are sorted by decreasing time, and
+     * syntaxes by decreasing number of failed attempts.
+     * @param file the file
+     * @throws IOException if the file couldn't be written
+     */
+    public void writeJson(Path file) throws IOException {
+        var json = new StringBuilder("{\n  \"lines\": [");
+        json.append(getSortedLines().stream()
+                .map(line -> String.format("\n    {\"file\": %s, \"line\": %d, \"code\": %s, \"nanos\": %d, \"attempts\": %d, \"failures\": %d, \"maxDepth\": %d}",
+                        quote(line.fileName), line.line, quote(line.content), line.nanos.get(), line.attempts.get(),
+                        line.failures.get(), line.maxDepth.get()))
+                .collect(Collectors.joining(",")));
+        json.append("\n  ],\n  \"syntaxes\": [");
+        json.append(getSortedSyntaxes().stream()
+                .map(syntax -> String.format("\n    {\"class\": %s, \"patterns\": [%s], \"nanos\": %d, \"attempts\": %d, \"failures\": %d, \"maxDepth\": %d}",
+                        quote(syntax.info.getSyntaxClass().getName()),
+                        syntax.info.getPatterns().stream()
+                                .map(pattern -> quote(pattern.toString()))
+                                .collect(Collectors.joining(", ")),
+                        syntax.nanos.get(), syntax.attempts.get(), syntax.failures.get(), syntax.maxDepth.get()))
+                .collect(Collectors.joining(",")));
+        json.append("\n  ]\n}\n");
+        var parent = file.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        Files.writeString(file, json, StandardCharsets.UTF_8);
+    }
+
+    private List<LineStats> getSortedLines() {
+        List<LineStats> sorted = new ArrayList<>(lines.values());
+        sorted.sort(Comparator.comparingLong((LineStats line) -> line.nanos.get()).reversed());
+        return sorted;
+    }
+
+    private List<SyntaxStats> getSortedSyntaxes() {
+        List<SyntaxStats> sorted = new ArrayList<>(syntaxes.values());
+        sorted.sort(Comparator.comparingLong((SyntaxStats syntax) -> syntax.failures.get())
+                .thenComparingLong(syntax -> syntax.nanos.get())
+                .reversed());
+        return sorted;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static String quote(String s) {
+        var builder = new StringBuilder("\"");
+        for (var i = 0; i < s.length(); i++) {
+            var c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < ' ') {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private static class Frame {
+        // The line being parsed, or the line the attempt belongs to, if any
+        @Nullable
+        private final LineStats line;
+        // Null for lines
+        @Nullable
+        private final SyntaxStats syntax;
+        private final int depth;
+        private final long start = System.nanoTime();
+        // The time spent on nested lines and attempts
+        private long excluded = 0;
+
+        private Frame(@Nullable LineStats line, @Nullable SyntaxStats syntax, int depth) {
+            this.line = line;
+            this.syntax = syntax;
+            this.depth = depth;
+        }
+    }
+
+    private static class LineStats {
+        private final String fileName;
+        private final int line;
+        private final String content;
+        private final AtomicLong nanos = new AtomicLong();
+        private final AtomicLong attempts = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicInteger maxDepth = new AtomicInteger();
+
+        private LineStats(FileElement element) {
+            this.fileName = element.getFileName();
+            this.line = element.getLine();
+            this.content = element.getLineContent();
+        }
+
+        private void record(boolean matched, int depth) {
+            attempts.incrementAndGet();
+            if (!matched)
+                failures.incrementAndGet();
+            maxDepth.accumulateAndGet(depth, Math::max);
+        }
+    }
+
+    private static class SyntaxStats {
+        private final SyntaxInfo<?> info;
+        private final AtomicLong nanos = new AtomicLong();
+        private final AtomicLong attempts = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicInteger maxDepth = new AtomicInteger();
+
+        private SyntaxStats(SyntaxInfo<?> info) {
+            this.info = info;
+        }
+
+        private void record(long nanos, boolean matched, int depth) {
+            this.nanos.addAndGet(nanos);
+            attempts.incrementAndGet();
+            if (!matched)
+                failures.incrementAndGet();
+            maxDepth.accumulateAndGet(depth, Math::max);
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package io.github.syst3ms.skriptparser.parsing;
 
 import io.github.syst3ms.skriptparser.lang.CodeSection;
+import io.github.syst3ms.skriptparser.lang.ExecutionFrame;
 import io.github.syst3ms.skriptparser.lang.Statement;
 import io.github.syst3ms.skriptparser.lang.SyntaxElement;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
 import io.github.syst3ms.skriptparser.util.Pair;
+import io.github.syst3ms.skriptparser.variables.LocalVariables;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -20,6 +24,11 @@ public class ParserState {
     private final LinkedList<LinkedList<Statement>> currentStatements = new LinkedList<>();
     private final LinkedList<Pair<Set<Class<? extends SyntaxElement>>, Boolean>> restrictions = new LinkedList<>();
     private boolean isntAllowingSyntax = false;
+    private final LinkedList<ExpressionMemo> expressionMemos = new LinkedList<>();
+    @Nullable
+    private ParseCache parseCache;
+    private final ExecutionFrame.Layout frameLayout = new ExecutionFrame.Layout();
+    private final LocalVariables.Layout localVariables = new LocalVariables.Layout();
 
     {
         currentStatements.add(new LinkedList<>());
@@ -132,4 +141,60 @@ public class ParserState {
     public boolean isRestrictingExpressions() {
         return restrictions.getLast().getSecond();
     }
+
+    /**
+     * Starts using a fresh {@link ExpressionMemo} for the expressions parsed from now on. Should be called when starting
+     * to parse a new line, and be followed by a call to {@link #popExpressionMemo()} once that line is parsed.
+     */
+    public void pushExpressionMemo() {
+        expressionMemos.addLast(new ExpressionMemo());
+    }
+
+    /**
+     * Discards the current {@link ExpressionMemo}, restoring the one of the enclosing line, if any.
+     */
+    public void popExpressionMemo() {
+        expressionMemos.removeLast();
+    }
+
+    /**
+     * @return the {@link ExpressionMemo} of the line that is currently being parsed, if any
+     */
+    public Optional<ExpressionMemo> getExpressionMemo() {
+        return Optional.ofNullable(expressionMemos.peekLast());
+    }
+
+    /**
+     * @return the {@link ParseCache} of the script the current trigger belongs to, if any
+     */
+    public Optional<ParseCache> getParseCache() {
+        return Optional.ofNullable(parseCache);
+    }
+
+    /**
+     * @param parseCache the {@link ParseCache} of the script the current trigger belongs to
+     */
+    public void setParseCache(@Nullable ParseCache parseCache) {
+        this.parseCache = parseCache;
+    }
+
+    /**
+     * Reserves a slot in the {@link ExecutionFrame} of the current trigger, in which a statement can store
+     * values specific to each execution.
+     * @param <T> the type of the values stored in the slot
+     * @return the new slot
+     */
+    public <T> ExecutionFrame.Slot<T> newFrameSlot() {
+        return frameLayout.newSlot();
+    }
+
+    /**
+     * Resolves a local variable of the current trigger whose name is constant to a slot, so that it can be accessed
+     * without looking its name up.
+     * @param name the name of the variable, without the local variable token
+     * @return the slot of that variable
+     */
+    public LocalVariables.Slot getLocalVariableSlot(String name) {
+        return localVariables.slotOf(name);
+    }
 }
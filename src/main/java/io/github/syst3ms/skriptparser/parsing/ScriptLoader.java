@@ -11,13 +11,20 @@ import io.github.syst3ms.skriptparser.lang.UnloadedTrigger;
 import io.github.syst3ms.skriptparser.log.ErrorType;
 import io.github.syst3ms.skriptparser.log.LogEntry;
 import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.registration.SkriptAddon;
+import io.github.syst3ms.skriptparser.structures.functions.StructFunction;
 import io.github.syst3ms.skriptparser.util.FileUtils;
 import io.github.syst3ms.skriptparser.util.MultiMap;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Contains the logic for loading, parsing and interpreting entire script files
@@ -25,80 +32,355 @@ import java.util.*;
 public class ScriptLoader {
 
     private static final MultiMap<String, Trigger> triggerMap = new MultiMap<>();
+    // The loaded triggers of each script, along with what is needed to reload them
+    private static final MultiMap<String, LoadedTrigger> loadedTriggers = new MultiMap<>();
+    @Nullable
+    private static Path parseCacheFolder;
+    @Nullable
+    private static ParseProfiler profiler;
+    private static boolean compilingTriggers = false;
 
     public static List<LogEntry> loadScriptsFolder(File scriptsFolder, boolean debug) {
         return loadScriptsFolder(scriptsFolder, new SkriptLogger(debug), debug);
     }
 
     public static List<LogEntry> loadScriptsFolder(File scriptsFolder, SkriptLogger logger, boolean debug) {
+        return loadScriptsFolder(scriptsFolder, logger, debug, false);
+    }
+
+    /**
+     * Parses and loads all scripts inside of the provided folder and its subfolders.
+     * <br>
+     * In parallel mode, files are read and their triggers are parsed concurrently, each with a {@link SkriptLogger}
+     * of its own. The contents of the triggers are still loaded one file at a time, since doing so registers them.
+     * The returned entries are then ordered by file, and by line inside of each file.
+     *
+     * @param scriptsFolder the folder containing the scripts
+     * @param logger the {@link SkriptLogger} to use. In parallel mode, only errors related to the folder itself are
+     *               logged to it.
+     * @param debug whether debug is enabled
+     * @param parallel whether to parse the files in parallel
+     * @return the logged entries
+     */
+    public static List<LogEntry> loadScriptsFolder(File scriptsFolder, SkriptLogger logger, boolean debug, boolean parallel) {
         if (!scriptsFolder.isDirectory()) {
             logger.error("Scripts folder not found/isn't a folder!", ErrorType.NO_MATCH);
         }
-        Map<String, List<UnloadedTrigger>> unloadedTriggersMap = new HashMap<>();
-        Map<String, List<FileElement>> elementsMap = new HashMap<>();
-        for (File file : getScriptFiles(scriptsFolder, new HashSet<>())) {
-            logger.setLine(-1);
-            /* //String scriptName = file.getName();
-            logEntries.addAll(loadScript(file.toPath(), logger, debug));*/
-            List<FileElement> elements;
-            String scriptName;
-            Path scriptPath = file.toPath();
-            try {
-                var lines = FileUtils.readAllLines(scriptPath);
-                scriptName = scriptPath.getFileName().toString()/*.replaceAll("(.+)\\..+", "$1")*/;
-                elements = FileParser.parseFileLines(scriptName,
-                        lines,
-                        0,
-                        1,
-                        logger
+        List<File> files = new ArrayList<>(getScriptFiles(scriptsFolder, new HashSet<>()));
+        files.sort(Comparator.naturalOrder());
+        if (!parallel) {
+            List<ParsedScript> scripts = new ArrayList<>();
+            for (File file : files) {
+                parseScript(file.toPath(), logger).ifPresent(scripts::add);
+            }
+            // load everything inside triggers after all triggers have been parsed
+            for (var script : scripts) {
+                loadTriggers(script);
+            }
+            logger.finalizeLogs();
+            return logger.close();
+        }
+        /*
+         * Ordered parallel streams keep the encounter order of the files, which makes the resulting logs
+         * deterministic no matter how the work was split.
+         */
+        List<ParsedScript> scripts = files.parallelStream()
+                .map(file -> parseScript(file.toPath(), new SkriptLogger(debug)))
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+        logger.finalizeLogs();
+        List<LogEntry> logEntries = new ArrayList<>(logger.close());
+        for (var script : scripts) {
+            loadTriggers(script);
+            script.logger.finalizeLogs();
+            logEntries.addAll(script.logger.close());
+        }
+        return logEntries;
+    }
+
+    /**
+     * Sets the folder in which a {@link ParseCache} is stored for each script loaded through
+     * {@link #loadScriptsFolder(File, SkriptLogger, boolean, boolean)}, in order to speed up later loads.
+     * @param folder the folder, or {@literal null} not to use any cache
+     */
+    public static void setParseCacheFolder(@Nullable Path folder) {
+        parseCacheFolder = folder;
+    }
+
+    /**
+     * Sets the profiler that records the cost of every line and syntax parsed from now on.
+     * @param profiler the profiler, or {@literal null} not to profile anything
+     */
+    public static void setProfiler(@Nullable ParseProfiler profiler) {
+        ScriptLoader.profiler = profiler;
+    }
+
+    /**
+     * @return the current profiler, or {@literal null} if parsing isn't being profiled
+     */
+    @Nullable
+    public static ParseProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Sets whether the triggers loaded from now on are {@linkplain Trigger#compile() compiled} once loaded, so that
+     * running them skips most of the work of walking from one statement to the other.
+     * @param compilingTriggers whether to compile triggers
+     * @see io.github.syst3ms.skriptparser.lang.compiled.CompiledTrigger
+     */
+    public static void setCompilingTriggers(boolean compilingTriggers) {
+        ScriptLoader.compilingTriggers = compilingTriggers;
+    }
+
+    /**
+     * @return whether the triggers loaded from now on are compiled
+     */
+    public static boolean isCompilingTriggers() {
+        return compilingTriggers;
+    }
+
+    /**
+     * Reads a script file and parses all of its triggers, without loading their contents.
+     * @param scriptPath the script file
+     * @param logger the logger
+     * @return the parsed script, or an empty {@link Optional} if the file couldn't be read
+     */
+    private static Optional<ParsedScript> parseScript(Path scriptPath, SkriptLogger logger) {
+        logger.setLine(-1);
+        List<FileElement> elements;
+        String scriptName;
+        ParseCache parseCache = null;
+        try {
+            var lines = FileUtils.readAllLines(scriptPath);
+            scriptName = scriptPath.getFileName().toString()/*.replaceAll("(.+)\\..+", "$1")*/;
+            if (parseCacheFolder != null)
+                parseCache = ParseCache.load(parseCacheFolder.resolve(scriptName + ".cache"), lines);
+            elements = FileParser.parseFileLines(scriptName,
+                    lines,
+                    0,
+                    1,
+                    logger
+            );
+            logger.finalizeLogs();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+        List<UnloadedTrigger> unloadedTriggers = new ArrayList<>();
+        logger.setFileInfo(scriptName, elements);
+        for (var element : elements) {
+            logger.finalizeLogs();
+            logger.nextLine();
+            if (element instanceof VoidElement)
+                continue;
+            if (element instanceof FileSection) {
+                var trig = SyntaxParser.parseTrigger((FileSection) element, logger, parseCache);
+                trig.ifPresent(t -> {
+                    logger.setLine(logger.getLine() + ((FileSection) element).length());
+                    unloadedTriggers.add(t);
+                });
+            } else {
+                logger.error(
+                        "Can't have code outside of a trigger",
+                        ErrorType.STRUCTURE_ERROR,
+                        "Code always starts with a trigger (or event). Refer to the documentation to see which event you need, or indent this line so it is part of a trigger"
                 );
-                logger.finalizeLogs();
+            }
+        }
+        return Optional.of(new ParsedScript(scriptName, elements, unloadedTriggers, logger, parseCache));
+    }
+
+    /**
+     * Loads the contents of all the triggers of a parsed script, in order of loading priority.
+     * @param script the parsed script
+     */
+    private static void loadTriggers(ParsedScript script) {
+        var logger = script.logger;
+        script.unloadedTriggers.sort((a, b) -> b.getTrigger().getEvent().getLoadingPriority() - a.getTrigger().getEvent().getLoadingPriority());
+        for (var unloaded : script.unloadedTriggers) {
+            logger.finalizeLogs();
+            logger.setFileInfo(script.name, script.elements);
+            logger.setLine(unloaded.getLine());
+            var loaded = load(unloaded, logger);
+            loaded.handler.handleTrigger(loaded.trigger);
+            triggerMap.putOne(script.name, loaded.trigger);
+            loadedTriggers.putOne(script.name, loaded);
+        }
+        if (script.parseCache != null) {
+            try {
+                script.parseCache.save();
             } catch (IOException e) {
                 e.printStackTrace();
-                continue;
             }
-            unloadedTriggersMap.put(scriptName, new ArrayList<>());
-            elementsMap.put(scriptName, elements);
-            logger.setFileInfo(scriptPath.getFileName().toString(), elements);
-            for (var element : elements) {
-                logger.finalizeLogs();
-                logger.nextLine();
-                if (element instanceof VoidElement)
+        }
+    }
+
+    /**
+     * Reloads a script that was previously loaded, only parsing again the triggers whose code has changed.
+     * <br>
+     * Each top-level section of the file is compared to the triggers that were loaded from the same script using a hash
+     * of its contents. Triggers that are still present as-is are kept, the other sections are parsed and loaded, and
+     * only then are the new triggers registered and the stale ones unregistered, all at once. If a function was
+     * modified or removed, the whole script is loaded again, since the other triggers may refer to it. Calls from other
+     * scripts run the new version of a function as soon as it is registered.
+     * <br>
+     * If any error is logged, the script is left as it was.
+     * <br>
+     * The name of the script is the name of the file, extension included, just like in
+     * {@link #loadScriptsFolder(File, SkriptLogger, boolean, boolean)}.
+     *
+     * @param scriptPath the script file to reload
+     * @param logger the {@link SkriptLogger} to use for the logged entries
+     * @return the logged entries
+     */
+    public static synchronized List<LogEntry> reloadScript(Path scriptPath, SkriptLogger logger) {
+        List<FileElement> elements;
+        String scriptName = scriptPath.getFileName().toString();
+        try {
+            var lines = FileUtils.readAllLines(scriptPath);
+            elements = FileParser.parseFileLines(scriptName,
+                    lines,
+                    0,
+                    1,
+                    logger
+            );
+            logger.finalizeLogs();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+
+        Map<String, LinkedList<LoadedTrigger>> reusable = new HashMap<>();
+        for (var loaded : loadedTriggers.getOrDefault(scriptName, Collections.emptyList())) {
+            reusable.computeIfAbsent(loaded.hash, __ -> new LinkedList<>()).add(loaded);
+        }
+        Map<FileSection, LoadedTrigger> triggers = new IdentityHashMap<>();
+        for (var element : elements) {
+            if (element instanceof FileSection) {
+                var same = reusable.get(hash((FileSection) element));
+                if (same != null && !same.isEmpty())
+                    triggers.put((FileSection) element, same.removeFirst());
+            }
+        }
+        List<LoadedTrigger> stale = new ArrayList<>();
+        reusable.values().forEach(stale::addAll);
+        if (stale.stream().anyMatch(t -> t.trigger.getEvent() instanceof StructFunction)) {
+            stale.addAll(triggers.values());
+            triggers.clear();
+        }
+        // Functions are checked for duplicates as soon as they are parsed, which must ignore the stale ones
+        setReplaced(stale, true);
+
+        logger.setFileInfo(scriptName, elements);
+        List<UnloadedTrigger> unloadedTriggers = new ArrayList<>();
+        for (var element : elements) {
+            logger.finalizeLogs();
+            logger.nextLine();
+            if (element instanceof VoidElement)
+                continue;
+            if (element instanceof FileSection) {
+                if (triggers.containsKey(element)) {
+                    logger.setLine(logger.getLine() + ((FileSection) element).length());
                     continue;
-                if (element instanceof FileSection) {
-                    var trig = SyntaxParser.parseTrigger((FileSection) element, logger);
-                    trig.ifPresent(t -> {
-                        logger.setLine(logger.getLine() + ((FileSection) element).length());
-                        unloadedTriggersMap.get(scriptName).add(t);
-                    });
-                } else {
-                    logger.error(
-                            "Can't have code outside of a trigger",
-                            ErrorType.STRUCTURE_ERROR,
-                            "Code always starts with a trigger (or event). Refer to the documentation to see which event you need, or indent this line so it is part of a trigger"
-                    );
                 }
+                var trig = SyntaxParser.parseTrigger((FileSection) element, logger);
+                trig.ifPresent(t -> {
+                    logger.setLine(logger.getLine() + ((FileSection) element).length());
+                    unloadedTriggers.add(t);
+                });
+            } else {
+                logger.error(
+                        "Can't have code outside of a trigger",
+                        ErrorType.STRUCTURE_ERROR,
+                        "Code always starts with a trigger (or event). Refer to the documentation to see which event you need, or indent this line so it is part of a trigger"
+                );
             }
         }
-        // load everything inside triggers after all triggers have been parsed
-        for (Map.Entry<String, List<UnloadedTrigger>> entry : unloadedTriggersMap.entrySet()) {
-            String scriptName = entry.getKey();
-            List<UnloadedTrigger> unloadedTriggers = entry.getValue();
-            unloadedTriggers.sort((a, b) -> b.getTrigger().getEvent().getLoadingPriority() - a.getTrigger().getEvent().getLoadingPriority());
-            for (var unloaded : unloadedTriggers) {
-                logger.finalizeLogs();
-                logger.setFileInfo(scriptName, elementsMap.get(scriptName));
-                logger.setLine(unloaded.getLine());
-                var loaded = unloaded.getTrigger();
-                loaded.loadSection(unloaded.getSection(), unloaded.getParserState(), logger);
-                unloaded.getEventInfo().getRegisterer().handleTrigger(loaded);
-                triggerMap.putOne(scriptName, loaded);
+        unloadedTriggers.sort((a, b) -> b.getTrigger().getEvent().getLoadingPriority() - a.getTrigger().getEvent().getLoadingPriority());
+        List<LoadedTrigger> added = new ArrayList<>();
+        for (var unloaded : unloadedTriggers) {
+            logger.finalizeLogs();
+            logger.setLine(unloaded.getLine());
+            var loaded = load(unloaded, logger);
+            triggers.put(unloaded.getSection(), loaded);
+            added.add(loaded);
+        }
+
+        logger.finalizeLogs();
+        if (logger.hasLoggedErrors()) {
+            setReplaced(stale, false);
+            for (var loaded : added) {
+                if (loaded.trigger.getEvent() instanceof StructFunction)
+                    ((StructFunction) loaded.trigger.getEvent()).unregister();
             }
+            return logger.close();
         }
+
+        // Swap the stale triggers with the new ones, registering the new ones first so that functions never go missing
+        for (var loaded : added) {
+            loaded.handler.handleTrigger(loaded.trigger);
+        }
+        for (var loaded : stale) {
+            loaded.handler.unhandleTrigger(loaded.trigger);
+        }
+        List<Trigger> scriptTriggers = new ArrayList<>();
+        List<LoadedTrigger> scriptLoadedTriggers = new ArrayList<>();
+        for (var element : elements) {
+            var loaded = triggers.get(element);
+            if (loaded != null) {
+                scriptTriggers.add(loaded.trigger);
+                scriptLoadedTriggers.add(loaded);
+            }
+        }
+        triggerMap.put(scriptName, scriptTriggers);
+        loadedTriggers.put(scriptName, scriptLoadedTriggers);
         logger.finalizeLogs();
         return logger.close();
     }
 
+    private static void setReplaced(List<LoadedTrigger> triggers, boolean replaced) {
+        for (var loaded : triggers) {
+            if (loaded.trigger.getEvent() instanceof StructFunction)
+                ((StructFunction) loaded.trigger.getEvent()).setReplaced(replaced);
+        }
+    }
+
+    private static LoadedTrigger load(UnloadedTrigger unloaded, SkriptLogger logger) {
+        var trigger = unloaded.getTrigger();
+        trigger.loadSection(unloaded.getSection(), unloaded.getParserState(), logger);
+        if (compilingTriggers)
+            trigger.compile();
+        return new LoadedTrigger(hash(unloaded.getSection()), trigger, unloaded.getEventInfo().getRegisterer());
+    }
+
+    /**
+     * Hashes the contents of a section, regardless of where it is located inside of its file.
+     * @param section the section
+     * @return the hash, as an hexadecimal string
+     */
+    private static String hash(FileSection section) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+        update(digest, section);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, FileElement element) {
+        digest.update((element.toString() + '\n').getBytes(StandardCharsets.UTF_8));
+        if (element instanceof FileSection) {
+            for (var child : ((FileSection) element).getElements()) {
+                update(digest, child);
+            }
+            // Marks the end of the section, so that indentation changes can't go unnoticed
+            digest.update((byte) 0);
+        }
+    }
+
     private static Set<File> getScriptFiles(File directory, Set<File> fileList) {
         if (!directory.isDirectory()) return fileList; // isn't a directory
         File[] files = directory.listFiles();
@@ -135,7 +417,7 @@ public class ScriptLoader {
         String scriptName;
         try {
             var lines = FileUtils.readAllLines(scriptPath);
-            scriptName = scriptPath.getFileName().toString().replaceAll("(.+)\\..+", "$1");
+            scriptName = scriptPath.getFileName().toString();
             elements = FileParser.parseFileLines(scriptName,
                     lines,
                     0,
@@ -147,7 +429,7 @@ public class ScriptLoader {
             e.printStackTrace();
             return Collections.emptyList();
         }
-        logger.setFileInfo(scriptPath.getFileName().toString(), elements);
+        logger.setFileInfo(scriptName, elements);
         List<UnloadedTrigger> unloadedTriggers = new ArrayList<>();
         for (var element : elements) {
             logger.finalizeLogs();
@@ -172,10 +454,10 @@ public class ScriptLoader {
         for (var unloaded : unloadedTriggers) {
             logger.finalizeLogs();
             logger.setLine(unloaded.getLine());
-            var loaded = unloaded.getTrigger();
-            loaded.loadSection(unloaded.getSection(), unloaded.getParserState(), logger);
-            unloaded.getEventInfo().getRegisterer().handleTrigger(loaded);
-            triggerMap.putOne(scriptName, loaded);
+            var loaded = load(unloaded, logger);
+            loaded.handler.handleTrigger(loaded.trigger);
+            triggerMap.putOne(scriptName, loaded.trigger);
+            loadedTriggers.putOne(scriptName, loaded);
         }
         logger.finalizeLogs();
         return logger.close();
@@ -192,26 +474,34 @@ public class ScriptLoader {
         parserState.recurseCurrentStatements();
         List<Statement> items = new ArrayList<>();
         var elements = section.getElements();
+        var profiler = getProfiler();
         for (var element : elements) {
             logger.finalizeLogs();
             logger.nextLine();
             if (element instanceof VoidElement)
                 continue;
-            if (element instanceof FileSection) {
-                var codeSection = SyntaxParser.parseSection((FileSection) element, parserState, logger);
-                if (codeSection.isEmpty()) {
-                    continue;
-                }
+            if (profiler != null)
+                profiler.startLine(element);
+            try {
+                if (element instanceof FileSection) {
+                    var codeSection = SyntaxParser.parseSection((FileSection) element, parserState, logger);
+                    if (codeSection.isEmpty()) {
+                        continue;
+                    }
 
-                parserState.addCurrentStatement(codeSection.get());
-                items.add(codeSection.get());
-            } else {
-                var statement = SyntaxParser.parseEffect(element.getLineContent(), parserState, logger);
-                if (statement.isEmpty())
-                    continue;
+                    parserState.addCurrentStatement(codeSection.get());
+                    items.add(codeSection.get());
+                } else {
+                    var statement = SyntaxParser.parseEffect(element.getLineContent(), parserState, logger);
+                    if (statement.isEmpty())
+                        continue;
 
-                parserState.addCurrentStatement(statement.get());
-                items.add(statement.get());
+                    parserState.addCurrentStatement(statement.get());
+                    items.add(statement.get());
+                }
+            } finally {
+                if (profiler != null)
+                    profiler.endLine();
             }
         }
         logger.finalizeLogs();
@@ -226,4 +516,39 @@ public class ScriptLoader {
     public static MultiMap<String, Trigger> getTriggerMap() {
         return triggerMap;
     }
-}
\ No newline at end of file
+
+    /**
+     * A script whose triggers have been parsed, but not loaded yet.
+     */
+    private static class ParsedScript {
+        private final String name;
+        private final List<FileElement> elements;
+        private final List<UnloadedTrigger> unloadedTriggers;
+        private final SkriptLogger logger;
+        @Nullable
+        private final ParseCache parseCache;
+
+        private ParsedScript(String name, List<FileElement> elements, List<UnloadedTrigger> unloadedTriggers, SkriptLogger logger, @Nullable ParseCache parseCache) {
+            this.name = name;
+            this.elements = elements;
+            this.unloadedTriggers = unloadedTriggers;
+            this.logger = logger;
+            this.parseCache = parseCache;
+        }
+    }
+
+    /**
+     * A loaded trigger, along with the hash of its code and the addon that handles it.
+     */
+    private static class LoadedTrigger {
+        private final String hash;
+        private final Trigger trigger;
+        private final SkriptAddon handler;
+
+        private LoadedTrigger(String hash, Trigger trigger, SkriptAddon handler) {
+            this.hash = hash;
+            this.trigger = trigger;
+            this.handler = handler;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import io.github.syst3ms.skriptparser.registration.SyntaxManager;
 import io.github.syst3ms.skriptparser.registration.context.ContextValue;
 import io.github.syst3ms.skriptparser.registration.context.ContextValue.State;
 import io.github.syst3ms.skriptparser.registration.context.ContextValues;
+import io.github.syst3ms.skriptparser.types.LiteralFeatures;
 import io.github.syst3ms.skriptparser.types.PatternType;
 import io.github.syst3ms.skriptparser.types.Type;
 import io.github.syst3ms.skriptparser.types.TypeManager;
@@ -26,6 +27,7 @@ import io.github.syst3ms.skriptparser.util.RecentElementList;
 import io.github.syst3ms.skriptparser.util.StringUtils;
 import io.github.syst3ms.skriptparser.variables.Variables;
 import org.intellij.lang.annotations.MagicConstant;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
@@ -33,6 +35,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 /**
@@ -118,6 +121,13 @@ public class SyntaxParser {
      * or for another reason detailed in an error message.
      */
     public static <T> Optional<? extends Expression<? extends T>> parseExpression(String s, PatternType<T> expectedType, ParserState parserState, SkriptLogger logger) {
+        var memo = parserState.getExpressionMemo();
+        if (memo.isPresent())
+            return memo.get().parse(s, expectedType, logger, () -> matchExpression(s, expectedType, parserState, logger));
+        return matchExpression(s, expectedType, parserState, logger);
+    }
+
+    private static <T> Optional<? extends Expression<? extends T>> matchExpression(String s, PatternType<T> expectedType, ParserState parserState, SkriptLogger logger) {
         if (s.isEmpty())
             return Optional.empty();
         if (s.startsWith("(") && s.endsWith(")") && StringUtils.findClosingIndex(s, '(', ')', 0) == s.length() - 1) {
@@ -165,7 +175,11 @@ public class SyntaxParser {
                 return listLiteral;
             }
         }
-        for (var info : recentExpressions.mergeWith(SyntaxManager.getAllExpressions())) {
+        var candidates = prioritize(ParseCache.Kind.EXPRESSION, expectedType.toString(), s, recentExpressions.mergeWith(SyntaxManager.getExpressionCandidates(s)), parserState);
+        var filter = SyntaxManager.getExpressionFilter(s);
+        for (var info : candidates) {
+            if (!filter.test(info))
+                continue;
             var expr = matchExpressionInfo(s, info, expectedType, parserState, logger);
             if (expr.isPresent()) {
                 if (parserState.isRestrictingExpressions() && parserState.forbidsSyntax(expr.get().getClass())) {
@@ -174,6 +188,7 @@ public class SyntaxParser {
                     return Optional.empty();
                 }
                 recentExpressions.acknowledge(info);
+                acknowledge(ParseCache.Kind.EXPRESSION, expectedType.toString(), s, info, parserState);
                 logger.clearErrors();
                 return expr;
             }
@@ -207,6 +222,14 @@ public class SyntaxParser {
      * or for another reason detailed in an error message.
      */
     public static Optional<? extends Expression<Boolean>> parseBooleanExpression(String s, @MagicConstant(intValues = {NOT_CONDITIONAL, MAYBE_CONDITIONAL, CONDITIONAL}) int conditional, ParserState parserState, SkriptLogger logger) {
+        var memo = parserState.getExpressionMemo();
+        // The conditional constant alone tells these parses apart from the ones of parseExpression
+        if (memo.isPresent())
+            return memo.get().parse(s, conditional, logger, () -> matchBooleanExpression(s, conditional, parserState, logger));
+        return matchBooleanExpression(s, conditional, parserState, logger);
+    }
+
+    private static Optional<? extends Expression<Boolean>> matchBooleanExpression(String s, int conditional, ParserState parserState, SkriptLogger logger) {
         // I swear this is the cleanest way to do it
         if (s.startsWith("(") && s.endsWith(")") && StringUtils.findClosingIndex(s, '(', ')', 0) == s.length() - 1) {
             s = s.substring(1, s.length() - 1);
@@ -231,7 +254,12 @@ public class SyntaxParser {
                 return variable;
             }
         }
-        for (var info : recentExpressions.mergeWith(SyntaxManager.getAllExpressions())) {
+        var expected = conditional == NOT_CONDITIONAL ? "boolean" : conditional == CONDITIONAL ? "condition" : "boolean or condition";
+        var candidates = prioritize(ParseCache.Kind.EXPRESSION, expected, s, recentExpressions.mergeWith(SyntaxManager.getExpressionCandidates(s)), parserState);
+        var filter = SyntaxManager.getExpressionFilter(s);
+        for (var info : candidates) {
+            if (!filter.test(info))
+                continue;
             if (info.getReturnType().getType().getTypeClass() != Boolean.class)
                 continue;
             var expr = (Optional<? extends Expression<Boolean>>) matchExpressionInfo(s, info, BOOLEAN_PATTERN_TYPE, parserState, logger);
@@ -264,6 +292,7 @@ public class SyntaxParser {
                         break;
                 }
                 recentExpressions.acknowledge(info);
+                acknowledge(ParseCache.Kind.EXPRESSION, expected, s, info, parserState);
                 logger.clearErrors();
                 return expr;
             }
@@ -341,6 +370,13 @@ public class SyntaxParser {
     }
 
     private static <T> Optional<? extends Expression<? extends T>> matchExpressionInfo(String s, ExpressionInfo<?, ?> info, PatternType<T> expectedType, ParserState parserState, SkriptLogger logger) {
+        var profiler = ScriptLoader.getProfiler();
+        if (profiler == null)
+            return tryExpressionInfo(s, info, expectedType, parserState, logger);
+        return profile(profiler, info, () -> tryExpressionInfo(s, info, expectedType, parserState, logger));
+    }
+
+    private static <T> Optional<? extends Expression<? extends T>> tryExpressionInfo(String s, ExpressionInfo<?, ?> info, PatternType<T> expectedType, ParserState parserState, SkriptLogger logger) {
         var patterns = info.getPatterns();
         var infoType = info.getReturnType();
         var infoTypeClass = infoType.getType().getTypeClass();
@@ -525,10 +561,16 @@ public class SyntaxParser {
      */
     public static <T> Optional<? extends Expression<? extends T>> parseLiteral(String s, PatternType<T> expectedType, ParserState parserState, SkriptLogger logger) {
         var classToTypeMap = TypeManager.getClassToTypeMap();
-        for (var c : classToTypeMap.keySet()) {
-            Class<? extends T> expectedClass = expectedType.getType().getTypeClass();
+        Class<? extends T> expectedClass = expectedType.getType().getTypeClass();
+        // Looking at the text once tells which literal parsers are worth trying
+        var features = LiteralFeatures.of(s);
+        for (var entry : classToTypeMap.entrySet()) {
+            var c = entry.getKey();
+            var type = entry.getValue();
+            Optional<? extends Function<String, ?>> literalParser = type.getLiteralParser();
+            if (literalParser.isPresent() ? !type.mayParseLiteral(features) : (features & LiteralFeatures.QUOTED) == 0)
+                continue;
             if (expectedClass.isAssignableFrom(c) || Converters.converterExists(c, expectedClass)) {
-                Optional<? extends Function<String, ?>> literalParser = classToTypeMap.get(c).getLiteralParser();
                 if (literalParser.isPresent()) {
                     var literal = literalParser.map(l -> (T) l.apply(s));
                     if (literal.isPresent() && expectedClass.isAssignableFrom(c)) {
@@ -560,8 +602,20 @@ public class SyntaxParser {
     public static Optional<? extends Effect> parseEffect(String s, ParserState parserState, SkriptLogger logger) {
         if (s.isEmpty())
             return Optional.empty();
+        parserState.pushExpressionMemo();
+        try {
+            return matchEffect(s, parserState, logger);
+        } finally {
+            parserState.popExpressionMemo();
+        }
+    }
 
-        for (var recentEffect : recentEffects.mergeWith(SyntaxManager.getEffects())) {
+    private static Optional<? extends Effect> matchEffect(String s, ParserState parserState, SkriptLogger logger) {
+        var candidates = prioritize(ParseCache.Kind.EFFECT, "", s, recentEffects.mergeWith(SyntaxManager.getEffectCandidates(s)), parserState);
+        var filter = SyntaxManager.getEffectFilter(s);
+        for (var recentEffect : candidates) {
+            if (!filter.test(recentEffect))
+                continue;
             var eff = matchEffectInfo(s, recentEffect, parserState, logger);
             if (eff.isPresent()) {
                 if (parserState.forbidsSyntax(eff.get().getClass())) {
@@ -570,6 +624,7 @@ public class SyntaxParser {
                     return Optional.empty();
                 }
                 recentEffects.acknowledge(recentEffect);
+                acknowledge(ParseCache.Kind.EFFECT, "", s, recentEffect, parserState);
                 logger.clearErrors();
                 return eff;
             }
@@ -582,6 +637,13 @@ public class SyntaxParser {
     }
 
     private static Optional<? extends Effect> matchEffectInfo(String s, SyntaxInfo<? extends Effect> info, ParserState parserState, SkriptLogger logger) {
+        var profiler = ScriptLoader.getProfiler();
+        if (profiler == null)
+            return tryEffectInfo(s, info, parserState, logger);
+        return profile(profiler, info, () -> tryEffectInfo(s, info, parserState, logger));
+    }
+
+    private static Optional<? extends Effect> tryEffectInfo(String s, SyntaxInfo<? extends Effect> info, ParserState parserState, SkriptLogger logger) {
         var patterns = info.getPatterns();
         for (var i = 0; i < patterns.size(); i++) {
             var element = patterns.get(i);
@@ -621,8 +683,21 @@ public class SyntaxParser {
         var content = section.getLineContent();
         if (content.isEmpty())
             return Optional.empty();
+        parserState.pushExpressionMemo();
+        try {
+            return matchSection(section, parserState, logger);
+        } finally {
+            parserState.popExpressionMemo();
+        }
+    }
 
-        for (var toParse : recentSections.mergeWith(SyntaxManager.getSections())) {
+    private static Optional<? extends CodeSection> matchSection(FileSection section, ParserState parserState, SkriptLogger logger) {
+        var content = section.getLineContent();
+        var candidates = prioritize(ParseCache.Kind.SECTION, "", content, recentSections.mergeWith(SyntaxManager.getSectionCandidates(content)), parserState);
+        var filter = SyntaxManager.getSectionFilter(content);
+        for (var toParse : candidates) {
+            if (!filter.test(toParse))
+                continue;
             var sec = matchSectionInfo(section, toParse, parserState, logger);
             if (sec.isPresent()) {
                 if (parserState.forbidsSyntax(sec.get().getClass())) {
@@ -631,6 +706,7 @@ public class SyntaxParser {
                     return Optional.empty();
                 }
                 recentSections.acknowledge(toParse);
+                acknowledge(ParseCache.Kind.SECTION, "", content, toParse, parserState);
                 logger.clearErrors();
                 return sec;
             }
@@ -643,6 +719,13 @@ public class SyntaxParser {
     }
 
     private static Optional<? extends CodeSection> matchSectionInfo(FileSection section, SyntaxInfo<? extends CodeSection> info, ParserState parserState, SkriptLogger logger) {
+        var profiler = ScriptLoader.getProfiler();
+        if (profiler == null)
+            return trySectionInfo(section, info, parserState, logger);
+        return profile(profiler, info, () -> trySectionInfo(section, info, parserState, logger));
+    }
+
+    private static Optional<? extends CodeSection> trySectionInfo(FileSection section, SyntaxInfo<? extends CodeSection> info, ParserState parserState, SkriptLogger logger) {
         var patterns = info.getPatterns();
         for (var i = 0; i < patterns.size(); i++) {
             var element = patterns.get(i);
@@ -681,12 +764,46 @@ public class SyntaxParser {
      * or for another reason detailed in an error message
      */
     public static Optional<? extends UnloadedTrigger> parseTrigger(FileSection section, SkriptLogger logger) {
-        if (section.getLineContent().isEmpty())
+        return parseTrigger(section, logger, null);
+    }
+
+    /**
+     * Parses a section of a file as a {@link Trigger}, making use of the given {@link ParseCache}
+     * @param section the section to be parsed
+     * @param logger the logger
+     * @param parseCache the cache of the script the section belongs to
+     * @return a trigger that was successfully parsed, or {@literal null} if the section is empty,
+     * no match was found
+     * or for another reason detailed in an error message
+     */
+    public static Optional<? extends UnloadedTrigger> parseTrigger(FileSection section, SkriptLogger logger, @Nullable ParseCache parseCache) {
+        var profiler = ScriptLoader.getProfiler();
+        if (profiler == null)
+            return matchTrigger(section, logger, parseCache);
+        profiler.startLine(section);
+        try {
+            return matchTrigger(section, logger, parseCache);
+        } finally {
+            profiler.endLine();
+        }
+    }
+
+    private static Optional<? extends UnloadedTrigger> matchTrigger(FileSection section, SkriptLogger logger, @Nullable ParseCache parseCache) {
+        var content = section.getLineContent();
+        if (content.isEmpty())
             return Optional.empty();
-        for (var info : recentEvents.mergeWith(SyntaxManager.getEvents())) {
-            var trigger = matchEventInfo(section, info, logger);
+        var candidates = recentEvents.mergeWith(SyntaxManager.getEventCandidates(content));
+        if (parseCache != null)
+            candidates = parseCache.prioritize(ParseCache.Kind.EVENT, "", content, candidates);
+        var filter = SyntaxManager.getEventFilter(content);
+        for (var info : candidates) {
+            if (!filter.test(info))
+                continue;
+            var trigger = matchEventInfo(section, info, logger, parseCache);
             if (trigger.isPresent()) {
                 recentEvents.acknowledge(info);
+                if (parseCache != null)
+                    parseCache.acknowledge(ParseCache.Kind.EVENT, "", content, info);
                 logger.clearErrors();
                 return trigger;
             }
@@ -694,15 +811,23 @@ public class SyntaxParser {
         }
 
         logger.setContext(ErrorContext.NO_MATCH);
-        logger.error("No trigger matching '" + section.getLineContent() + "' was found", ErrorType.NO_MATCH);
+        logger.error("No trigger matching '" + content + "' was found", ErrorType.NO_MATCH);
         return Optional.empty();
     }
 
-    private static Optional<? extends UnloadedTrigger> matchEventInfo(FileSection section, SkriptEventInfo<?> info, SkriptLogger logger) {
+    private static Optional<? extends UnloadedTrigger> matchEventInfo(FileSection section, SkriptEventInfo<?> info, SkriptLogger logger, @Nullable ParseCache parseCache) {
+        var profiler = ScriptLoader.getProfiler();
+        if (profiler == null)
+            return tryEventInfo(section, info, logger, parseCache);
+        return profile(profiler, info, () -> tryEventInfo(section, info, logger, parseCache));
+    }
+
+    private static Optional<? extends UnloadedTrigger> tryEventInfo(FileSection section, SkriptEventInfo<?> info, SkriptLogger logger, @Nullable ParseCache parseCache) {
         var patterns = info.getPatterns();
         for (var i = 0; i < patterns.size(); i++) {
             var element = patterns.get(i);
             var parserState = new ParserState();
+            parserState.setParseCache(parseCache);
             logger.setContext(ErrorContext.MATCHING);
             var parser = new MatchContext(element, parserState, logger);
             if (element.match(section.getLineContent(), 0, parser) != -1) {
@@ -731,4 +856,49 @@ public class SyntaxParser {
         }
         return Optional.empty();
     }
+
+    /*
+     * Reports the given attempt at matching a syntax to the profiler. Only called when there is a profiler, so that
+     * attempts aren't wrapped in a lambda otherwise
+     */
+    private static <R extends Optional<?>> R profile(ParseProfiler profiler, SyntaxInfo<?> info, Supplier<R> attempt) {
+        profiler.startAttempt(info);
+        var matched = false;
+        try {
+            var result = attempt.get();
+            matched = result.isPresent();
+            return result;
+        } finally {
+            profiler.endAttempt(matched);
+        }
+    }
+
+    private static <T extends SyntaxInfo<?>> List<T> prioritize(ParseCache.Kind kind, String expected, String code, List<T> candidates, ParserState parserState) {
+        var parseCache = parserState.getParseCache();
+        if (parseCache.isEmpty())
+            return candidates;
+        return parseCache.get().prioritize(kind, cacheContext(expected, parserState), code, candidates);
+    }
+
+    private static void acknowledge(ParseCache.Kind kind, String expected, String code, SyntaxInfo<?> info, ParserState parserState) {
+        var parseCache = parserState.getParseCache();
+        if (parseCache.isPresent())
+            parseCache.get().acknowledge(kind, cacheContext(expected, parserState), code, info);
+    }
+
+    /*
+     * Everything besides the code itself that can change which syntax matches first: what is expected of the code, the
+     * contexts of the trigger and the enclosing sections
+     */
+    private static String cacheContext(String expected, ParserState parserState) {
+        var context = new StringBuilder(expected).append(';');
+        parserState.getCurrentContexts().stream()
+                .map(Class::getName)
+                .sorted()
+                .forEach(name -> context.append(name).append(','));
+        context.append(';');
+        for (var section : parserState.getCurrentSections())
+            context.append(section.getClass().getName()).append(',');
+        return context.toString();
+    }
 }
@@ -2,7 +2,9 @@ package io.github.syst3ms.skriptparser.pattern;
 
 import io.github.syst3ms.skriptparser.parsing.MatchContext;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -10,9 +12,20 @@ import java.util.List;
  */
 public class CompoundElement implements PatternElement {
     private final List<PatternElement> elements;
+    // What could possibly come at each index of this element, computed beforehand as it doesn't depend on the input
+    private final List<List<PatternElement>> possibleInputs;
+    private final String[] keywords;
 
     public CompoundElement(List<PatternElement> elements) {
         this.elements = elements;
+        List<List<PatternElement>> possibleInputs = new ArrayList<>(elements.size() + 1);
+        for (var i = 0; i <= elements.size(); i++) {
+            possibleInputs.add(Collections.unmodifiableList(PatternElement.getPossibleInputs(elements.subList(i, elements.size()))));
+        }
+        this.possibleInputs = possibleInputs;
+        this.keywords = PatternElement.getKeywords(this).stream()
+                .filter(keyword -> !keyword.isEmpty())
+                .toArray(String[]::new);
     }
 
     /**
@@ -26,6 +39,15 @@ public class CompoundElement implements PatternElement {
         return elements;
     }
 
+    /**
+     * @param index an index between 0 and the number of elements, inclusive
+     * @return what could possibly come at the given index of this element
+     * @see PatternElement#getPossibleInputs(List)
+     */
+    public List<PatternElement> getPossibleInputs(int index) {
+        return possibleInputs.get(index);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
@@ -41,9 +63,8 @@ public class CompoundElement implements PatternElement {
     @Override
     public int match(String s, int index, MatchContext context) {
         // Keywords - makes matching remarkably faster in almost all cases
-        var toCheck = s.substring(index).toLowerCase();
-        for (var keyword : PatternElement.getKeywords(this)) {
-            if (!toCheck.contains(keyword))
+        for (var keyword : keywords) {
+            if (!containsIgnoreCase(s, keyword, index))
                 return -1;
         }
 
@@ -69,4 +90,15 @@ public class CompoundElement implements PatternElement {
         }
         return builder.toString();
     }
+
+    /*
+     * Same comparison as the one TextElement uses, without allocating anything
+     */
+    private static boolean containsIgnoreCase(String s, String keyword, int from) {
+        for (var i = from; i <= s.length() - keyword.length(); i++) {
+            if (s.regionMatches(true, i, keyword, 0, keyword.length()))
+                return true;
+        }
+        return false;
+    }
 }
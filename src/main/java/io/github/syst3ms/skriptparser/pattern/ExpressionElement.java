@@ -36,9 +36,11 @@ public class ExpressionElement implements PatternElement {
     private final Acceptance acceptance;
     private final boolean nullable;
     private final boolean acceptsConditional;
+    private final PatternType<?>[] typeArray;
 
     public ExpressionElement(List<PatternType<?>> types, Acceptance acceptance, boolean nullable, boolean acceptsConditional) {
         this.types = types;
+        this.typeArray = types.toArray(new PatternType<?>[0]);
         this.acceptance = acceptance;
         this.nullable = nullable;
         this.acceptsConditional = acceptsConditional;
@@ -46,21 +48,20 @@ public class ExpressionElement implements PatternElement {
 
     @Override
     public int match(String s, int index, MatchContext context) {
-        var typeArray = types.toArray(new PatternType<?>[0]);
         if (index >= s.length()) {
             return -1;
         }
         var logger = context.getLogger();
         var source = context.getSource();
         var possibilityIndex = context.getPatternIndex();
-        var flattened = PatternElement.flatten(context.getOriginalElement());
-        while (source.isPresent() && possibilityIndex + 1 >= flattened.size()) {
-            flattened = PatternElement.flatten(source.get().getOriginalElement());
+        var owner = context.getOriginalElement();
+        while (source.isPresent() && possibilityIndex + 1 >= PatternElement.flatten(owner).size()) {
+            owner = source.get().getOriginalElement();
             possibilityIndex = source.get().getPatternIndex();
             source = source.get().getSource();
         }
         // We look at what could possibly be after the expression in the current syntax
-        var possibleInputs = PatternElement.getPossibleInputs(flattened.subList(possibilityIndex + 1, flattened.size()));
+        var possibleInputs = PatternElement.getPossibleInputs(owner, possibilityIndex + 1);
         for (var possibleInput : possibleInputs) {  // We iterate over those possibilities
             if (possibleInput instanceof TextElement) {
                 var text = ((TextElement) possibleInput).getText();
@@ -106,7 +107,7 @@ public class ExpressionElement implements PatternElement {
                 }
             } else {
                 assert possibleInput instanceof ExpressionElement;
-                var nextPossibleInputs = PatternElement.getPossibleInputs(flattened.subList(context.getPatternIndex() + 1, flattened.size()));
+                var nextPossibleInputs = PatternElement.getPossibleInputs(owner, context.getPatternIndex() + 1);
                 if (nextPossibleInputs.stream().anyMatch(pe -> !(pe instanceof TextElement))) {
                     continue;
                 }
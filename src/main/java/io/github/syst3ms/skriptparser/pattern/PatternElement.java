@@ -43,6 +43,21 @@ public interface PatternElement {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns what could possibly come after the element at the given index of a pattern, as would
+     * {@link #getPossibleInputs(List)} on the elements following it. For {@link CompoundElement}s, this is computed
+     * once and for all when the element is created.
+     * @param element the element, usually the original element of a {@link MatchContext}
+     * @param index the index inside of the {@linkplain #flatten(PatternElement) flattened} element
+     * @return the possible inputs. Must not be modified.
+     */
+    static List<PatternElement> getPossibleInputs(PatternElement element, int index) {
+        if (element instanceof CompoundElement)
+            return ((CompoundElement) element).getPossibleInputs(index);
+        var flattened = flatten(element);
+        return Collections.unmodifiableList(getPossibleInputs(flattened.subList(index, flattened.size())));
+    }
+
     static List<PatternElement> getPossibleInputs(List<PatternElement> elements) {
         List<PatternElement> optionalPossibilities = new ArrayList<>(); // We generally want to get the non-optional ones out of the way first
         List<PatternElement> possibilities = new ArrayList<>();
@@ -8,9 +8,15 @@ import org.jetbrains.annotations.Nullable;
  */
 public class TextElement implements PatternElement {
     private final String text;
+    private final String stripped;
+    private final boolean leadingWhitespace;
+    private final boolean trailingWhitespace;
 
     public TextElement(String text) {
         this.text = text;
+        this.stripped = text.strip();
+        this.leadingWhitespace = !text.isEmpty() && Character.isWhitespace(text.charAt(0));
+        this.trailingWhitespace = !text.isEmpty() && Character.isWhitespace(text.charAt(text.length() - 1));
     }
 
     public String getText() {
@@ -27,12 +33,11 @@ public class TextElement implements PatternElement {
         if (text.isEmpty())
             return index;
         var start = 0;
-        if (Character.isWhitespace(text.charAt(0))) {
+        if (leadingWhitespace) {
             while (index + start < s.length() && Character.isWhitespace(s.charAt(index + start)))
                 start++;
         }
         var end = 0;
-        var stripped = text.strip();
         // We advance until we reach the first non-whitespace character in s
         if (index + start + stripped.length() > s.length()) {
             return -1;
@@ -40,7 +45,7 @@ public class TextElement implements PatternElement {
         if (stripped.isEmpty()) {
             return index + start;
         } else if (s.regionMatches(true, index + start, stripped, 0, stripped.length())) {
-            if (Character.isWhitespace(text.charAt(text.length() - 1))) {
+            if (trailingWhitespace) {
                 while (index + start + stripped.length() - end < s.length()
                         && Character.isWhitespace(s.charAt(index + start + stripped.length() - end))) {
                     end++;
@@ -2,6 +2,7 @@ package io.github.syst3ms.skriptparser.registration;
 
 import io.github.syst3ms.skriptparser.Parser;
 import io.github.syst3ms.skriptparser.structures.functions.FunctionParameter;
+import io.github.syst3ms.skriptparser.types.LiteralFeatures;
 import io.github.syst3ms.skriptparser.types.Type;
 import io.github.syst3ms.skriptparser.types.TypeManager;
 import io.github.syst3ms.skriptparser.types.changers.Arithmetic;
@@ -9,28 +10,36 @@ import io.github.syst3ms.skriptparser.types.comparisons.Comparator;
 import io.github.syst3ms.skriptparser.types.comparisons.Comparators;
 import io.github.syst3ms.skriptparser.types.comparisons.Relation;
 import io.github.syst3ms.skriptparser.types.ranges.Ranges;
+import io.github.syst3ms.skriptparser.types.serialization.Serializer;
 import io.github.syst3ms.skriptparser.util.DurationUtils;
 import io.github.syst3ms.skriptparser.util.SkriptDate;
 import io.github.syst3ms.skriptparser.util.Time;
 import io.github.syst3ms.skriptparser.util.color.Color;
 import io.github.syst3ms.skriptparser.util.math.BigDecimalMath;
+import io.github.syst3ms.skriptparser.util.math.NumberMath;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.lang.annotation.RetentionPolicy;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 
 /**
  * A class registering features such as types and comparators at startup.
  */
 public class DefaultRegistration {
-    private static final String INTEGER_PATTERN = "-?[0-9]+";
-    private static final String DECIMAL_PATTERN = "-?[0-9]+\\.[0-9]+";
+    private static final Pattern INTEGER_PATTERN = Pattern.compile("-?[0-9]+");
+    private static final Pattern DECIMAL_PATTERN = Pattern.compile("-?[0-9]+\\.[0-9]+");
 
     public static void register() {
         SkriptRegistration registration = Parser.getMainRegistration();
@@ -48,15 +57,16 @@ public class DefaultRegistration {
                 .literalParser(s -> {
                     if (s.startsWith("_") || s.endsWith("_"))
                         return null;
-                    s = s.replaceAll("_", "");
-                    if (s.matches(DECIMAL_PATTERN)) {
+                    s = s.replace("_", "");
+                    if (DECIMAL_PATTERN.matcher(s).matches()) {
                         return new BigDecimal(s);
-                    } else if (s.matches(INTEGER_PATTERN)) {
+                    } else if (INTEGER_PATTERN.matcher(s).matches()) {
                         return new BigInteger(s);
                     } else {
                         return null;
                     }
                 })
+                .literalFeatures(LiteralFeatures.NUMERIC)
                 .toStringFunction(o -> {
                     if (o instanceof BigDecimal) {
                         BigDecimal bd = (BigDecimal) o;
@@ -70,18 +80,85 @@ public class DefaultRegistration {
                         return o.toString();
                     }
                 })
+                .serializer(new Serializer<>() {
+                    @Override
+                    public void serialize(Number value, DataOutput output) throws IOException {
+                        if (value instanceof BigInteger) {
+                            output.writeByte(0);
+                            writeBigInteger((BigInteger) value, output);
+                        } else if (value instanceof Long || value instanceof Integer) {
+                            output.writeByte(2);
+                            output.writeLong(value.longValue());
+                        } else if (value instanceof Double) {
+                            output.writeByte(3);
+                            output.writeDouble(value.doubleValue());
+                        } else {
+                            var decimal = BigDecimalMath.getBigDecimal(value);
+                            output.writeByte(1);
+                            output.writeInt(decimal.scale());
+                            writeBigInteger(decimal.unscaledValue(), output);
+                        }
+                    }
+
+                    @Override
+                    public Number deserialize(DataInput input) throws IOException {
+                        var kind = input.readByte();
+                        switch (kind) {
+                            case 0:
+                                return readBigInteger(input);
+                            case 1:
+                                var scale = input.readInt();
+                                return new BigDecimal(readBigInteger(input), scale);
+                            case 2:
+                                return input.readLong();
+                            case 3:
+                                return input.readDouble();
+                            default:
+                                throw new IOException("Unknown kind of number: " + kind);
+                        }
+                    }
+                })
                 .register();
 
         registration.newType(BigInteger.class, "integer", "integer@s")
                 .literalParser(s -> {
                     if (s.startsWith("_") || s.endsWith("_"))
                         return null;
-                    s = s.replaceAll("_", "");
-                    return s.matches(INTEGER_PATTERN) ? new BigInteger(s) : null;
+                    s = s.replace("_", "");
+                    return INTEGER_PATTERN.matcher(s).matches() ? new BigInteger(s) : null;
+                })
+                .literalFeatures(LiteralFeatures.NUMERIC)
+                .serializer(new Serializer<>() {
+                    @Override
+                    public void serialize(BigInteger value, DataOutput output) throws IOException {
+                        writeBigInteger(value, output);
+                    }
+
+                    @Override
+                    public BigInteger deserialize(DataInput input) throws IOException {
+                        return readBigInteger(input);
+                    }
                 })
                 .register();
 
-        registration.addType(String.class, "string", "string@s");
+        registration.newType(String.class, "string", "string@s")
+                .serializer(new Serializer<>() {
+                    @Override
+                    public void serialize(String value, DataOutput output) throws IOException {
+                        // Unlike writeUTF, this isn't limited to 65535 bytes
+                        var bytes = value.getBytes(StandardCharsets.UTF_8);
+                        output.writeInt(bytes.length);
+                        output.write(bytes);
+                    }
+
+                    @Override
+                    public String deserialize(DataInput input) throws IOException {
+                        var bytes = new byte[input.readInt()];
+                        input.readFully(bytes);
+                        return new String(bytes, StandardCharsets.UTF_8);
+                    }
+                })
+                .register();
 
         registration.newType(Boolean.class, "boolean", "boolean@s")
                 .literalParser(s -> {
@@ -93,12 +170,40 @@ public class DefaultRegistration {
                         return null;
                     }
                 })
+                .literalFeatures(LiteralFeatures.UNQUOTED | LiteralFeatures.LETTERS)
                 .toStringFunction(String::valueOf)
+                .serializer(new Serializer<>() {
+                    @Override
+                    public void serialize(Boolean value, DataOutput output) throws IOException {
+                        output.writeBoolean(value);
+                    }
+
+                    @Override
+                    public Boolean deserialize(DataInput input) throws IOException {
+                        return input.readBoolean();
+                    }
+                })
                 .register();
 
-        registration.newType(Type.class, "type", "type@s")
+        @SuppressWarnings("unchecked")
+        var typeClass = (Class<Type<?>>) (Class<?>) Type.class;
+        registration.newType(typeClass, "type", "type@s")
                 .literalParser(TypeManager::parseType)
+                .literalFeatures(LiteralFeatures.UNQUOTED | LiteralFeatures.LETTERS)
                 .toStringFunction(Type::getBaseName)
+                .serializer(new Serializer<>() {
+                    @Override
+                    public void serialize(Type<?> value, DataOutput output) throws IOException {
+                        output.writeUTF(value.getBaseName());
+                    }
+
+                    @Override
+                    public Type<?> deserialize(DataInput input) throws IOException {
+                        var name = input.readUTF();
+                        return TypeManager.getByExactName(name)
+                                .orElseThrow(() -> new IOException("Unknown type: " + name));
+                    }
+                })
                 .register();
 
         registration.newType(FunctionParameter.class, "functionparameter", "functionparameter@s")
@@ -107,21 +212,73 @@ public class DefaultRegistration {
 
         registration.newType(Color.class, "color", "color@s")
                 .literalParser(s -> Color.ofLiteral(s).orElse(null))
+                .literalFeatures(LiteralFeatures.UNQUOTED | LiteralFeatures.LETTERS)
                 .toStringFunction(Color::toString)
+                .serializer(new Serializer<>() {
+                    @Override
+                    public void serialize(Color value, DataOutput output) throws IOException {
+                        output.writeByte(value.getRed());
+                        output.writeByte(value.getGreen());
+                        output.writeByte(value.getBlue());
+                        output.writeByte(value.getAlpha());
+                    }
+
+                    @Override
+                    public Color deserialize(DataInput input) throws IOException {
+                        return Color.of(input.readUnsignedByte(), input.readUnsignedByte(), input.readUnsignedByte(), input.readUnsignedByte())
+                                .orElseThrow(() -> new IOException("Invalid color"));
+                    }
+                })
                 .register();
 
         registration.newType(Duration.class, "duration", "duration@s")
                 .literalParser(s -> DurationUtils.parseDuration(s).orElse(null))
+                .literalFeatures(LiteralFeatures.UNQUOTED | LiteralFeatures.LETTERS)
                 .toStringFunction(DurationUtils::toStringDuration)
+                .serializer(new Serializer<>() {
+                    @Override
+                    public void serialize(Duration value, DataOutput output) throws IOException {
+                        output.writeLong(value.getSeconds());
+                        output.writeInt(value.getNano());
+                    }
+
+                    @Override
+                    public Duration deserialize(DataInput input) throws IOException {
+                        return Duration.ofSeconds(input.readLong(), input.readInt());
+                    }
+                })
                 .register();
 
         registration.newType(SkriptDate.class, "date", "date@s")
                 .toStringFunction(SkriptDate::toString)
+                .serializer(new Serializer<>() {
+                    @Override
+                    public void serialize(SkriptDate value, DataOutput output) throws IOException {
+                        output.writeLong(value.getTimestamp());
+                    }
+
+                    @Override
+                    public SkriptDate deserialize(DataInput input) throws IOException {
+                        return SkriptDate.of(input.readLong());
+                    }
+                })
                 .register();
 
         registration.newType(Time.class, "time", "time@s")
                 .literalParser(s -> Time.parse(s).orElse(null))
+                .literalFeatures(LiteralFeatures.UNQUOTED | LiteralFeatures.DIGITS)
                 .toStringFunction(Time::toString)
+                .serializer(new Serializer<>() {
+                    @Override
+                    public void serialize(Time value, DataOutput output) throws IOException {
+                        output.writeLong(value.getTime().toNanoOfDay());
+                    }
+
+                    @Override
+                    public Time deserialize(DataInput input) throws IOException {
+                        return Time.of(LocalTime.ofNanoOfDay(input.readLong()));
+                    }
+                })
                 .register();
 
         /*
@@ -144,13 +301,16 @@ public class DefaultRegistration {
                 new Comparator<>(true) {
                     @Override
                     public Relation apply(Number number, Number number2) {
-                        if (number instanceof BigDecimal || number2 instanceof BigDecimal) {
+                        if (NumberMath.fitsInLong(number) && NumberMath.fitsInLong(number2)) {
+                            return Relation.get(Long.compare(number.longValue(), number2.longValue()));
+                        } else if (number instanceof BigDecimal || number2 instanceof BigDecimal
+                                || number instanceof Double || number2 instanceof Double
+                                || number instanceof Float || number2 instanceof Float) {
                             BigDecimal bd = BigDecimalMath.getBigDecimal(number).setScale(10, RoundingMode.HALF_UP);
                             BigDecimal bd2 = BigDecimalMath.getBigDecimal(number2).setScale(10, RoundingMode.HALF_UP);
                             return Relation.get(bd.compareTo(bd2));
                         } else {
-                            assert number instanceof BigInteger && number2 instanceof BigInteger;
-                            return Relation.get(((BigInteger) number).compareTo((BigInteger) number2));
+                            return Relation.get(BigDecimalMath.getBigInteger(number).compareTo(BigDecimalMath.getBigInteger(number2)));
                         }
                     }
                 }
@@ -219,4 +379,16 @@ public class DefaultRegistration {
 
         registration.register(true); // Ignoring logs here, we control the input
     }
-}
\ No newline at end of file
+
+    private static void writeBigInteger(BigInteger value, DataOutput output) throws IOException {
+        var bytes = value.toByteArray();
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static BigInteger readBigInteger(DataInput input) throws IOException {
+        var bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new BigInteger(bytes);
+    }
+}
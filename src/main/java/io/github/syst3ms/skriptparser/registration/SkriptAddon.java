@@ -31,6 +31,13 @@ public abstract class SkriptAddon {
      */
     public abstract void handleTrigger(Trigger trigger);
 
+    /**
+     * The counterpart of {@link #handleTrigger(Trigger)} : called when a {@linkplain Trigger} previously handled by this
+     * addon is unloaded, for example because its script was reloaded. Optionally overridable.
+     * @param trigger the trigger to be unloaded
+     */
+    public void unhandleTrigger(Trigger trigger) {}
+
     /**
      * Is called when a script has finished loading. Optionally overridable.
      */
@@ -31,16 +31,21 @@ import io.github.syst3ms.skriptparser.registration.context.ContextValues;
 import io.github.syst3ms.skriptparser.registration.tags.Tag;
 import io.github.syst3ms.skriptparser.registration.tags.TagInfo;
 import io.github.syst3ms.skriptparser.registration.tags.TagManager;
+import io.github.syst3ms.skriptparser.types.LiteralFeatures;
 import io.github.syst3ms.skriptparser.types.Type;
 import io.github.syst3ms.skriptparser.types.TypeManager;
 import io.github.syst3ms.skriptparser.types.changers.Arithmetic;
 import io.github.syst3ms.skriptparser.types.changers.Changer;
 import io.github.syst3ms.skriptparser.types.conversions.ConverterInfo;
 import io.github.syst3ms.skriptparser.types.conversions.Converters;
+import io.github.syst3ms.skriptparser.types.serialization.Serializer;
 import io.github.syst3ms.skriptparser.util.CollectionUtils;
 import io.github.syst3ms.skriptparser.util.MultiMap;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -617,6 +622,9 @@ public class SkriptRegistration {
         private Function<String, ? extends C> literalParser;
         @Nullable
         private Changer<? super C> defaultChanger;
+        @Nullable
+        private Serializer<C> serializer;
+        private int literalFeatures = LiteralFeatures.ANY;
 
         public TypeRegistrar(Class<C> c, String baseName, String pattern) {
             this.c = c;
@@ -633,6 +641,16 @@ public class SkriptRegistration {
             return this;
         }
 
+        /**
+         * @param literalFeatures the {@link LiteralFeatures} all literals of the type have, so that the literal parser
+         *                        isn't tried on text that can't be one
+         * @return the registrar
+         */
+        public TypeRegistrar<C> literalFeatures(int literalFeatures) {
+            this.literalFeatures = literalFeatures;
+            return this;
+        }
+
         /**
          * @param toStringFunction a function converting an instance of the type to a String
          * @return the registrar
@@ -651,13 +669,22 @@ public class SkriptRegistration {
             return this;
         }
 
+        /**
+         * @param serializer a {@link Serializer} for this type, allowing its values to be stored
+         * @return the registrar
+         */
+        public TypeRegistrar<C> serializer(Serializer<C> serializer) {
+            this.serializer = serializer;
+            return this;
+        }
+
         /**
          * Adds this type to the list of currently registered syntaxes
          */
         @Override
         public void register() {
             newTypes = true;
-            types.add(new Type<>(c, baseName, pattern, literalParser, toStringFunction, defaultChanger));
+            types.add(new Type<>(c, baseName, pattern, literalParser, toStringFunction, defaultChanger, serializer, literalFeatures));
         }
     }
 
@@ -676,6 +703,21 @@ public class SkriptRegistration {
         };
         @Nullable
         private Changer<? super C> defaultChanger;
+        private Serializer<C> serializer = new Serializer<>() {
+            @Override
+            public void serialize(C value, DataOutput output) throws IOException {
+                output.writeUTF(value.name());
+            }
+
+            @Override
+            public C deserialize(DataInput input) throws IOException {
+                try {
+                    return Enum.valueOf(c, input.readUTF());
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(e);
+                }
+            }
+        };
         public EnumTypeRegistrar(Class<C> c, String baseName, String pattern) {
             this.c = c;
             this.baseName = baseName;
@@ -711,13 +753,22 @@ public class SkriptRegistration {
             return this;
         }
 
+        /**
+         * @param serializer a {@link Serializer} for this type. By default, constants are stored by name.
+         * @return the registrar
+         */
+        public EnumTypeRegistrar<C> serializer(Serializer<C> serializer) {
+            this.serializer = serializer;
+            return this;
+        }
+
         /**
          * Adds this type to the list of currently registered syntaxes
          */
         @Override
         public void register() {
             newTypes = true;
-            types.add(new Type<>(c, baseName, pattern, literalParser, toStringFunction, defaultChanger));
+            types.add(new Type<>(c, baseName, pattern, literalParser, toStringFunction, defaultChanger, serializer));
         }
 
     }
@@ -0,0 +1,278 @@
+package io.github.syst3ms.skriptparser.registration;
+
+import io.github.syst3ms.skriptparser.pattern.ChoiceGroup;
+import io.github.syst3ms.skriptparser.pattern.CompoundElement;
+import io.github.syst3ms.skriptparser.pattern.OptionalGroup;
+import io.github.syst3ms.skriptparser.pattern.PatternElement;
+import io.github.syst3ms.skriptparser.pattern.TextElement;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * An index over a list of {@link SyntaxInfo}s, used to only try the syntaxes that could possibly match a given string.
+ * <br>
+ * Each pattern is reduced to the literal prefixes it must start with, which are stored inside of a case-insensitive
+ * character trie. Patterns that may start with an expression, a regex group or nothing at all can't be narrowed down
+ * this way, so their syntaxes are always considered candidates.
+ * @param <T> the type of {@link SyntaxInfo}
+ */
+public class SyntaxIndex<T extends SyntaxInfo<?>> {
+    private final List<T> infos;
+    private final Node root = new Node();
+    // The keywords each pattern of each syntax requires, as indices inside of the keyword automaton
+    private final Map<SyntaxInfo<?>, int[][]> requirements = new IdentityHashMap<>();
+    private final KeywordNode keywordRoot = new KeywordNode();
+
+    /**
+     * Builds an index over the given syntaxes.
+     * @param infos the syntaxes to index, in the order they should be tried in
+     */
+    public SyntaxIndex(List<? extends T> infos) {
+        this.infos = List.copyOf(infos);
+        for (var i = 0; i < this.infos.size(); i++) {
+            for (var pattern : this.infos.get(i).getPatterns()) {
+                for (var prefix : getPrefixes(pattern)) {
+                    insert(prefix).indices.set(i);
+                }
+            }
+        }
+        root.materialize(new BitSet());
+        buildKeywordAutomaton();
+    }
+
+    /**
+     * Looks up all syntaxes that could possibly match the given string.
+     * @param s the string that is being parsed
+     * @return the candidate syntaxes, in the same order as the indexed list. Must not be modified.
+     */
+    public List<T> getCandidates(String s) {
+        var node = root;
+        var candidates = root.candidates;
+        var i = 0;
+        while (i < s.length() && Character.isWhitespace(s.charAt(i)))
+            i++;
+        for (; i < s.length(); i++) {
+            node = node.children.get(fold(s.charAt(i)));
+            if (node == null)
+                break;
+            if (node.candidates != null)
+                candidates = node.candidates;
+        }
+        assert candidates != null;
+        return candidates;
+    }
+
+    /**
+     * Scans the given string once for the keywords of all indexed syntaxes, in order to rule out the syntaxes that
+     * could not possibly match it because one of their mandatory keywords is missing. This is the same check as the
+     * one {@link CompoundElement} does, but for all syntaxes at once.
+     * @param s the string that is being parsed
+     * @return a predicate telling whether a syntax could match the given string
+     */
+    public Predicate<SyntaxInfo<?>> getFilter(String s) {
+        var found = new BitSet();
+        var node = keywordRoot;
+        for (var i = 0; i < s.length(); i++) {
+            var c = fold(s.charAt(i));
+            while (node != keywordRoot && !node.children.containsKey(c))
+                node = node.fail;
+            node = node.children.getOrDefault(c, keywordRoot);
+            for (var keyword : node.outputs) {
+                found.set(keyword);
+            }
+        }
+        return info -> {
+            var patterns = requirements.get(info);
+            if (patterns == null)
+                return true;
+            for (var keywords : patterns) {
+                var present = true;
+                for (var keyword : keywords) {
+                    if (!found.get(keyword)) {
+                        present = false;
+                        break;
+                    }
+                }
+                if (present)
+                    return true;
+            }
+            return false;
+        };
+    }
+
+    /**
+     * @return all indexed syntaxes
+     */
+    public List<T> getAll() {
+        return infos;
+    }
+
+    /*
+     * Aho-Corasick automaton over the keywords of all patterns.
+     */
+    private void buildKeywordAutomaton() {
+        Map<String, Integer> keywordIds = new HashMap<>();
+        for (var info : infos) {
+            var patterns = info.getPatterns();
+            var keywords = new int[patterns.size()][];
+            for (var i = 0; i < patterns.size(); i++) {
+                keywords[i] = PatternElement.flatten(patterns.get(i)).stream()
+                        .filter(e -> e instanceof TextElement)
+                        .map(e -> fold(((TextElement) e).getText().strip()))
+                        .filter(keyword -> !keyword.isEmpty())
+                        .mapToInt(keyword -> keywordIds.computeIfAbsent(keyword, k -> {
+                            var node = keywordRoot;
+                            for (var j = 0; j < k.length(); j++) {
+                                node = node.children.computeIfAbsent(k.charAt(j), __ -> new KeywordNode());
+                            }
+                            node.outputs = new int[] {keywordIds.size()};
+                            return keywordIds.size();
+                        }))
+                        .distinct()
+                        .toArray();
+            }
+            requirements.put(info, keywords);
+        }
+        // Breadth-first, so that the failure link of a node's parent is always known
+        var queue = new ArrayDeque<KeywordNode>();
+        for (var child : keywordRoot.children.values()) {
+            child.fail = keywordRoot;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            var node = queue.poll();
+            for (var entry : node.children.entrySet()) {
+                var c = entry.getKey();
+                var child = entry.getValue();
+                var fail = node.fail;
+                while (fail != keywordRoot && !fail.children.containsKey(c))
+                    fail = fail.fail;
+                var target = fail.children.get(c);
+                child.fail = target != null && target != child ? target : keywordRoot;
+                if (child.fail.outputs.length > 0) {
+                    var outputs = Arrays.copyOf(child.outputs, child.outputs.length + child.fail.outputs.length);
+                    System.arraycopy(child.fail.outputs, 0, outputs, child.outputs.length, child.fail.outputs.length);
+                    child.outputs = outputs;
+                }
+                queue.add(child);
+            }
+        }
+    }
+
+    private Node insert(String prefix) {
+        var node = root;
+        for (var i = 0; i < prefix.length(); i++) {
+            node = node.children.computeIfAbsent(prefix.charAt(i), __ -> new Node());
+        }
+        return node;
+    }
+
+    /**
+     * Computes all literal prefixes a string must start with in order to match the given pattern. The empty string
+     * denotes that no such prefix could be determined.
+     * @param pattern the pattern
+     * @return the possible prefixes, lowercased
+     */
+    static Set<String> getPrefixes(PatternElement pattern) {
+        Set<String> prefixes = new HashSet<>();
+        collectPrefixes(PatternElement.flatten(pattern), prefixes);
+        return prefixes;
+    }
+
+    private static void collectPrefixes(List<PatternElement> elements, Set<String> prefixes) {
+        for (var i = 0; i < elements.size(); i++) {
+            var element = elements.get(i);
+            var rest = elements.subList(i + 1, elements.size());
+            if (element instanceof TextElement) {
+                var text = ((TextElement) element).getText().strip();
+                if (text.isEmpty())
+                    continue;
+                prefixes.add(fold(text));
+                return;
+            } else if (element instanceof OptionalGroup) {
+                // Either the optional group is matched first, or we move on to the next element
+                collectPrefixes(concat(((OptionalGroup) element).getElement(), rest), prefixes);
+            } else if (element instanceof ChoiceGroup) {
+                for (var choice : ((ChoiceGroup) element).getChoices()) {
+                    collectPrefixes(concat(choice.getElement(), rest), prefixes);
+                }
+                return;
+            } else if (element instanceof CompoundElement) {
+                collectPrefixes(concat(element, rest), prefixes);
+                return;
+            } else {
+                // Expressions and regex groups could start with anything
+                prefixes.add("");
+                return;
+            }
+        }
+        prefixes.add(""); // The pattern can match an empty string
+    }
+
+    private static List<PatternElement> concat(PatternElement element, List<PatternElement> rest) {
+        var flattened = PatternElement.flatten(element);
+        List<PatternElement> elements = new ArrayList<>(flattened.size() + rest.size());
+        elements.addAll(flattened);
+        elements.addAll(rest);
+        return elements;
+    }
+
+    /*
+     * Mirrors the case-insensitive comparison of String#regionMatches, which TextElement relies on.
+     */
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static String fold(String s) {
+        var chars = s.toCharArray();
+        for (var i = 0; i < chars.length; i++) {
+            chars[i] = fold(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        // The syntaxes having a prefix that ends at this node
+        private final BitSet indices = new BitSet();
+        // The syntaxes having a prefix that ends at this node or any of its parents, only set when relevant
+        @Nullable
+        private List<T> candidates;
+
+        private void materialize(BitSet inherited) {
+            if (this == root || !indices.isEmpty()) {
+                var combined = (BitSet) inherited.clone();
+                combined.or(indices);
+                List<T> list = new ArrayList<>(combined.cardinality());
+                for (var i = combined.nextSetBit(0); i >= 0; i = combined.nextSetBit(i + 1)) {
+                    list.add(infos.get(i));
+                }
+                candidates = Collections.unmodifiableList(list);
+                inherited = combined;
+            }
+            for (var child : children.values()) {
+                child.materialize(inherited);
+            }
+        }
+    }
+
+    private static class KeywordNode {
+        private final Map<Character, KeywordNode> children = new HashMap<>();
+        private KeywordNode fail;
+        // The keywords ending at this node, including through failure links
+        private int[] outputs = new int[0];
+    }
+}
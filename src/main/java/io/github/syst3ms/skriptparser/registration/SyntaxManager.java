@@ -5,10 +5,16 @@ import io.github.syst3ms.skriptparser.lang.Effect;
 import io.github.syst3ms.skriptparser.lang.Expression;
 import io.github.syst3ms.skriptparser.util.MultiMap;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 public class SyntaxManager {
     /**
@@ -25,6 +31,11 @@ public class SyntaxManager {
     private static final List<SyntaxInfo<? extends Effect>> effects = new ArrayList<>();
     private static final List<SyntaxInfo<? extends CodeSection>> sections = new ArrayList<>();
     private static final List<SkriptEventInfo<?>> triggers = new ArrayList<>();
+    private static SyntaxIndex<ExpressionInfo<?, ?>> expressionIndex = new SyntaxIndex<>(List.of());
+    private static SyntaxIndex<SyntaxInfo<? extends Effect>> effectIndex = new SyntaxIndex<>(List.of());
+    private static SyntaxIndex<SyntaxInfo<? extends CodeSection>> sectionIndex = new SyntaxIndex<>(List.of());
+    private static SyntaxIndex<SkriptEventInfo<?>> triggerIndex = new SyntaxIndex<>(List.of());
+    private static String fingerprint = computeFingerprint();
 
     static void register(SkriptRegistration reg) {
         effects.addAll(reg.getEffects());
@@ -40,6 +51,48 @@ public class SyntaxManager {
                 expressions.putOne(key, info);
             }
         }
+        expressionIndex = new SyntaxIndex<>(getAllExpressions());
+        effectIndex = new SyntaxIndex<>(effects);
+        sectionIndex = new SyntaxIndex<>(sections);
+        triggerIndex = new SyntaxIndex<>(triggers);
+        fingerprint = computeFingerprint();
+    }
+
+    /*
+     * Registration order isn't always deterministic, so the descriptions of the syntaxes are sorted before being hashed.
+     */
+    private static String computeFingerprint() {
+        List<String> descriptions = new ArrayList<>();
+        for (var info : getAllExpressions())
+            descriptions.add("expression " + describe(info));
+        for (var info : effects)
+            descriptions.add("effect " + describe(info));
+        for (var info : sections)
+            descriptions.add("section " + describe(info));
+        for (var info : triggers)
+            descriptions.add("event " + describe(info));
+        Collections.sort(descriptions);
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            for (var description : descriptions) {
+                digest.update((description + '\n').getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String describe(SyntaxInfo<?> info) {
+        return info.getSyntaxClass().getName() + ' ' + info.getPriority() + ' ' + info.getPatterns();
+    }
+
+    /**
+     * A fingerprint of all currently registered syntaxes, which changes whenever different syntaxes are registered.
+     * @return the fingerprint, as an hexadecimal string
+     */
+    public static String getFingerprint() {
+        return fingerprint;
     }
 
     /**
@@ -51,6 +104,22 @@ public class SyntaxManager {
         return expressionInfos;
     }
 
+    /**
+     * @param s the string that is being parsed
+     * @return all currently registered expressions that could possibly match the given string, in parsing order
+     */
+    public static List<ExpressionInfo<?, ?>> getExpressionCandidates(String s) {
+        return expressionIndex.getCandidates(s);
+    }
+
+    /**
+     * @param s the string that is being parsed
+     * @return a predicate ruling out the expressions whose mandatory keywords are missing from the given string
+     */
+    public static Predicate<SyntaxInfo<?>> getExpressionFilter(String s) {
+        return expressionIndex.getFilter(s);
+    }
+
     /**
      * @param expr the expression instance
      * @param <E> the expression class
@@ -75,6 +144,22 @@ public class SyntaxManager {
         return sections;
     }
 
+    /**
+     * @param s the line that is being parsed
+     * @return all currently registered sections that could possibly match the given line, in parsing order
+     */
+    public static List<SyntaxInfo<? extends CodeSection>> getSectionCandidates(String s) {
+        return sectionIndex.getCandidates(s);
+    }
+
+    /**
+     * @param s the line that is being parsed
+     * @return a predicate ruling out the sections whose mandatory keywords are missing from the given line
+     */
+    public static Predicate<SyntaxInfo<?>> getSectionFilter(String s) {
+        return sectionIndex.getFilter(s);
+    }
+
     /**
      * @return a list of all currently registered effects
      */
@@ -82,10 +167,42 @@ public class SyntaxManager {
         return effects;
     }
 
+    /**
+     * @param s the line that is being parsed
+     * @return all currently registered effects that could possibly match the given line, in parsing order
+     */
+    public static List<SyntaxInfo<? extends Effect>> getEffectCandidates(String s) {
+        return effectIndex.getCandidates(s);
+    }
+
+    /**
+     * @param s the line that is being parsed
+     * @return a predicate ruling out the effects whose mandatory keywords are missing from the given line
+     */
+    public static Predicate<SyntaxInfo<?>> getEffectFilter(String s) {
+        return effectIndex.getFilter(s);
+    }
+
     /**
      * @return a list of all currently registered events
      */
     public static List<SkriptEventInfo<?>> getEvents() {
         return triggers;
     }
+
+    /**
+     * @param s the line that is being parsed
+     * @return all currently registered events that could possibly match the given line, in parsing order
+     */
+    public static List<SkriptEventInfo<?>> getEventCandidates(String s) {
+        return triggerIndex.getCandidates(s);
+    }
+
+    /**
+     * @param s the line that is being parsed
+     * @return a predicate ruling out the events whose mandatory keywords are missing from the given line
+     */
+    public static Predicate<SyntaxInfo<?>> getEventFilter(String s) {
+        return triggerIndex.getFilter(s);
+    }
 }
@@ -7,13 +7,18 @@ import io.github.syst3ms.skriptparser.util.CollectionUtils;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class ContextValues {
     private static final List<ContextValue<?, ?>> contextValues = new ArrayList<>();
+    // The same list is returned for a given context every time, so that it can be cached by identity when parsing
+    private static final Map<Class<? extends TriggerContext>, List<ContextValue<?, ?>>> contextValuesByContext = new ConcurrentHashMap<>();
 
     public static void register(SkriptRegistration reg) {
         contextValues.addAll(reg.getContextValues());
+        contextValuesByContext.clear();
     }
 
     /**
@@ -25,15 +30,15 @@ public class ContextValues {
     }
 
     /**
-     * Returns a list with all the registered context values for a given {@link TriggerContext},
-     * excluding values that explicitly require it.
+     * Returns an unmodifiable list with all the registered context values for a given {@link TriggerContext},
+     * excluding values that explicitly require it. The same list is returned until more context values are registered.
      * @param ctx the context class
      * @return a list with the applicable context values
      */
     public static List<ContextValue<?, ?>> getContextValues(Class<? extends TriggerContext> ctx) {
-        return contextValues.stream()
+        return contextValuesByContext.computeIfAbsent(ctx, __ -> contextValues.stream()
                 .filter(val -> val.getContext().isAssignableFrom(ctx))
                 .filter(val -> !CollectionUtils.contains(val.getExcluded(), val.getContext()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toUnmodifiableList()));
     }
 }
@@ -8,6 +8,7 @@ import io.github.syst3ms.skriptparser.util.RecentElementList;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
@@ -22,12 +23,15 @@ public class TagManager {
      * All {@link Tag tags} that are successfully parsed during parsing, in order of last successful parsing
      */
     private static final RecentElementList<TagInfo<?>> recentTags = new RecentElementList<>();
-    private static final List<TagInfo<?>> tags = new ArrayList<>();
+    // Replaced rather than modified, since recentTags caches its merged lists by identity
+    private static List<TagInfo<?>> tags = List.of();
 
 
     public static void register(SkriptRegistration reg) {
-        tags.addAll(reg.getTags());
-        tags.sort(INFO_COMPARATOR);
+        List<TagInfo<?>> registered = new ArrayList<>(tags);
+        registered.addAll(reg.getTags());
+        registered.sort(INFO_COMPARATOR);
+        tags = Collections.unmodifiableList(registered);
     }
 
     /**
@@ -50,22 +54,10 @@ public class TagManager {
                 || Character.isWhitespace(toParse.charAt(toParse.length() - 1)))
             return Optional.empty();
 
-        for (var recentTag : recentTags) {
-            var tag = matchTagInfo(toParse, recentTag, logger);
+        for (var info : recentTags.mergeWith(tags)) {
+            var tag = matchTagInfo(toParse, info, logger);
             if (tag.isPresent()) {
-                recentTags.acknowledge(recentTag);
-                logger.clearErrors();
-                return tag;
-            }
-            logger.forgetError();
-        }
-        // Let's not loop over the same elements again
-        var remainingTags = tags;
-        recentTags.removeFrom(remainingTags);
-        for (var remainingTag : remainingTags) {
-            var tag = matchTagInfo(toParse, remainingTag, logger);
-            if (tag.isPresent()) {
-                recentTags.acknowledge(remainingTag);
+                recentTags.acknowledge(info);
                 logger.clearErrors();
                 return tag;
             }
@@ -3,6 +3,7 @@ package io.github.syst3ms.skriptparser.sections;
 import io.github.syst3ms.skriptparser.Parser;
 import io.github.syst3ms.skriptparser.file.FileSection;
 import io.github.syst3ms.skriptparser.lang.CodeSection;
+import io.github.syst3ms.skriptparser.lang.ExecutionFrame;
 import io.github.syst3ms.skriptparser.lang.Expression;
 import io.github.syst3ms.skriptparser.lang.Statement;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
@@ -47,9 +48,14 @@ public class SecAsync extends CodeSection {
     @Override
     public Optional<? extends Statement> walk(TriggerContext ctx) {
         Optional<? extends Statement>[] item = new Optional[]{getFirst()};
+        ExecutionFrame.beginRun(ctx);
         ThreadUtils.runAsync(() -> {
-            while (!item[0].equals(getNext())) // Calling equals() on optionals calls equals() on their values
-                item[0] = item[0].flatMap(i -> i.walk(ctx));
+            try {
+                while (!item[0].equals(getNext())) // Calling equals() on optionals calls equals() on their values
+                    item[0] = item[0].flatMap(i -> i.walk(ctx));
+            } finally {
+                ExecutionFrame.endRun(ctx);
+            }
         });
         return getNext();
     }
@@ -92,7 +92,7 @@ public class SecCase extends CodeSection {
                             with -> Comparators.compare(toMatch, with).is(Relation.EQUAL)
                     ))
                     .flatMap(__ -> {
-                        switchSection.setDone(true);
+                        switchSection.setDone(ctx, true);
                         return getFirst();
                     })
                     .map(val -> (Statement) val)
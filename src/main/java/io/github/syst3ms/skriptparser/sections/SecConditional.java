@@ -5,6 +5,10 @@ import io.github.syst3ms.skriptparser.lang.CodeSection;
 import io.github.syst3ms.skriptparser.lang.Expression;
 import io.github.syst3ms.skriptparser.lang.Statement;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
+import io.github.syst3ms.skriptparser.lang.compiled.Compilable;
+import io.github.syst3ms.skriptparser.lang.compiled.CompiledTrigger;
+import io.github.syst3ms.skriptparser.lang.compiled.Instruction;
+import io.github.syst3ms.skriptparser.lang.compiled.Instructions;
 import io.github.syst3ms.skriptparser.log.ErrorType;
 import io.github.syst3ms.skriptparser.log.SkriptLogger;
 import io.github.syst3ms.skriptparser.parsing.ParseContext;
@@ -27,7 +31,7 @@ import java.util.function.Predicate;
  * @since ALPHA
  * @author Mwexim, Syst3ms
  */
-public class SecConditional extends CodeSection {
+public class SecConditional extends CodeSection implements Compilable {
     static {
         Parser.getMainRegistration().addSection(
                 SecConditional.class,
@@ -82,6 +86,16 @@ public class SecConditional extends CodeSection {
         }
     }
 
+    @Override
+    public Instruction compile(CompiledTrigger trigger) {
+        var first = trigger.indexOf(getFirst());
+        if (mode == ConditionalMode.ELSE)
+            return Instructions.jump(first);
+        var otherwise = fallingClause != null ? trigger.indexOf(Optional.of(fallingClause)) : trigger.indexOf(getNext());
+        assert condition != null;
+        return Instructions.branch(condition, first, otherwise);
+    }
+
     @Override
     public Statement setNext(@Nullable Statement next) {
         while (next instanceof SecConditional && ((SecConditional) next).mode != ConditionalMode.IF) {
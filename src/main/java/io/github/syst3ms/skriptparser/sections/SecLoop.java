@@ -2,12 +2,17 @@ package io.github.syst3ms.skriptparser.sections;
 
 import io.github.syst3ms.skriptparser.Parser;
 import io.github.syst3ms.skriptparser.file.FileSection;
+import io.github.syst3ms.skriptparser.lang.ExecutionFrame;
 import io.github.syst3ms.skriptparser.lang.Expression;
 import io.github.syst3ms.skriptparser.lang.Literal;
 import io.github.syst3ms.skriptparser.lang.SimpleLiteral;
 import io.github.syst3ms.skriptparser.lang.Statement;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
 import io.github.syst3ms.skriptparser.lang.Variable;
+import io.github.syst3ms.skriptparser.lang.compiled.Compilable;
+import io.github.syst3ms.skriptparser.lang.compiled.CompiledTrigger;
+import io.github.syst3ms.skriptparser.lang.compiled.Instruction;
+import io.github.syst3ms.skriptparser.lang.compiled.Instructions;
 import io.github.syst3ms.skriptparser.lang.control.Continuable;
 import io.github.syst3ms.skriptparser.lang.control.SelfReferencing;
 import io.github.syst3ms.skriptparser.lang.lambda.ArgumentSection;
@@ -35,7 +40,7 @@ import java.util.Optional;
  * @since ALPHA
  * @author Mwexim
  */
-public class SecLoop extends ArgumentSection implements Continuable, SelfReferencing {
+public class SecLoop extends ArgumentSection implements Continuable, SelfReferencing, Compilable {
 	static {
 		Parser.getMainRegistration().addSection(
 				SecLoop.class,
@@ -51,11 +56,11 @@ public class SecLoop extends ArgumentSection implements Continuable, SelfReferen
 
 	@Nullable
 	private Statement actualNext;
-	@Nullable
-	private Iterator<?> iterator;
+	private ExecutionFrame.Slot<Iterator<?>> iterator;
 
 	@Override
 	public boolean loadSection(FileSection section, ParserState parserState, SkriptLogger logger) {
+		iterator = parserState.newFrameSlot();
 		if (!super.loadSection(section, parserState, logger)) return false;
 		super.setNext(this);
 		return true;
@@ -98,23 +103,38 @@ public class SecLoop extends ArgumentSection implements Continuable, SelfReferen
 
 	@Override
 	public Optional<? extends Statement> walk(TriggerContext ctx) {
-		if (isNumericLoop && expression == null) {
-			// We just set the looped expression to a range from 1 to the amount of times.
-			// This allows the usage of 'loop-number' to get the current iteration
-			expression = rangeOf(ctx, times);
-		}
+		return advance(ctx) ? start() : Optional.ofNullable(actualNext);
+	}
+
+	@Override
+	public Instruction compile(CompiledTrigger trigger) {
+		var first = trigger.indexOf(start());
+		var exit = trigger.indexOf(Optional.ofNullable(actualNext));
+		return Instructions.test(this::advance, first, exit);
+	}
 
-		if (iterator == null) {
-			assert expression != null;
-			iterator = expression instanceof Variable ? ((Variable<?>) expression).variablesIterator(ctx) : expression.iterator(ctx);
+	/**
+	 * Moves on to the next looped value, finishing this loop if there is none left.
+	 * @param ctx the context
+	 * @return whether there was a value left to loop over
+	 */
+	private boolean advance(TriggerContext ctx) {
+		var iter = iterator.get(ctx);
+		if (iter == null) {
+			// We just loop over a range from 1 to the amount of times, computed anew for each execution.
+			// This allows the usage of 'loop-number' to get the current iteration
+			var looped = isNumericLoop ? rangeOf(ctx, times) : expression;
+			assert looped != null;
+			iter = looped instanceof Variable ? ((Variable<?>) looped).variablesIterator(ctx) : looped.iterator(ctx);
+			iterator.set(ctx, iter);
 		}
 
-		if (iterator.hasNext()) {
-			setArguments(iterator.next());
-			return start();
+		if (iter.hasNext()) {
+			setArguments(ctx, iter.next());
+			return true;
 		} else {
-			finish();
-			return Optional.ofNullable(actualNext);
+			finish(ctx);
+			return false;
 		}
 	}
 
@@ -125,9 +145,9 @@ public class SecLoop extends ArgumentSection implements Continuable, SelfReferen
 	}
 
 	@Override
-	public void finish() {
+	public void finish(TriggerContext ctx) {
 		// Cache clearing
-		iterator = null;
+		iterator.set(ctx, null);
 	}
 
 	@Override
@@ -147,6 +167,8 @@ public class SecLoop extends ArgumentSection implements Continuable, SelfReferen
 	}
 
 	/**
+	 * For numeric loops, the amount of times is only known at runtime, so this only describes the type of the
+	 * looped values.
 	 * @return the expression whose values this loop is iterating over
 	 */
 	public Expression<?> getLoopedExpression() {
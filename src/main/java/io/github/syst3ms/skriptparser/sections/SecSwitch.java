@@ -1,13 +1,17 @@
 package io.github.syst3ms.skriptparser.sections;
 
 import io.github.syst3ms.skriptparser.Parser;
+import io.github.syst3ms.skriptparser.file.FileSection;
 import io.github.syst3ms.skriptparser.lang.CodeSection;
+import io.github.syst3ms.skriptparser.lang.ExecutionFrame;
 import io.github.syst3ms.skriptparser.lang.Expression;
 import io.github.syst3ms.skriptparser.lang.Statement;
 import io.github.syst3ms.skriptparser.lang.SyntaxElement;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
 import io.github.syst3ms.skriptparser.lang.control.Finishing;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
 import io.github.syst3ms.skriptparser.parsing.ParseContext;
+import io.github.syst3ms.skriptparser.parsing.ParserState;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
@@ -64,11 +68,10 @@ public class SecSwitch extends CodeSection implements Finishing {
 
     private Expression<Object> matched;
     private final List<SecCase> cases = new ArrayList<>();
-    @Nullable
-    private Iterator<SecCase> iterator;
+    private ExecutionFrame.Slot<Iterator<SecCase>> iterator;
     @Nullable
     private Statement byDefault;
-    private boolean isDone = false;
+    private ExecutionFrame.Slot<Boolean> isDone;
 
     @Override
     public boolean init(Expression<?>[] expressions, int matchedPattern, ParseContext parseContext) {
@@ -76,25 +79,35 @@ public class SecSwitch extends CodeSection implements Finishing {
         return true;
     }
 
+    @Override
+    public boolean loadSection(FileSection section, ParserState parserState, SkriptLogger logger) {
+        iterator = parserState.newFrameSlot();
+        isDone = parserState.newFrameSlot();
+        return super.loadSection(section, parserState, logger);
+    }
+
     @Override
     public Optional<? extends Statement> walk(TriggerContext ctx) {
-        if (iterator == null)
-            iterator = cases.iterator();
+        var iter = iterator.get(ctx);
+        if (iter == null) {
+            iter = cases.iterator();
+            iterator.set(ctx, iter);
+        }
 
-        if (iterator.hasNext()) {
-            return Optional.of(iterator.next());
-        } else if (!isDone && byDefault != null) {
+        if (iter.hasNext()) {
+            return Optional.of(iter.next());
+        } else if (!isDone(ctx) && byDefault != null) {
             return Optional.of(byDefault);
         } else {
-            finish();
+            finish(ctx);
             return getNext();
         }
     }
 
     @Override
-    public void finish() {
-        iterator = null;
-        isDone = false;
+    public void finish(TriggerContext ctx) {
+        iterator.set(ctx, null);
+        isDone.set(ctx, null);
     }
 
     @Override
@@ -123,11 +136,11 @@ public class SecSwitch extends CodeSection implements Finishing {
         this.byDefault = byDefault;
     }
 
-    public boolean isDone() {
-        return isDone;
+    public boolean isDone(TriggerContext ctx) {
+        return Boolean.TRUE.equals(isDone.get(ctx));
     }
 
-    public void setDone(boolean isDone) {
-        this.isDone = isDone;
+    public void setDone(TriggerContext ctx, boolean isDone) {
+        this.isDone.set(ctx, isDone);
     }
 }
@@ -6,6 +6,10 @@ import io.github.syst3ms.skriptparser.lang.CodeSection;
 import io.github.syst3ms.skriptparser.lang.Expression;
 import io.github.syst3ms.skriptparser.lang.Statement;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
+import io.github.syst3ms.skriptparser.lang.compiled.Compilable;
+import io.github.syst3ms.skriptparser.lang.compiled.CompiledTrigger;
+import io.github.syst3ms.skriptparser.lang.compiled.Instruction;
+import io.github.syst3ms.skriptparser.lang.compiled.Instructions;
 import io.github.syst3ms.skriptparser.lang.control.Continuable;
 import io.github.syst3ms.skriptparser.lang.control.SelfReferencing;
 import io.github.syst3ms.skriptparser.log.SkriptLogger;
@@ -25,7 +29,7 @@ import java.util.Optional;
  * @since ALPHA
  * @author Mwexim
  */
-public class SecWhile extends CodeSection implements Continuable, SelfReferencing {
+public class SecWhile extends CodeSection implements Continuable, SelfReferencing, Compilable {
     static {
         Parser.getMainRegistration().addSection(
                 SecWhile.class,
@@ -61,6 +65,13 @@ public class SecWhile extends CodeSection implements Continuable, SelfReferencin
         }
     }
 
+    @Override
+    public Instruction compile(CompiledTrigger trigger) {
+        var first = trigger.indexOf(getFirst());
+        var exit = trigger.indexOf(Optional.ofNullable(actualNext));
+        return Instructions.branch(condition, first, exit);
+    }
+
     @Override
     public Statement setNext(@Nullable Statement next) {
         this.actualNext = next;
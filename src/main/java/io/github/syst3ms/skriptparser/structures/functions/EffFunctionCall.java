@@ -26,12 +26,17 @@ public class EffFunctionCall extends Effect {
 	}
 
 	private Function<?> function;
+	private FunctionReference reference;
 	private Expression<?>[] paramsExprs = new Expression<?>[0];
 
 	private Expression<?> parsedExpr;
 
 	@Override
 	protected void execute(TriggerContext ctx) {
+		Optional<Function<?>> optionalFunction = reference.get();
+		if (optionalFunction.isEmpty())
+			return;
+		Function<?> function = optionalFunction.get();
 		Object[][] params = new Object[paramsExprs.length][];
 		for (int i = 0; i < paramsExprs.length; i++) {
 			params[i] = paramsExprs[i].getValues(ctx);
@@ -57,6 +62,7 @@ public class EffFunctionCall extends Effect {
 			return false;
 		}
 		function = optionalFunction.get();
+		reference = new FunctionReference(function, logger.getFileName());
 		FunctionParameter<?>[] functionParameters = function.getParameters();
 		String exprString = result.group(2);
 		PatternType<?> objectType = TypeManager.getPatternType("objects").get();
@@ -27,12 +27,17 @@ public class ExprFunctionCall implements Expression<Object> {
 	}
 
 	private Function<?> function;
+	private FunctionReference reference;
 	private Expression<?>[] paramsExprs = new Expression<?>[0];
 
 	private Expression<?> parsedExpr;
 
 	@Override
 	public Object[] getValues(TriggerContext ctx) {
+		Optional<Function<?>> optionalFunction = reference.get();
+		if (optionalFunction.isEmpty())
+			return new Object[0];
+		Function<?> function = optionalFunction.get();
 		Object[][] params = new Object[paramsExprs.length][];
 		for (int i = 0; i < paramsExprs.length; i++) {
 			params[i] = paramsExprs[i].getValues(ctx);
@@ -58,6 +63,7 @@ public class ExprFunctionCall implements Expression<Object> {
 			return false;
 		}
 		function = optionalFunction.get();
+		reference = new FunctionReference(function, logger.getFileName());
 		FunctionParameter<?>[] functionParameters = function.getParameters();
 		String exprString = result.group(2);
 		PatternType<?> objectType = TypeManager.getPatternType("objects").get();
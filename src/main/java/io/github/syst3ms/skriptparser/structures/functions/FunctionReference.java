@@ -0,0 +1,84 @@
+package io.github.syst3ms.skriptparser.structures.functions;
+
+import io.github.syst3ms.skriptparser.types.conversions.Converters;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+
+/**
+ * The function a call refers to. The function is found again by name whenever functions are registered or
+ * unregistered, so that calls keep working once the script defining it is reloaded.
+ * <br>
+ * Calls were only checked against the function they were parsed with, so a new version of it is only called if it
+ * accepts everything that function accepted, and returns what that function returned.
+ */
+class FunctionReference {
+
+	private final Function<?> original;
+	private final String name;
+	private final String scriptName;
+	private volatile Resolved resolved;
+
+	FunctionReference(Function<?> function, String scriptName) {
+		this.original = function;
+		this.name = function.getName();
+		this.scriptName = scriptName;
+		this.resolved = new Resolved(function, Functions.getVersion());
+	}
+
+	/**
+	 * @return the function to call, or an empty {@link Optional} if it doesn't exist anymore or its signature changed
+	 * in a way the call can't handle
+	 */
+	Optional<Function<?>> get() {
+		var current = resolved;
+		var version = Functions.getVersion();
+		if (current.version != version) {
+			var function = Functions.getLoadedFunction(name, scriptName)
+					.filter(this::isCompatible)
+					.orElse(null);
+			current = new Resolved(function, version);
+			resolved = current;
+		}
+		return Optional.ofNullable(current.function);
+	}
+
+	private boolean isCompatible(Function<?> function) {
+		if (function == original)
+			return true;
+		var originalParameters = original.getParameters();
+		var parameters = function.getParameters();
+		if (parameters.length != originalParameters.length)
+			return false;
+		for (var i = 0; i < parameters.length; i++) {
+			var originalType = originalParameters[i].getType();
+			var type = parameters[i].getType();
+			if (parameters[i].isSingle() && !originalParameters[i].isSingle())
+				return false;
+			if (!type.isAssignableFrom(originalType) && Converters.getConverter(originalType, type).isEmpty())
+				return false;
+		}
+		var originalReturnType = original.getReturnType();
+		if (originalReturnType.isEmpty())
+			return true;
+		var returnType = function.getReturnType();
+		return returnType.isPresent()
+				&& originalReturnType.get().isAssignableFrom(returnType.get())
+				&& (function.isReturnSingle() || !original.isReturnSingle());
+	}
+
+	/**
+	 * A function, along with the version of the registered functions it was found in.
+	 */
+	private static class Resolved {
+		@Nullable
+		private final Function<?> function;
+		private final int version;
+
+		private Resolved(@Nullable Function<?> function, int version) {
+			this.function = function;
+			this.version = version;
+		}
+	}
+
+}
@@ -4,14 +4,17 @@ import io.github.syst3ms.skriptparser.lang.Trigger;
 import io.github.syst3ms.skriptparser.log.ErrorType;
 import io.github.syst3ms.skriptparser.log.SkriptLogger;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Pattern;
 
 public class Functions {
 
-	private static final List<Function<?>> functions = new ArrayList<>();
+	// Scripts may be parsed concurrently, so registering is synchronized while looking up never blocks
+	private static final List<Function<?>> functions = new CopyOnWriteArrayList<>();
+	// Changes whenever a call may resolve to another function than before
+	private static volatile int version;
 
 	static final String FUNCTION_NAME_REGEX = "^[a-zA-Z0-9_]*";
 	private static final Pattern FUNCTION_NAME_PATTERN = Pattern.compile(FUNCTION_NAME_REGEX);
@@ -19,20 +22,50 @@ public class Functions {
 
 	private Functions() {}
 
-	static void preRegisterFunction(ScriptFunction<?> function) {
+	/**
+	 * Registers a function whose trigger isn't loaded yet, unless it conflicts with an already registered function.
+	 * Checking for conflicts and registering is done atomically, so that two scripts parsed at the same time can't both
+	 * register a function under the same name.
+	 * @param function the function
+	 * @param logger the logger conflicts are reported to
+	 * @return whether the function was registered
+	 */
+	static synchronized boolean preRegisterFunction(ScriptFunction<?> function, SkriptLogger logger) {
+		if (!isValidFunction(function, logger))
+			return false;
 		functions.add(function);
+		return true;
 	}
 
-	public static void registerFunction(ScriptFunction<?> function, Trigger trigger) {
+	public static synchronized void registerFunction(ScriptFunction<?> function, Trigger trigger) {
 		function.setTrigger(trigger);
+		version++;
 	}
 
-	public static void registerFunction(JavaFunction<?> function) {
+	public static synchronized void registerFunction(JavaFunction<?> function) {
 		functions.add(function);
+		version++;
+	}
+
+	public static synchronized void unregisterFunction(ScriptFunction<?> function) {
+		functions.remove(function);
+		version++;
+	}
+
+	/**
+	 * Marks a function as about to be replaced by a new version of its script. Replaced functions are ignored when
+	 * parsing, so that the new version can define them again, but calls keep running them until they are unregistered.
+	 * @param function the function
+	 * @param replaced whether the function is being replaced
+	 */
+	public static synchronized void setReplaced(ScriptFunction<?> function, boolean replaced) {
+		function.setReplaced(replaced);
 	}
 
 	public static boolean isValidFunction(ScriptFunction<?> function, SkriptLogger logger) {
 		for (Function<?> registeredFunction : functions) {
+			if (registeredFunction instanceof ScriptFunction<?> registeredScriptFunction && registeredScriptFunction.isReplaced())
+				continue;
 			String registeredFunctionName = registeredFunction.getName();
 			String providedFunctionName = function.getName();
 			if (!registeredFunctionName.equals(providedFunctionName)) continue;
@@ -64,16 +97,39 @@ public class Functions {
 	}
 
 	public static Optional<Function<?>> getFunctionByName(String name, String scriptName) {
+		return getFunctionByName(name, scriptName, false);
+	}
+
+	/**
+	 * @return the function a call made at runtime should run, which must be loaded. Functions being replaced are only
+	 * run until their new version is loaded.
+	 */
+	static Optional<Function<?>> getLoadedFunction(String name, String scriptName) {
+		return getFunctionByName(name, scriptName, true);
+	}
+
+	static int getVersion() {
+		return version;
+	}
+
+	private static Optional<Function<?>> getFunctionByName(String name, String scriptName, boolean loaded) {
+		Function<?> replaced = null;
 		for (Function<?> registeredFunction : functions) {
 			if (!registeredFunction.getName().equals(name)) continue; // we don't care then!!!! goodbye continue to the next one
-			if (registeredFunction instanceof ScriptFunction<?> registeredScriptFunction
-						&& registeredScriptFunction.isLocal()
-						&& !scriptName.equals(registeredScriptFunction.getScriptName()))
-				continue;
-				//return Optional.of(registeredFunction); handled below
+			if (registeredFunction instanceof ScriptFunction<?> registeredScriptFunction) {
+				if (registeredScriptFunction.isLocal() && !scriptName.equals(registeredScriptFunction.getScriptName()))
+					continue;
+				if (loaded && !registeredScriptFunction.isLoaded())
+					continue;
+				if (registeredScriptFunction.isReplaced()) {
+					if (loaded && replaced == null)
+						replaced = registeredFunction;
+					continue;
+				}
+			}
 			return Optional.of(registeredFunction); // java function or global scriptfunction at this point
 		}
-		return Optional.empty();
+		return Optional.ofNullable(replaced);
 	}
 
 	@SuppressWarnings("BooleanMethodIsAlwaysInverted")
@@ -1,5 +1,6 @@
 package io.github.syst3ms.skriptparser.structures.functions;
 
+import io.github.syst3ms.skriptparser.lang.ExecutionFrame;
 import io.github.syst3ms.skriptparser.lang.Statement;
 import io.github.syst3ms.skriptparser.lang.Trigger;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
@@ -12,7 +13,8 @@ public final class ScriptFunction<T> extends Function<T> {
 	private final String scriptName;
 
 	private final boolean local;
-	private Trigger trigger;
+	private volatile Trigger trigger;
+	private volatile boolean replaced;
 
 	ScriptFunction(String scriptName, boolean local, String name, FunctionParameter<?>[] parameters, Class<? extends T> returnType, boolean returnSingle) {
 		super(name, parameters, returnType, returnSingle);
@@ -35,6 +37,9 @@ public final class ScriptFunction<T> extends Function<T> {
 			}
 		}
 		Statement.runAll(trigger, functionContext);
+		// A wait carries the execution on later with the same context, whose local variables then go away with it
+		if (!ExecutionFrame.isRunning(functionContext))
+			Variables.freeLocalVariables(functionContext);
 		if (!(getReturnType().isPresent()/* && getReturnType().get().isAssignableFrom(returnValue.getClass())*/)) {
 			return null;
 		}
@@ -53,4 +58,16 @@ public final class ScriptFunction<T> extends Function<T> {
 		this.trigger = trigger;
 	}
 
+	public boolean isLoaded() {
+		return trigger != null;
+	}
+
+	public boolean isReplaced() {
+		return replaced;
+	}
+
+	void setReplaced(boolean replaced) {
+		this.replaced = replaced;
+	}
+
 }
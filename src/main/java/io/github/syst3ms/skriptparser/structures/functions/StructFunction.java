@@ -71,11 +71,7 @@ public class StructFunction extends Structure {
 			if (type.isPlural(rawReturnType)) returnSingle = false;
 		}
 		function = new ScriptFunction<>(parseContext.getLogger().getFileName(), local, functionName, parameters, returnType, returnSingle);
-		if (!Functions.isValidFunction(function, parseContext.getLogger())) {
-			return false;
-		}
-		Functions.preRegisterFunction(function);
-		return true;
+		return Functions.preRegisterFunction(function, parseContext.getLogger());
 	}
 
 	@Override
@@ -92,4 +88,16 @@ public class StructFunction extends Structure {
 		Functions.registerFunction(function, trigger);
 	}
 
+	public void unregister() {
+		Functions.unregisterFunction(function);
+	}
+
+	/**
+	 * @param replaced whether this function is about to be replaced by a new version of its script
+	 * @see Functions#setReplaced(ScriptFunction, boolean)
+	 */
+	public void setReplaced(boolean replaced) {
+		Functions.setReplaced(function, replaced);
+	}
+
 }
@@ -0,0 +1,60 @@
+package io.github.syst3ms.skriptparser.types;
+
+/**
+ * The features of the text of a potential literal, all found by looking at it once. A {@link Type} can declare the
+ * features all of its literals have, so that text lacking any of them is never handed to its literal parser.
+ */
+public class LiteralFeatures {
+    /**
+     * No particular feature, which is what types accept unless they declare otherwise
+     */
+    public static final int ANY = 0;
+    /**
+     * Only digits, underscores and dots, optionally after a minus sign, with at least one digit
+     */
+    public static final int NUMERIC = 1;
+    /**
+     * Starts with a quote, like string literals do
+     */
+    public static final int QUOTED = 1 << 1;
+    /**
+     * Doesn't start with a quote
+     */
+    public static final int UNQUOTED = 1 << 2;
+    /**
+     * Contains at least one letter
+     */
+    public static final int LETTERS = 1 << 3;
+    /**
+     * Contains at least one digit
+     */
+    public static final int DIGITS = 1 << 4;
+
+    private LiteralFeatures() {}
+
+    /**
+     * @param s the text
+     * @return all the features of the text
+     */
+    public static int of(String s) {
+        if (s.isEmpty())
+            return UNQUOTED;
+        var first = s.charAt(0);
+        var features = first == '"' || first == '\'' ? QUOTED : UNQUOTED;
+        var numeric = true;
+        for (var i = 0; i < s.length(); i++) {
+            var c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                features |= DIGITS;
+                continue;
+            }
+            if (Character.isLetter(c))
+                features |= LETTERS;
+            if (c != '_' && c != '.' && (c != '-' || i > 0))
+                numeric = false;
+        }
+        if (numeric && (features & DIGITS) != 0)
+            features |= NUMERIC;
+        return features;
+    }
+}
@@ -2,6 +2,7 @@ package io.github.syst3ms.skriptparser.types;
 
 import io.github.syst3ms.skriptparser.types.changers.Arithmetic;
 import io.github.syst3ms.skriptparser.types.changers.Changer;
+import io.github.syst3ms.skriptparser.types.serialization.Serializer;
 import io.github.syst3ms.skriptparser.util.StringUtils;
 import org.jetbrains.annotations.Nullable;
 
@@ -23,6 +24,9 @@ public class Type<T> {
     private final Function<String, ? extends T> literalParser;
     @Nullable
     private final Changer<? super T> defaultChanger;
+    @Nullable
+    private final Serializer<T> serializer;
+    private final int literalFeatures;
 
     /**
      * Constructs a new Type.
@@ -85,19 +89,54 @@ public class Type<T> {
         this(typeClass, baseName, pattern, literalParser, toStringFunction, null);
     }
 
-    @SuppressWarnings("unchecked")
     public Type(Class<T> typeClass,
                 String baseName,
                 String pattern,
                 @Nullable Function<String, ? extends T> literalParser,
                 Function<? super T, String> toStringFunction,
                 @Nullable Changer<? super T> defaultChanger) {
+        this(typeClass, baseName, pattern, literalParser, toStringFunction, defaultChanger, null);
+    }
+
+    public Type(Class<T> typeClass,
+                String baseName,
+                String pattern,
+                @Nullable Function<String, ? extends T> literalParser,
+                Function<? super T, String> toStringFunction,
+                @Nullable Changer<? super T> defaultChanger,
+                @Nullable Serializer<T> serializer) {
+        this(typeClass, baseName, pattern, literalParser, toStringFunction, defaultChanger, serializer, LiteralFeatures.ANY);
+    }
+
+    /**
+     * Constructs a new Type.
+     *
+     * @param typeClass the class this type represents
+     * @param baseName the basic name to represent this type with
+     * @param pattern the pattern for plural forms
+     * @param literalParser the function that would parse literals for the given type
+     * @param toStringFunction the functions that converts an object of the type {@link T} to a {@link String}
+     * @param defaultChanger the default {@link Changer} of this type
+     * @param serializer the {@link Serializer} of this type
+     * @param literalFeatures the {@link LiteralFeatures} every literal of this type has
+     */
+    @SuppressWarnings("unchecked")
+    public Type(Class<T> typeClass,
+                String baseName,
+                String pattern,
+                @Nullable Function<String, ? extends T> literalParser,
+                Function<? super T, String> toStringFunction,
+                @Nullable Changer<? super T> defaultChanger,
+                @Nullable Serializer<T> serializer,
+                int literalFeatures) {
         this.typeClass = typeClass;
         this.baseName = baseName;
         this.literalParser = literalParser;
         this.toStringFunction = (Function<Object, String>) toStringFunction;
         this.pluralForms = StringUtils.getForms(pattern.strip());
         this.defaultChanger = defaultChanger;
+        this.serializer = serializer;
+        this.literalFeatures = literalFeatures;
     }
 
     public boolean isPlural(String input) {
@@ -131,10 +170,25 @@ public class Type<T> {
         return Optional.ofNullable(literalParser);
     }
 
+    /**
+     * @param features the {@link LiteralFeatures} of some text
+     * @return whether the literal parser of this type could accept text with these features
+     */
+    public boolean mayParseLiteral(int features) {
+        return (features & literalFeatures) == literalFeatures;
+    }
+
     public Optional<? extends Changer<? super T>> getDefaultChanger() {
         return Optional.ofNullable(defaultChanger);
     }
 
+    /**
+     * @return the {@link Serializer} of this type, if values of this type can be stored
+     */
+    public Optional<Serializer<T>> getSerializer() {
+        return Optional.ofNullable(serializer);
+    }
+
     /**
      * Adds a proper English indefinite article to this type and applies the correct form.
      * @param plural whether this Type is plural or not
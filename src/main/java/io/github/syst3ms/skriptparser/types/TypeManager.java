@@ -19,6 +19,17 @@ public class TypeManager {
     public static final String EMPTY_REPRESENTATION = "<empty>";
     private static final Map<String, Type<?>> nameToType = new HashMap<>();
     private static final Map<Class<?>, Type<?>> classToType = new LinkedHashMap<>(); // Ordering is important for stuff like number types
+    // The type found for each class, even subclasses of the registered ones, or the lack of one
+    private static volatile ClassValue<Optional<? extends Type<?>>> typesByClass = newTypesByClass();
+
+    private static ClassValue<Optional<? extends Type<?>>> newTypesByClass() {
+        return new ClassValue<>() {
+            @Override
+            protected Optional<? extends Type<?>> computeValue(Class<?> type) {
+                return getByClassInternal(type);
+            }
+        };
+    }
 
     public static Map<Class<?>, Type<?>> getClassToTypeMap() {
         return classToType;
@@ -61,7 +72,18 @@ public class TypeManager {
         return Optional.ofNullable((Type<T>) classToType.get(c));
     }
 
+    /**
+     * Gets the {@link Type} of a {@link Class}, which is the one of the class itself or else of its closest superclass
+     * or interface that has one.
+     * @param c the Class to get the Type from
+     * @param <T> the underlying type of the Class
+     * @return the associated Type, or {@literal null}
+     */
     public static <T> Optional<? extends Type<? super T>> getByClass(Class<T> c) {
+        return (Optional<? extends Type<? super T>>) typesByClass.get(c);
+    }
+
+    private static <T> Optional<? extends Type<? super T>> getByClassInternal(Class<T> c) {
         Optional<? extends Type<? super T>> type = getByClassExact(c);
         var superclass = c.getSuperclass();
         while (superclass != null && type.isEmpty()) {
@@ -123,5 +145,6 @@ public class TypeManager {
             nameToType.put(type.getBaseName(), type);
             classToType.put(type.getTypeClass(), type);
         }
+        typesByClass = newTypesByClass();
     }
 }
\ No newline at end of file
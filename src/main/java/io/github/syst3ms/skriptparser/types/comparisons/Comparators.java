@@ -1,13 +1,11 @@
 package io.github.syst3ms.skriptparser.types.comparisons;
 
 import io.github.syst3ms.skriptparser.types.conversions.Converters;
-import io.github.syst3ms.skriptparser.util.Pair;
+import io.github.syst3ms.skriptparser.util.ClassPairCache;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
@@ -39,6 +37,15 @@ public class Comparators {
         if (t1 == Object.class || t2 == Object.class)
             throw new IllegalArgumentException("You must not add a comparator for Objects");
         comparators.add(new ComparatorInfo<>(t1, t2, c));
+        clearCache();
+    }
+
+    /**
+     * Forgets which comparators were found between which classes. Must be called whenever the comparators that would
+     * be found could have changed.
+     */
+    public static void clearCache() {
+        comparatorsQuickAccess.clear();
     }
 
     @SuppressWarnings({"unchecked"})
@@ -50,20 +57,15 @@ public class Comparators {
                 .orElse(Relation.NOT_EQUAL);
     }
 
-    private final static Map<Pair<Class<?>, Class<?>>, Comparator<?, ?>> comparatorsQuickAccess = new HashMap<>();
+    private final static ClassPairCache<Comparator<?, ?>> comparatorsQuickAccess = new ClassPairCache<>(Comparators::getComparatorInternal);
 
     @SuppressWarnings("unchecked")
     public static <F, S> Optional<? extends Comparator<? super F, ? super S>> getComparator(Class<F> f, Class<S> s) {
-        var p = new Pair<Class<?>, Class<?>>(f, s);
-        if (comparatorsQuickAccess.containsKey(p))
-            return Optional.ofNullable((Comparator<? super F, ? super S>) comparatorsQuickAccess.get(p));
-        var comp = getComparatorInternal(f, s);
-        comp.ifPresent(c -> comparatorsQuickAccess.put(p, c));
-        return comp;
+        return (Optional<? extends Comparator<? super F, ? super S>>) (Optional<?>) comparatorsQuickAccess.get(f, s);
     }
 
     @SuppressWarnings("unchecked")
-    private static <F, S> Optional<? extends Comparator<? super F, ? super S>> getComparatorInternal(Class<F> f, Class<S> s) {
+    private static <F, S> Optional<Comparator<?, ?>> getComparatorInternal(Class<F> f, Class<S> s) {
         // Perfect match
         for (var info : comparators) {
             if (info.getFirstClass().isAssignableFrom(f) && info.getSecondClass().isAssignableFrom(s)) {
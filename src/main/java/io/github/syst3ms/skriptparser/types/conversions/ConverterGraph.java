@@ -0,0 +1,144 @@
+package io.github.syst3ms.skriptparser.types.conversions;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The graph whose nodes are classes and whose edges are registered converters, which finds the shortest
+ * {@link ChainedConverter} from every class converters start from to every class they can reach.
+ * <br>
+ * A converter leads away from every class its {@linkplain ConverterInfo#getFrom() source} is assignable from, as long as
+ * its flags allow it to be chained there.
+ */
+class ConverterGraph {
+    private final List<ConverterInfo<?, ?>> registered;
+    // The converters that can follow another one whose target is the key, computed the first time that class is reached
+    private final Map<Class<?>, List<ConverterInfo<?, ?>>> edges = new HashMap<>();
+
+    /**
+     * @param registered the converters that were registered, excluding the chains created from them
+     */
+    ConverterGraph(List<ConverterInfo<?, ?>> registered) {
+        this.registered = registered;
+    }
+
+    /**
+     * Creates a chain between every pair of classes that no existing converter already links, including chains
+     * created earlier.
+     * @param existing the existing converters
+     * @return the new chains, shortest ones first for every source class
+     */
+    List<ConverterInfo<?, ?>> createChains(Collection<ConverterInfo<?, ?>> existing) {
+        var sources = new LinkedHashSet<Class<?>>();
+        for (var info : registered)
+            sources.add(info.getFrom());
+        var chains = new ArrayList<ConverterInfo<?, ?>>();
+        for (var source : sources) {
+            // Only converters from related classes can make a chain redundant
+            var related = new ArrayList<ConverterInfo<?, ?>>();
+            for (var info : existing) {
+                if (isRelated(info.getFrom(), source))
+                    related.add(info);
+            }
+            for (var info : chains) {
+                if (isRelated(info.getFrom(), source))
+                    related.add(info);
+            }
+            for (var chain : chainsFrom(source)) {
+                if (!isLinked(related, chain.getTo())) {
+                    chains.add(chain);
+                    related.add(chain);
+                }
+            }
+        }
+        return chains;
+    }
+
+    /*
+     * A breadth-first search from the given class, so that every class is reached through the shortest chain possible
+     */
+    private List<ConverterInfo<?, ?>> chainsFrom(Class<?> source) {
+        var found = new HashSet<Class<?>>();
+        var expanded = new HashSet<Class<?>>();
+        var queue = new ArrayDeque<Step>();
+        for (var info : registered) {
+            if (info.getFrom() == source)
+                queue.add(new Step(info, null));
+        }
+        var chains = new ArrayList<ConverterInfo<?, ?>>();
+        while (!queue.isEmpty()) {
+            var step = queue.poll();
+            var reached = step.converter.getTo();
+            if (found.add(reached) && step.previous != null && !reached.isAssignableFrom(source))
+                chains.add(step.toChain());
+            if ((step.converter.getFlags() & Converters.NO_RIGHT_CHAINING) != 0 || !expanded.add(reached))
+                continue;
+            for (var next : edgesFrom(reached))
+                queue.add(new Step(next, step));
+        }
+        return chains;
+    }
+
+    private List<ConverterInfo<?, ?>> edgesFrom(Class<?> type) {
+        return edges.computeIfAbsent(type, __ -> {
+            var edges = new ArrayList<ConverterInfo<?, ?>>();
+            for (var info : registered) {
+                if ((info.getFlags() & Converters.NO_LEFT_CHAINING) == 0 && info.getFrom().isAssignableFrom(type))
+                    edges.add(info);
+            }
+            return edges;
+        });
+    }
+
+    private static boolean isRelated(Class<?> first, Class<?> second) {
+        return first.isAssignableFrom(second) || second.isAssignableFrom(first);
+    }
+
+    private static boolean isLinked(List<ConverterInfo<?, ?>> related, Class<?> to) {
+        for (var info : related) {
+            if (isRelated(info.getTo(), to))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * The last converter of a chain, linked to the steps before it.
+     */
+    private static class Step {
+        private final ConverterInfo<?, ?> converter;
+        @Nullable
+        private final Step previous;
+
+        private Step(ConverterInfo<?, ?> converter, @Nullable Step previous) {
+            this.converter = converter;
+            this.previous = previous;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes", "MagicConstant"})
+        private ConverterInfo<?, ?> toChain() {
+            if (previous == null)
+                return converter;
+            var first = previous.toChain();
+            return new ConverterInfo<>(
+                    (Class<Object>) first.getFrom(),
+                    (Class<Object>) converter.getTo(),
+                    ChainedConverter.newInstance(
+                            (Function<Object, Optional<?>>) (Function) first.getConverter(),
+                            (Function<Object, Optional<?>>) (Function) converter.getConverter()
+                    ),
+                    first.getFlags() | converter.getFlags()
+            );
+        }
+    }
+}
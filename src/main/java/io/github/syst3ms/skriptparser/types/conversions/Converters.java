@@ -1,17 +1,18 @@
 package io.github.syst3ms.skriptparser.types.conversions;
 
 import io.github.syst3ms.skriptparser.registration.SkriptRegistration;
-import io.github.syst3ms.skriptparser.util.Pair;
+import io.github.syst3ms.skriptparser.types.comparisons.Comparators;
+import io.github.syst3ms.skriptparser.util.ClassPairCache;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 
 /**
@@ -36,6 +37,8 @@ public abstract class Converters {
     public static final int NO_CHAINING = NO_LEFT_CHAINING | NO_RIGHT_CHAINING;
 
     private static final List<ConverterInfo<?, ?>> converters = new ArrayList<>(50);
+    // The converters created by createMissingConverters, which aren't used to create further chains
+    private static final Set<ConverterInfo<?, ?>> chainedConverters = new HashSet<>();
 
 
     public static List<ConverterInfo<?, ?>> getConverters() {
@@ -76,6 +79,7 @@ public abstract class Converters {
     public static <F, T> void registerConverter(Class<F> from, Class<T> to, Function<? super F, Optional<? extends T>> converter, int options) {
         if (converterExistsSlow(from, to))
             return;
+        clearCaches();
         var info = new ConverterInfo<>(from, to, converter, options);
         for (var i = 0; i < converters.size(); i++) {
             var info2 = converters.get(i);
@@ -88,22 +92,27 @@ public abstract class Converters {
     }
 
     /**
-     * Adds all possible {@link ChainedConverter}s to the current converters
+     * Adds all possible {@link ChainedConverter}s to the current converters, using the shortest chain between any two
+     * classes
      */
     public static void createMissingConverters() {
-        for (var i = 0; i < converters.size(); i++) {
-            var info = converters.get(i);
-            for (var j = 0; j < converters.size(); j++) { // not from j = i+1 since new converters get added during the loops
-                var info2 = converters.get(j);
-                if ((info.getFlags() & NO_RIGHT_CHAINING) == 0 && (info2.getFlags() & NO_LEFT_CHAINING) == 0
-                    && info2.getFrom().isAssignableFrom(info.getTo()) && !converterExistsSlow(info.getFrom(), info2.getTo())) {
-                    converters.add(createChainedConverter(info, info2));
-                } else if ((info.getFlags() & NO_LEFT_CHAINING) == 0 && (info2.getFlags() & NO_RIGHT_CHAINING) == 0
-                    && info.getFrom().isAssignableFrom(info2.getTo()) && !converterExistsSlow(info2.getFrom(), info.getTo())) {
-                    converters.add(createChainedConverter(info2, info));
-                }
-            }
+        var registered = new ArrayList<ConverterInfo<?, ?>>();
+        for (var info : converters) {
+            if (!chainedConverters.contains(info))
+                registered.add(info);
         }
+        var chains = new ConverterGraph(registered).createChains(converters);
+        converters.addAll(chains);
+        chainedConverters.addAll(chains);
+        clearCaches();
+    }
+
+    /*
+     * Which comparators can be used also depends on the converters
+     */
+    private static void clearCaches() {
+        convertersCache.clear();
+        Comparators.clearCache();
     }
 
     private static boolean converterExistsSlow(Class<?> from, Class<?> to) {
@@ -115,21 +124,6 @@ public abstract class Converters {
         return false;
     }
 
-    @SuppressWarnings({"unchecked", "MagicConstant"})
-    private static <F, M, T> ConverterInfo<F, T> createChainedConverter(ConverterInfo<?, ?> first, ConverterInfo<?, ?> second) {
-        var firstInf = (ConverterInfo<F, M>) first;
-        var secondInf = (ConverterInfo<M, T>) second;
-        return new ConverterInfo<>(
-                firstInf.getFrom(),
-                secondInf.getTo(),
-                ChainedConverter.newInstance(
-                        firstInf.getConverter(),
-                        secondInf.getConverter()
-                ),
-                first.getFlags() | second.getFlags()
-        );
-    }
-
     /**
 	 * Converts the given value to the desired type. If you want to convert multiple values of the same type you should use {@link #getConverter(Class, Class)} to get a
 	 * converter to convert the values.
@@ -211,7 +205,7 @@ public abstract class Converters {
         return l.toArray((T[]) Array.newInstance(superType, l.size()));
     }
 
-    private final static Map<Pair<Class<?>, Class<?>>, Function<?, ?>> convertersCache = new HashMap<>();
+    private final static ClassPairCache<Function<?, ?>> convertersCache = new ClassPairCache<>(Converters::getConverterInternal);
 
     /**
 	 * Tests whether a converter between the given classes exists.
@@ -246,16 +240,11 @@ public abstract class Converters {
 	 */
     @SuppressWarnings("unchecked")
     public static <F, T> Optional<? extends Function<? super F, Optional<? extends T>>> getConverter(Class<F> from, Class<T> to) {
-        var p = new Pair<Class<?>, Class<?>>(from, to);
-        if (convertersCache.containsKey(p)) // can contain null to denote nonexistence of a converter
-            return Optional.ofNullable((Function<? super F, Optional<? extends T>>) convertersCache.get(p));
-        var c = getConverterInternal(from, to);
-        c.ifPresent(con -> convertersCache.put(p, con));
-        return c;
+        return (Optional<? extends Function<? super F, Optional<? extends T>>>) (Optional<?>) convertersCache.get(from, to);
     }
 
     @SuppressWarnings("unchecked")
-    private static <F, T> Optional<Function<? super F, Optional<? extends T>>> getConverterInternal(Class<F> from, Class<T> to) {
+    private static <F, T> Optional<Function<?, ?>> getConverterInternal(Class<F> from, Class<T> to) {
     	for (var conv : converters) {
             if (conv.getFrom().isAssignableFrom(from) && to.isAssignableFrom(conv.getTo())) {
                 var inf = (ConverterInfo<F, T>) conv;
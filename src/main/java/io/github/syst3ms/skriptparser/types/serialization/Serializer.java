@@ -0,0 +1,31 @@
+package io.github.syst3ms.skriptparser.types.serialization;
+
+import io.github.syst3ms.skriptparser.registration.SkriptRegistration;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Converts values of a type to bytes and back, so that they can be stored, for example in global variables that
+ * outlive the program.
+ * @param <T> the type of the values
+ * @see SkriptRegistration.TypeRegistrar#serializer(Serializer)
+ */
+public interface Serializer<T> {
+    /**
+     * Writes a value
+     * @param value the value
+     * @param output where to write the value to
+     * @throws IOException if the value couldn't be written
+     */
+    void serialize(T value, DataOutput output) throws IOException;
+
+    /**
+     * Reads a value that was written by {@link #serialize(Object, DataOutput)}
+     * @param input where to read the value from
+     * @return the value
+     * @throws IOException if the value couldn't be read
+     */
+    T deserialize(DataInput input) throws IOException;
+}
@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package io.github.syst3ms.skriptparser.types.serialization;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -0,0 +1,59 @@
+package io.github.syst3ms.skriptparser.util;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * A thread-safe cache of values computed from a pair of classes, which also remembers the pairs no value exists for.
+ * The first class is looked up through a {@link ClassValue}, which is faster than any map, and the second one in a map
+ * belonging to the first class.
+ * @param <V> the type of the values
+ */
+public class ClassPairCache<V> {
+    private final BiFunction<Class<?>, Class<?>, Optional<V>> loader;
+    private volatile ClassValue<Map<Class<?>, Optional<V>>> values = newValues();
+
+    /**
+     * @param loader computes the value of a pair that isn't cached yet, or returns an empty {@link Optional} if there
+     *               is none
+     */
+    public ClassPairCache(BiFunction<Class<?>, Class<?>, Optional<V>> loader) {
+        this.loader = loader;
+    }
+
+    private static <V> ClassValue<Map<Class<?>, Optional<V>>> newValues() {
+        return new ClassValue<>() {
+            @Override
+            protected Map<Class<?>, Optional<V>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+    }
+
+    /**
+     * @param first the first class
+     * @param second the second class
+     * @return the value of the given pair, which is only computed the first time it is requested
+     */
+    public Optional<V> get(Class<?> first, Class<?> second) {
+        var byFirst = values.get(first);
+        var value = byFirst.get(second);
+        if (value == null) {
+            // Not computeIfAbsent, as the loader may very well use this cache itself
+            value = loader.apply(first, second);
+            var previous = byFirst.putIfAbsent(second, value);
+            if (previous != null)
+                value = previous;
+        }
+        return value;
+    }
+
+    /**
+     * Forgets all values, which must be done whenever they could have changed.
+     */
+    public void clear() {
+        values = newValues();
+    }
+}
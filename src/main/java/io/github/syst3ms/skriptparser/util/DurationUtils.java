@@ -2,6 +2,7 @@ package io.github.syst3ms.skriptparser.util;
 
 import java.time.Duration;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 public class DurationUtils {
     /**
@@ -15,9 +16,18 @@ public class DurationUtils {
      * about a certain time unit. Sadly, Java does not allow to create a
      * clean alternative for this.
      */
-    private static final String[] unitPatterns = {"days?", "hours?", "minutes?", "seconds?", "milli(second)?s?"};
+    private static final Pattern[] unitPatterns = {
+            Pattern.compile("days?"),
+            Pattern.compile("hours?"),
+            Pattern.compile("minutes?"),
+            Pattern.compile("seconds?"),
+            Pattern.compile("milli(second)?s?")
+    };
     private static final String[] unitNames = {"day", "hour", "minute", "second", "millisecond"};
     private static final int[] unitMillis = {86_400_000, 3_600_000, 60_000, 1000, 1};
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+    private static final Pattern ARTICLE_PATTERN = Pattern.compile("an?");
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("\\d+(\\.\\d+)?");
 
     public static Optional<Duration> parseDuration(String value) {
         if (value.isBlank())
@@ -25,7 +35,7 @@ public class DurationUtils {
 
         // Normal duration
         long duration = 0;
-        var split = value.toLowerCase().split("\\s+");
+        var split = WHITESPACE_PATTERN.split(value.toLowerCase());
         var usedUnits = new boolean[5]; // Defaults to false
 
         for (int i = 0; i < split.length; i++) {
@@ -38,14 +48,14 @@ public class DurationUtils {
                     return Optional.empty();
                 }
                 continue;
-            } else if (unit.matches("an?")) {
+            } else if (ARTICLE_PATTERN.matcher(unit).matches()) {
                 if (i == split.length - 1) {
                     // 'a' or 'an' at the end
                     return Optional.empty();
                 }
                 delta = 1;
                 unit = split[++i];
-            } else if (unit.matches("\\d+(\\.\\d+)?")) {
+            } else if (NUMBER_PATTERN.matcher(unit).matches()) {
                 if (i == split.length - 1) {
                     // a number at the end
                     return Optional.empty();
@@ -69,7 +79,7 @@ public class DurationUtils {
             int millis = -1;
             int iteration = 0;
             for (int j = 0; j < unitPatterns.length; j++) {
-                if (unit.matches(unitPatterns[j]) && !usedUnits[iteration]) {
+                if (unitPatterns[j].matcher(unit).matches() && !usedUnits[iteration]) {
                     millis = unitMillis[j];
 
                     for (int k = 0; k < iteration + 1; k++)
@@ -4,12 +4,13 @@ import io.github.syst3ms.skriptparser.registration.SyntaxInfo;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 
 /**
  * A simple list that is only meant to keep track of which syntaxes are used frequently, in order to preemptively check
@@ -17,6 +18,10 @@ import java.util.NoSuchElementException;
  *
  * To illustrate the behaviour of this class, imagine you use some syntax A 8 times, then use syntax B once. The very
  * next time the parser does the "recent syntaxes" check, it will check syntax A first, because it was used more than syntax B.
+ * Older uses weigh less than newer ones though : every time a syntax is acknowledged, all previous uses are multiplied by
+ * a decay factor, so that syntaxes that are no longer used eventually make room for new ones.
+ *
+ * Each thread has an ordering of its own, so that no locking is needed when multiple scripts are parsed at once.
  * @param <T> the type of {@link SyntaxInfo}
  */
 public class RecentElementList<T> implements Iterable<T> {
@@ -26,58 +31,63 @@ public class RecentElementList<T> implements Iterable<T> {
      * wants to use a syntax one hasn't used before, it would take a lot of time to actually match the pattern against
      * it, since there's all the previously used syntaxes to check beforehand.
      *
-     * Hence, the maximum number of recent elements is capped.
+     * Hence, the number of recent elements is capped.
+     */
+    public static final int DEFAULT_CAPACITY = 10;
+    /**
+     * By how much previous uses are multiplied each time a syntax is acknowledged.
      */
-    // Ideally this would be properly configurable. I'll let it be a constant for now.
-    public static final int MAX_LIST_SIZE = 10;
+    public static final double DEFAULT_DECAY = 0.95;
 
-    // Sorts entries by their value in decreasing order
-    private static final Comparator<Map.Entry<?, Integer>> ENTRY_COMPARATOR = (f, s) -> s.getValue() - f.getValue();
+    /*
+     * Rather than decaying every score on each acknowledgement, the weight of new uses grows instead. Scores are
+     * brought back down once that weight gets too large.
+     */
+    private static final double RESCALE_THRESHOLD = 1e100;
+    // Merged lists are cached by identity, so lists that are created on the fly shouldn't fill up the memory
+    private static final int MAX_CACHED_MERGES = 1024;
 
-    private final Map<T, Integer> backing = new HashMap<>();
-    private final List<T> occurrences = new ArrayList<>();
+    private final int capacity;
+    private final double growth;
+    private final ThreadLocal<Ordering> orderings = ThreadLocal.withInitial(Ordering::new);
 
-    public RecentElementList() {}
+    public RecentElementList() {
+        this(DEFAULT_CAPACITY, DEFAULT_DECAY);
+    }
+
+    /**
+     * @param capacity the maximum number of recent elements
+     * @param decay by how much previous uses are multiplied each time an element is acknowledged, between 0 (exclusive)
+     *              and 1 (inclusive)
+     */
+    public RecentElementList(int capacity, double decay) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("The capacity must not be negative");
+        if (decay <= 0 || decay > 1)
+            throw new IllegalArgumentException("The decay must be between 0 (exclusive) and 1 (inclusive)");
+        this.capacity = capacity;
+        this.growth = 1 / decay;
+    }
 
     /**
-     * Updates a given syntax's position inside of the frequency hierarchy. This is used to acknowledge that a given{@link SyntaxInfo}
+     * Updates a given syntax's position inside of the frequency hierarchy. This is used to acknowledge that a given {@link SyntaxInfo}
      * has been successfully parsed, and should as such be part of the "recent syntaxes" check.
      * @param element the element to update
      */
     public void acknowledge(T element) {
-        if (!occurrences.contains(element)) {
-            if (occurrences.size() >= MAX_LIST_SIZE)
-                return;
-            occurrences.add(element);
-            backing.put(element, 1);
-        } else {
-            for (var freq : backing.entrySet()) {
-                if (freq.getKey().equals(element))
-                    backing.put(freq.getKey(), freq.getValue() + 1);
-            }
-        }
+        orderings.get().acknowledge(element);
     }
 
     /**
-     * Merges the elements of this list and the elements of the other list into a new set.
-     * The elements of this list have priority over the other elements. There will be
-     * no duplicate elements in the returned collection.
+     * Reorders the elements of the other list so that the elements of this list come first.
+     * Elements of this list that are not part of the other list are left out, and there will be
+     * no duplicate elements in the returned collection. The other list is not modified, and
+     * must not be modified afterwards either, as the result is cached until this list's order changes.
      * @param other the other list
-     * @return a merged set with the elements of both lists
+     * @return a new list with the elements of the other list, recent elements first. Must not be modified.
      */
     public List<T> mergeWith(List<T> other) {
-        List<T> merged = new ArrayList<>(occurrences);
-        other.removeAll(occurrences);
-        merged.addAll(other);
-        return merged;
-    }
-
-    /**
-     * Removes the elements of this {@link RecentElementList} from another {@link List}, in-place.
-     * @param list the list to remove from
-     */
-    public void removeFrom(List<T> list) {
-        list.removeAll(occurrences);
+        return orderings.get().mergeWith(other);
     }
 
     /**
@@ -87,27 +97,106 @@ public class RecentElementList<T> implements Iterable<T> {
     @NotNull
     @Override
     public Iterator<T> iterator() {
-        var entries = new ArrayList<>(backing.entrySet());
-        entries.sort(ENTRY_COMPARATOR);
-        /*
-         * Anonymous class because usual Iterator implementations check for concurrent modification, which we don't really
-         * care about here. This shouldn't cause issues even if parallel parsing is implemented, because any reasonable
-         * implementation would not use one RecentElementList across multiple threads. At least I hope so...
-         */
-        return new Iterator<>() {
-            private int index = 0;
-
-            @Override
-            public boolean hasNext() {
-                return index < entries.size();
+        return orderings.get().getOrder().iterator();
+    }
+
+    private class Ordering {
+        // Sorted by decreasing score
+        private final List<Entry> elements = new ArrayList<>(capacity);
+        // Each element's score and position, so that it doesn't have to be looked for
+        private final Map<T, Entry> entries = new HashMap<>();
+        private final Map<List<T>, List<T>> merged = new IdentityHashMap<>();
+        private double weight = 1;
+        private List<T> order = Collections.emptyList();
+
+        private void acknowledge(T element) {
+            if (capacity == 0)
+                return;
+            weight *= growth;
+            if (weight > RESCALE_THRESHOLD) {
+                for (var entry : elements)
+                    entry.score /= weight;
+                weight = 1;
+            }
+            var entry = entries.get(element);
+            if (entry != null) {
+                entry.score += weight;
+            } else {
+                if (elements.size() >= capacity) {
+                    var last = elements.get(elements.size() - 1);
+                    if (last.score >= weight)
+                        return;
+                    elements.remove(elements.size() - 1);
+                    entries.remove(last.element);
+                }
+                entry = new Entry(element, weight, elements.size());
+                elements.add(entry);
+                entries.put(element, entry);
+                invalidate();
+            }
+            // Bubble the element up to its new position
+            while (entry.index > 0 && elements.get(entry.index - 1).score < entry.score) {
+                var previous = elements.get(entry.index - 1);
+                elements.set(entry.index, previous);
+                previous.index = entry.index;
+                entry.index--;
+                elements.set(entry.index, entry);
+                invalidate();
+            }
+        }
+
+        private void invalidate() {
+            order = null;
+            merged.clear();
+        }
+
+        private List<T> getOrder() {
+            if (order == null) {
+                List<T> list = new ArrayList<>(elements.size());
+                for (var entry : elements)
+                    list.add(entry.element);
+                order = Collections.unmodifiableList(list);
             }
+            return order;
+        }
 
-            @Override
-            public T next() {
-                if (!hasNext())
-                    throw new NoSuchElementException();
-                return entries.get(index++).getKey();
+        private List<T> mergeWith(List<T> other) {
+            var result = merged.get(other);
+            if (result != null)
+                return result;
+            var recent = getOrder();
+            List<T> list = new ArrayList<>(other.size());
+            if (!recent.isEmpty()) {
+                var contained = new HashSet<>(other);
+                for (var element : recent) {
+                    if (contained.contains(element))
+                        list.add(element);
+                }
+            }
+            for (var element : other) {
+                if (!entries.containsKey(element))
+                    list.add(element);
             }
-        };
+            result = Collections.unmodifiableList(list);
+            if (merged.size() >= MAX_CACHED_MERGES)
+                merged.clear();
+            merged.put(other, result);
+            return result;
+        }
+    }
+
+    /**
+     * A recent element, along with its score and its position in the ordering.
+     */
+    private class Entry {
+        private final T element;
+        private double score;
+        private int index;
+
+        private Entry(T element, double score, int index) {
+            this.element = element;
+            this.score = score;
+            this.index = index;
+        }
     }
 }
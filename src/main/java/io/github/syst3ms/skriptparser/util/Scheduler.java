@@ -0,0 +1,420 @@
+package io.github.syst3ms.skriptparser.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The scheduler all asynchronous and delayed code goes through.
+ * <br>
+ * A single timer thread keeps track of delays in a {@linkplain TimingWheel timing wheel}, and hands the code over to a
+ * bounded pool of workers once it is due. Delays are thus rounded up to the next {@linkplain DurationUtils#TICK tick},
+ * and all the code due in the same tick is handed over at once.
+ * Both kinds of threads only live as long as there is something to run or wait for, so that the program can end
+ * on its own once nothing is scheduled anymore. The workers may be {@linkplain #setVirtualThreads(boolean) configured}
+ * to be virtual threads instead, if the JVM supports it.
+ * <br>
+ * <br>
+ * When {@linkplain #setSuspendingWaits(boolean) enabled} and supported by the JVM, executions of triggers may also run
+ * on their own virtual thread, so that waiting only {@linkplain #sleep(Duration) suspends} it, instead of splitting the
+ * execution in two.
+ * <br>
+ * The scheduler is created on first use, and can be {@linkplain #shutdownNow() shut down}, in which case a new one
+ * is created the next time it is needed.
+ */
+public class Scheduler {
+    private static final long KEEP_ALIVE_SECONDS = 1;
+    private static final ThreadLocal<Boolean> suspendable = ThreadLocal.withInitial(() -> false);
+
+    private static int workerCount = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static boolean virtualThreads = false;
+    private static volatile boolean suspendingWaits = false;
+    @Nullable
+    private static volatile Scheduler instance;
+
+    private final TimingWheel timer;
+    private final ExecutorService workers;
+    // Tasks that are due but didn't start yet
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+    @Nullable
+    private ExecutorService continuations;
+    // Virtual threads don't keep the program alive on their own
+    private int activeContinuations = 0;
+    @Nullable
+    private Thread keepAlive;
+
+    private Scheduler(int workerCount, boolean virtualThreads) {
+        timer = new TimingWheel("Skript Timer", Duration.ofSeconds(KEEP_ALIVE_SECONDS));
+        var virtual = virtualThreads ? newVirtualThreadExecutor() : null;
+        if (virtual != null) {
+            workers = virtual;
+        } else {
+            var pool = new ThreadPoolExecutor(
+                    workerCount,
+                    workerCount,
+                    KEEP_ALIVE_SECONDS,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    threadFactory("Skript Worker")
+            );
+            pool.allowCoreThreadTimeOut(true);
+            workers = pool;
+        }
+    }
+
+    /**
+     * @return the current scheduler, which is created if there is none
+     */
+    public static Scheduler get() {
+        var scheduler = instance;
+        if (scheduler != null)
+            return scheduler;
+        synchronized (Scheduler.class) {
+            if (instance == null)
+                instance = new Scheduler(workerCount, virtualThreads);
+            return instance;
+        }
+    }
+
+    /**
+     * Sets the maximum amount of workers running code at the same time. The current scheduler, if any, isn't affected
+     * until it is {@linkplain #shutdownNow() shut down}.
+     * @param workers the amount of workers
+     */
+    public static synchronized void setWorkerCount(int workers) {
+        if (workers < 1)
+            throw new IllegalArgumentException("There must be at least one worker");
+        workerCount = workers;
+    }
+
+    /**
+     * Sets whether code should run on virtual threads instead, if the JVM supports them. The amount of workers is then
+     * unbounded. The current scheduler, if any, isn't affected until it is {@linkplain #shutdownNow() shut down}.
+     * @param enabled whether to use virtual threads
+     */
+    public static synchronized void setVirtualThreads(boolean enabled) {
+        virtualThreads = enabled;
+    }
+
+    /**
+     * Sets whether executions started through {@link #runSuspendable(Runnable)} and {@link #executeSuspendable(Runnable)}
+     * should run on their own virtual thread, which waiting suspends.
+     * @param enabled whether to enable it
+     * @throws UnsupportedOperationException if the JVM doesn't support virtual threads
+     */
+    public static void setSuspendingWaits(boolean enabled) {
+        if (enabled && !supportsVirtualThreads())
+            throw new UnsupportedOperationException("Virtual threads aren't supported by this JVM");
+        suspendingWaits = enabled;
+    }
+
+    public static boolean isSuspendingWaits() {
+        return suspendingWaits;
+    }
+
+    /**
+     * @return whether the current thread runs an execution that can be {@linkplain #sleep(Duration) suspended}
+     */
+    public static boolean canSuspend() {
+        return suspendable.get();
+    }
+
+    /**
+     * @return whether the JVM supports virtual threads, which is the case from Java 21 on
+     */
+    public static boolean supportsVirtualThreads() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Shuts the current scheduler down, if there is one: scheduled code is forgotten and running code is interrupted.
+     */
+    public static synchronized void shutdownNow() {
+        var scheduler = instance;
+        if (scheduler != null) {
+            scheduler.timer.stop();
+            scheduler.workers.shutdownNow();
+            synchronized (scheduler) {
+                if (scheduler.continuations != null)
+                    scheduler.continuations.shutdownNow();
+                if (scheduler.keepAlive != null)
+                    scheduler.keepAlive.interrupt();
+            }
+            instance = null;
+        }
+    }
+
+    /**
+     * Runs the given code as soon as a worker is available.
+     * @param code the code
+     */
+    public void execute(Runnable code) {
+        submit(code, System.nanoTime());
+    }
+
+    /**
+     * Runs the given code, such that it {@linkplain #canSuspend() can be suspended}, as soon as possible. If suspending
+     * waits is disabled, this is the same as {@link #execute(Runnable)}.
+     * @param code the code
+     */
+    public void executeSuspendable(Runnable code) {
+        if (suspendingWaits) {
+            continuationStarted();
+            try {
+                continuations().execute(() -> {
+                    suspendable.set(true);
+                    try {
+                        code.run();
+                    } finally {
+                        continuationEnded();
+                    }
+                });
+            } catch (RuntimeException e) {
+                continuationEnded();
+                throw e;
+            }
+        } else {
+            execute(code);
+        }
+    }
+
+    /**
+     * Runs the given code such that it {@linkplain #canSuspend() can be suspended}. If suspending waits is disabled,
+     * the code is simply run on the current thread.
+     * @param code the code
+     */
+    public void runSuspendable(Runnable code) {
+        if (suspendingWaits) {
+            executeSuspendable(code);
+        } else {
+            code.run();
+        }
+    }
+
+    /**
+     * Suspends the current thread for the given delay, rounded up to the next tick. Should only be called on threads
+     * that {@linkplain #canSuspend() can be suspended}, since it blocks otherwise.
+     * @param delay the delay
+     * @throws InterruptedException if the thread was interrupted, such as when this scheduler is shut down
+     */
+    public void sleep(Duration delay) throws InterruptedException {
+        if (delay.isNegative() || delay.isZero())
+            return;
+        var latch = new CountDownLatch(1);
+        var timeout = timer.schedule(latch::countDown, delay);
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            timeout.cancel();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the given code once after the given delay.
+     * @param code the code
+     * @param delay the delay
+     * @return the scheduled task
+     */
+    public Task schedule(Runnable code, Duration delay) {
+        var task = new Task();
+        var due = System.nanoTime() + delay.toNanos();
+        Runnable run = () -> {
+            if (!task.cancelled)
+                code.run();
+        };
+        if (delay.isNegative() || delay.isZero()) {
+            submit(run, due);
+        } else {
+            task.pending = timer.schedule(() -> submit(run, due), delay);
+        }
+        return task;
+    }
+
+    /**
+     * Runs the given code periodically, until the returned task is cancelled. Like
+     * {@link java.util.concurrent.ScheduledExecutorService#scheduleAtFixedRate(Runnable, long, long, TimeUnit)},
+     * executions never overlap: if one of them takes longer than the period, the next one starts late.
+     * If an execution fails, the code isn't run anymore.
+     * @param code the code
+     * @param initialDelay the delay before the first execution
+     * @param period the period between the start of two executions
+     * @return the scheduled task
+     */
+    public Task scheduleAtFixedRate(Runnable code, Duration initialDelay, Duration period) {
+        var task = new Task();
+        scheduleNext(task, code, System.nanoTime() + initialDelay.toNanos(), period.toNanos());
+        return task;
+    }
+
+    private void scheduleNext(Task task, Runnable code, long due, long period) {
+        if (task.cancelled)
+            return;
+        Runnable run = () -> {
+            if (task.cancelled)
+                return;
+            code.run();
+            scheduleNext(task, code, due + period, period);
+        };
+        var delay = due - System.nanoTime();
+        if (delay <= 0) {
+            submit(run, due);
+        } else {
+            synchronized (task) {
+                if (!task.cancelled)
+                    task.pending = timer.schedule(() -> submit(run, due), Duration.ofNanos(delay));
+            }
+        }
+    }
+
+    private void submit(Runnable code, long due) {
+        queued.incrementAndGet();
+        workers.execute(() -> {
+            queued.decrementAndGet();
+            var latency = Math.max(0, System.nanoTime() - due);
+            totalLatency.add(latency);
+            maxLatency.accumulateAndGet(latency, Math::max);
+            try {
+                code.run();
+            } finally {
+                completed.increment();
+            }
+        });
+    }
+
+    /**
+     * @return the amount of tasks that are due, but waiting for a worker to be available
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * @return the amount of executions running on their own virtual thread, whether they are suspended or not
+     */
+    public synchronized int getActiveContinuations() {
+        return activeContinuations;
+    }
+
+    /**
+     * @return the amount of tasks waiting for their delay to pass
+     */
+    public int getPendingTimers() {
+        return timer.size();
+    }
+
+    /**
+     * @return the amount of tasks that were run to completion, successfully or not
+     */
+    public long getCompletedTasks() {
+        return completed.sum();
+    }
+
+    /**
+     * @return the average time tasks waited between being due and actually starting
+     */
+    public Duration getAverageLatency() {
+        var count = completed.sum();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(totalLatency.sum() / count);
+    }
+
+    /**
+     * @return the longest time a task waited between being due and actually starting
+     */
+    public Duration getMaxLatency() {
+        return Duration.ofNanos(maxLatency.get());
+    }
+
+    private synchronized ExecutorService continuations() {
+        if (continuations == null) {
+            continuations = newVirtualThreadExecutor();
+            if (continuations == null)
+                throw new UnsupportedOperationException("Virtual threads aren't supported by this JVM");
+        }
+        return continuations;
+    }
+
+    private synchronized void continuationStarted() {
+        if (activeContinuations++ == 0 && keepAlive == null) {
+            keepAlive = new Thread(this::keepAlive, "Skript Keep-Alive");
+            keepAlive.start();
+        }
+    }
+
+    private synchronized void continuationEnded() {
+        if (--activeContinuations == 0)
+            notifyAll();
+    }
+
+    private synchronized void keepAlive() {
+        try {
+            while (activeContinuations > 0)
+                wait();
+        } catch (InterruptedException ignored) {
+        } finally {
+            keepAlive = null;
+        }
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        var count = new AtomicInteger();
+        return code -> new Thread(code, name + " #" + count.incrementAndGet());
+    }
+
+    /*
+     * Virtual threads are only available from Java 21 on
+     */
+    @Nullable
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            var method = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A handle on scheduled code, allowing it to be cancelled.
+     */
+    public static class Task {
+        private volatile boolean cancelled = false;
+        @Nullable
+        private volatile TimingWheel.Timeout pending;
+
+        private Task() {}
+
+        /**
+         * Prevents the code from running from now on. Does not interrupt it if it is currently running.
+         */
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+            }
+            var pending = this.pending;
+            if (pending != null)
+                pending.cancel();
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.syst3ms.skriptparser.util;
 
+import io.github.syst3ms.skriptparser.variables.VariableTracker;
 import org.jetbrains.annotations.Nullable;
 
 import java.text.SimpleDateFormat;
@@ -29,6 +30,7 @@ public class SkriptDate implements Comparable<SkriptDate> {
      * @return the date
      */
     public static SkriptDate now() {
+        VariableTracker.markVolatile();
         // System.currentTimeMillis() returns the date in the UTC time zone!
         return new SkriptDate(System.currentTimeMillis());
     }
@@ -4,38 +4,38 @@ import java.time.Duration;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
+/**
+ * Shortcuts to the shared {@link Scheduler}.
+ */
 public class ThreadUtils {
 
 	/**
-	 * Run certain code once on a separate thread. The thread is shut down after the code ran.
+	 * Run certain code once on a separate thread, which waiting may {@linkplain Scheduler#canSuspend() suspend}.
 	 * @param code the runnable that needs to be executed
 	 */
 	public static void runAsync(Runnable code) {
-		ExecutorService executor = Executors.newCachedThreadPool();
-		executor.submit(code);
-		executor.shutdown();
+		Scheduler.get().executeSuspendable(code);
 	}
 
 	/**
-	 * Run certain code once after a certain delay. The thread is shut down after the code ran.
+	 * Run certain code once after a certain delay.
 	 * @param code the runnable that needs to be executed
 	 * @param duration the delay
+	 * @return the scheduled task
 	 */
-	public static void runAfter(Runnable code, Duration duration) {
-		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
-		executor.schedule(code, duration.toMillis(), TimeUnit.MILLISECONDS);
-		executor.shutdown();
+	public static Scheduler.Task runAfter(Runnable code, Duration duration) {
+		return Scheduler.get().schedule(code, duration);
 	}
 
 	/**
 	 * Runs certain code periodically.
 	 * @param code the runnable that needs to be executed
 	 * @param duration the delay
+	 * @return the scheduled task
 	 */
-	public static void runPeriodically(Runnable code, Duration duration) {
-		runPeriodically(code, duration, duration);
+	public static Scheduler.Task runPeriodically(Runnable code, Duration duration) {
+		return runPeriodically(code, duration, duration);
 	}
 
 	/**
@@ -43,20 +43,21 @@ public class ThreadUtils {
 	 * @param code the runnable that needs to be executed
 	 * @param initialDelay the initial delay
 	 * @param duration the delay
+	 * @return the scheduled task
 	 */
-	public static void runPeriodically(Runnable code, Duration initialDelay, Duration duration) {
-		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
-		scheduler.scheduleAtFixedRate(code, initialDelay.toMillis(), duration.toMillis(), TimeUnit.MILLISECONDS);
+	public static Scheduler.Task runPeriodically(Runnable code, Duration initialDelay, Duration duration) {
+		return Scheduler.get().scheduleAtFixedRate(code, initialDelay, duration);
 	}
 
 	/**
 	 * Runs certain code periodically but with a final bound.
 	 * @param code the runnable that needs to be executed
 	 * @param duration the delay
-	 * @param maxTime the duration this thread will be opened in milliseconds
+	 * @param maxTime the duration after which the code stops running
+	 * @return the scheduled task
 	 */
-	public static void runPeriodicallyBounded(Runnable code, Duration duration, Duration maxTime) {
-		runPeriodicallyBounded(code, duration, duration, maxTime);
+	public static Scheduler.Task runPeriodicallyBounded(Runnable code, Duration duration, Duration maxTime) {
+		return runPeriodicallyBounded(code, duration, duration, maxTime);
 	}
 
 	/**
@@ -64,18 +65,21 @@ public class ThreadUtils {
 	 * @param code the runnable that needs to be executed
 	 * @param initialDelay the initial delay
 	 * @param duration the delay
-	 * @param maxTime the duration this thread will be opened in milliseconds
+	 * @param maxTime the duration after which the code stops running
+	 * @return the scheduled task
 	 */
-	public static void runPeriodicallyBounded(Runnable code, Duration initialDelay, Duration duration, Duration maxTime) {
-		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
-		scheduler.scheduleAtFixedRate(code, initialDelay.toMillis(), duration.toMillis(), TimeUnit.MILLISECONDS);
-		scheduler.schedule(scheduler::shutdownNow, maxTime.toMillis(), TimeUnit.MILLISECONDS);
+	public static Scheduler.Task runPeriodicallyBounded(Runnable code, Duration initialDelay, Duration duration, Duration maxTime) {
+		var task = Scheduler.get().scheduleAtFixedRate(code, initialDelay, duration);
+		Scheduler.get().schedule(task::cancel, maxTime);
+		return task;
 	}
 
 	/**
 	 * Builds a new thread using an {@link ExecutorService}, allowing various utility methods.
 	 * @return the created thread
+	 * @deprecated creates threads that aren't bounded by the {@link Scheduler}, use it instead
 	 */
+	@Deprecated
 	public static ExecutorService buildAsync() {
 		return Executors.newCachedThreadPool();
 	}
@@ -83,7 +87,9 @@ public class ThreadUtils {
 	/**
 	 * Builds a new thread using an {@link ScheduledExecutorService}, allowing various utility methods.
 	 * @return the created thread
+	 * @deprecated creates threads that aren't bounded by the {@link Scheduler}, use it instead
 	 */
+	@Deprecated
 	public static ScheduledExecutorService buildPeriodic() {
 		return Executors.newSingleThreadScheduledExecutor();
 	}
@@ -1,5 +1,7 @@
 package io.github.syst3ms.skriptparser.util;
 
+import io.github.syst3ms.skriptparser.variables.VariableTracker;
+
 import java.time.Duration;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
@@ -46,6 +48,7 @@ public class Time implements Comparable<Time> {
      * @return the current time
      */
     public static Time now() {
+        VariableTracker.markVolatile();
         return new Time(LocalTime.now());
     }
 
@@ -0,0 +1,292 @@
+package io.github.syst3ms.skriptparser.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hierarchical timing wheel, whose resolution is a {@linkplain DurationUtils#TICK tick}.
+ * <br>
+ * Each level of the wheel is an array of buckets, each bucket covering 64 times as many ticks as the level below it.
+ * Adding and cancelling a timeout is done in constant time, and every tick, all the timeouts of the current bucket of
+ * the lowest level fire at once. Whenever the lowest level wraps around, the timeouts of the matching bucket of the
+ * next level are spread over the level below, and so on.
+ * <br>
+ * The wheel is only ever touched by its own thread: timeouts that are added or cancelled from elsewhere are queued,
+ * and picked up at the next tick. The thread stops when there have been no timeouts for a while, and starts again
+ * with the next one.
+ */
+class TimingWheel {
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(DurationUtils.TICK);
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 5;
+
+    private static final int PENDING = 0, CANCELLED = 1, EXPIRED = 2;
+
+    @Nullable
+    private final String threadName;
+    private final long idleTicks;
+    private final int levels;
+    // The farthest deadline, relative to the current tick, the wheel can hold
+    private final long span;
+    private final long origin;
+    private final Timeout[][] buckets;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    // Only accessed by the thread of the wheel
+    private long currentTick;
+    @Nullable
+    private Thread thread;
+    private volatile boolean stopped = false;
+
+    TimingWheel(String threadName, Duration keepAlive) {
+        this(threadName, keepAlive, LEVELS);
+    }
+
+    /**
+     * A wheel without a thread of its own, whose time only passes when it is {@linkplain #advance(long) advanced}.
+     * @param levels the amount of levels of the wheel
+     */
+    TimingWheel(int levels) {
+        this(null, Duration.ZERO, levels);
+    }
+
+    private TimingWheel(@Nullable String threadName, Duration keepAlive, int levels) {
+        this.threadName = threadName;
+        this.idleTicks = Math.max(1, keepAlive.toNanos() / TICK_NANOS);
+        this.levels = levels;
+        this.span = (1L << (BITS * levels)) - 1;
+        this.buckets = new Timeout[levels][SLOTS];
+        this.origin = System.nanoTime();
+        this.currentTick = 0;
+    }
+
+    /**
+     * @param code the code to run once the delay is over, on the thread of the wheel
+     * @param delay the delay, rounded up to the next tick
+     * @return the timeout
+     */
+    Timeout schedule(Runnable code, Duration delay) {
+        if (stopped)
+            throw new IllegalStateException("The timing wheel was stopped");
+        var deadline = tickOf(now() + delay.toNanos() + TICK_NANOS - 1);
+        var timeout = new Timeout(this, code, deadline);
+        size.incrementAndGet();
+        added.add(timeout);
+        ensureRunning();
+        return timeout;
+    }
+
+    /**
+     * @return the amount of timeouts that are waiting to fire
+     */
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * Stops the wheel for good. Its timeouts never fire.
+     */
+    synchronized void stop() {
+        stopped = true;
+        if (thread != null)
+            thread.interrupt();
+    }
+
+    /**
+     * Moves a wheel without a thread of its own forward, firing the timeouts that are due on the current thread.
+     * @param ticks the amount of ticks
+     */
+    void advance(long ticks) {
+        if (threadName != null)
+            throw new IllegalStateException("The timing wheel moves forward on its own");
+        List<Timeout> due = new ArrayList<>();
+        for (var i = 0L; i < ticks; i++)
+            tick(due);
+    }
+
+    private long now() {
+        return threadName != null ? System.nanoTime() : origin + currentTick * TICK_NANOS;
+    }
+
+    private long tickOf(long nanos) {
+        return Math.floorDiv(nanos - origin, TICK_NANOS);
+    }
+
+    private synchronized void ensureRunning() {
+        if (thread == null && threadName != null && !stopped) {
+            thread = new Thread(this::run, threadName);
+            thread.start();
+        }
+    }
+
+    private void run() {
+        var idle = 0L;
+        // The wheel is empty whenever the thread starts, so it can jump straight to the present
+        currentTick = tickOf(System.nanoTime());
+        List<Timeout> due = new ArrayList<>();
+        while (!stopped) {
+            var wait = origin + (currentTick + 1) * TICK_NANOS - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            var now = tickOf(System.nanoTime());
+            while (currentTick < now && !stopped)
+                tick(due);
+            if (size.get() > 0) {
+                idle = 0;
+            } else if (++idle >= idleTicks) {
+                synchronized (this) {
+                    if (added.isEmpty()) {
+                        thread = null;
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private void tick(List<Timeout> due) {
+        currentTick++;
+        cascade();
+        processQueues(due);
+        collect((int) currentTick & MASK, due);
+        for (var timeout : due)
+            timeout.fire();
+        due.clear();
+    }
+
+    private void processQueues(List<Timeout> due) {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.level >= 0)
+                unlink(timeout);
+        }
+        while ((timeout = added.poll()) != null) {
+            if (timeout.state != PENDING)
+                continue;
+            if (timeout.deadline <= currentTick) {
+                due.add(timeout);
+            } else {
+                insert(timeout);
+            }
+        }
+    }
+
+    private void insert(Timeout timeout) {
+        var deadline = Math.min(timeout.deadline, currentTick + span);
+        var delta = deadline - currentTick;
+        var level = 0;
+        while (delta >= 1L << (BITS * (level + 1)))
+            level++;
+        var slot = (int) (deadline >>> (BITS * level)) & MASK;
+        timeout.level = level;
+        timeout.slot = slot;
+        timeout.previous = null;
+        timeout.next = buckets[level][slot];
+        if (timeout.next != null)
+            timeout.next.previous = timeout;
+        buckets[level][slot] = timeout;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            buckets[timeout.level][timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null)
+            timeout.next.previous = timeout.previous;
+        timeout.previous = timeout.next = null;
+        timeout.level = -1;
+    }
+
+    /*
+     * Spreads the timeouts of the higher levels whose bucket starts with the current tick
+     */
+    private void cascade() {
+        for (var level = 1; level < levels; level++) {
+            if ((currentTick & ((1L << (BITS * level)) - 1)) != 0)
+                return;
+            var slot = (int) (currentTick >>> (BITS * level)) & MASK;
+            var timeout = buckets[level][slot];
+            buckets[level][slot] = null;
+            while (timeout != null) {
+                var next = timeout.next;
+                insert(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    private void collect(int slot, List<Timeout> due) {
+        var timeout = buckets[0][slot];
+        buckets[0][slot] = null;
+        while (timeout != null) {
+            var next = timeout.next;
+            timeout.previous = timeout.next = null;
+            timeout.level = -1;
+            if (timeout.deadline <= currentTick) {
+                due.add(timeout);
+            } else {
+                insert(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * A handle on code waiting in the wheel.
+     */
+    static class Timeout {
+        private final TimingWheel wheel;
+        private final Runnable code;
+        private final long deadline;
+        private volatile int state = PENDING;
+        // Only accessed by the thread of the wheel
+        private int level = -1, slot;
+        @Nullable
+        private Timeout previous, next;
+
+        private Timeout(TimingWheel wheel, Runnable code, long deadline) {
+            this.wheel = wheel;
+            this.code = code;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Prevents the code from running, if it didn't already.
+         */
+        void cancel() {
+            if (transition(CANCELLED)) {
+                wheel.size.decrementAndGet();
+                wheel.cancelled.add(this);
+            }
+        }
+
+        private void fire() {
+            if (transition(EXPIRED)) {
+                wheel.size.decrementAndGet();
+                code.run();
+            }
+        }
+
+        private synchronized boolean transition(int newState) {
+            if (state != PENDING)
+                return false;
+            state = newState;
+            return true;
+        }
+    }
+}
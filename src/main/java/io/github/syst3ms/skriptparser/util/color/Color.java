@@ -135,7 +135,7 @@ public class Color {
      * @return a new Color instance
      */
     public static Optional<Color> ofLiteral(String literal) {
-        String actual = literal.replaceAll(" ", "_").toUpperCase();
+        String actual = literal.replace(' ', '_').toUpperCase();
         if (COLOR_CONSTANTS.containsKey(actual)) {
             return Optional.of(COLOR_CONSTANTS.get(actual));
         }
@@ -20,6 +20,19 @@ public class NumberMath {
     // All cached primes. Some prime numbers are cached by default.
     private static final ArrayList<Integer> cachedPrimes = new ArrayList<>(sieveOfEratosthenes(1000));
 
+    /**
+     * @param n a number
+     * @return whether the number is an integer that fits in a {@code long}, in which case computations on it can be done
+     * with primitive arithmetic rather than in arbitrary precision
+     */
+    public static boolean fitsInLong(Number n) {
+        if (n instanceof BigInteger) {
+            return ((BigInteger) n).bitLength() < Long.SIZE;
+        } else {
+            return n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte;
+        }
+    }
+
     public static Number abs(Number n) {
         if (n instanceof Long) {
             return Math.abs(n.longValue());
@@ -0,0 +1,178 @@
+package io.github.syst3ms.skriptparser.variables;
+
+import io.github.syst3ms.skriptparser.lang.TriggerContext;
+import io.github.syst3ms.skriptparser.parsing.ParserState;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+/**
+ * The local variables of a single execution, identified by its {@link TriggerContext}.
+ * <br>
+ * Local variables whose name is known at parse time and isn't part of a list are given a {@linkplain Slot slot} in the
+ * {@link Layout} of their trigger, through {@link ParserState#getLocalVariableSlot(String)}, and are stored in an array.
+ * The other ones, whose name is only known at runtime, are stored in a {@link VariableMap} owned by the frame.
+ * <br>
+ * A frame lives as long as its context does, unless it is {@linkplain Variables#freeLocalVariables(TriggerContext)
+ * freed} sooner.
+ */
+public class LocalVariables {
+    private static final Object[] EMPTY = new Object[0];
+    private static final Map<TriggerContext, LocalVariables> frames = Collections.synchronizedMap(new WeakHashMap<>());
+    // Executions very rarely jump from one context to another, so this saves most lookups
+    private static final ThreadLocal<LocalVariables> lastUsed = new ThreadLocal<>();
+
+    private final WeakReference<TriggerContext> context;
+    // The layout of the first trigger that used a slot of this frame
+    @Nullable
+    private Layout layout;
+    private Object[] values = EMPTY;
+    @Nullable
+    private VariableMap others;
+
+    private LocalVariables(TriggerContext context) {
+        this.context = new WeakReference<>(context);
+    }
+
+    @Nullable
+    static LocalVariables of(TriggerContext ctx, boolean create) {
+        var frame = lastUsed.get();
+        if (frame != null && frame.context.get() == ctx)
+            return frame;
+        synchronized (frames) {
+            frame = frames.get(ctx);
+            if (frame == null) {
+                if (!create)
+                    return null;
+                frame = new LocalVariables(ctx);
+                frames.put(ctx, frame);
+            }
+        }
+        lastUsed.set(frame);
+        return frame;
+    }
+
+    static void free(TriggerContext ctx) {
+        frames.remove(ctx);
+        var frame = lastUsed.get();
+        if (frame != null && frame.context.get() == ctx)
+            lastUsed.remove();
+    }
+
+    Optional<Object> get(String name) {
+        var index = layout != null ? layout.indexOf(name) : -1;
+        if (index != -1)
+            return Optional.ofNullable(index < values.length ? values[index] : null);
+        return others != null ? others.getVariable(name) : Optional.empty();
+    }
+
+    void set(String name, @Nullable Object value) {
+        var index = layout != null ? layout.indexOf(name) : -1;
+        if (index != -1) {
+            set(index, value);
+        } else if (others != null) {
+            others.setVariable(name, value);
+        } else if (value != null) {
+            others = new VariableMap();
+            others.setVariable(name, value);
+        }
+    }
+
+    Optional<Object> get(Slot slot) {
+        if (!bind(slot.layout))
+            return get(slot.name);
+        return Optional.ofNullable(slot.index < values.length ? values[slot.index] : null);
+    }
+
+    void set(Slot slot, @Nullable Object value) {
+        if (bind(slot.layout)) {
+            set(slot.index, value);
+        } else {
+            set(slot.name, value);
+        }
+    }
+
+    private void set(int index, @Nullable Object value) {
+        if (index >= values.length)
+            values = Arrays.copyOf(values, layout.size());
+        values[index] = value;
+    }
+
+    /*
+     * Makes the slots of the given layout index this frame, if no other layout does already
+     */
+    private boolean bind(Layout layout) {
+        if (this.layout == layout)
+            return true;
+        if (this.layout != null)
+            return false;
+        this.layout = layout;
+        values = new Object[layout.size()];
+        if (others != null) {
+            // Variables set before the trigger ran, such as the parameters of a function
+            for (var entry : layout.indices.entrySet()) {
+                var value = others.getVariable(entry.getKey()).orElse(null);
+                if (value != null) {
+                    values[entry.getValue()] = value;
+                    others.setVariable(entry.getKey(), null);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The slots of the local variables of a single trigger.
+     */
+    public static class Layout {
+        private final Map<String, Integer> indices = new HashMap<>();
+
+        /**
+         * @param name the name of a local variable, without the local variable token
+         * @return the slot of that variable, which is the same for every call with the same name
+         */
+        public Slot slotOf(String name) {
+            var index = indices.computeIfAbsent(name, __ -> indices.size());
+            return new Slot(this, index, name);
+        }
+
+        private int indexOf(String name) {
+            return indices.getOrDefault(name, -1);
+        }
+
+        /**
+         * @return the amount of slots in this layout
+         */
+        public int size() {
+            return indices.size();
+        }
+    }
+
+    /**
+     * The place of a local variable in the frames of its trigger.
+     */
+    public static class Slot {
+        private final Layout layout;
+        private final int index;
+        private final String name;
+
+        private Slot(Layout layout, int index, String name) {
+            this.layout = layout;
+            this.index = index;
+            this.name = name;
+        }
+
+        /**
+         * @return the name of the variable, without the local variable token
+         */
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,435 @@
+package io.github.syst3ms.skriptparser.variables;
+
+import io.github.syst3ms.skriptparser.types.Type;
+import io.github.syst3ms.skriptparser.types.TypeManager;
+import io.github.syst3ms.skriptparser.types.serialization.Serializer;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * The default {@link VariableStorage}, which keeps variables in files inside of a folder.
+ * <br>
+ * Changes are appended to a log by a background thread, in batches, so that saving a variable never blocks. Once the
+ * log has grown larger than the latest snapshot, all variables are written to a new snapshot and the log starts over.
+ * Loading reads the latest snapshot, which is memory-mapped, then replays the logs written since.
+ * <br>
+ * Every batch of the log is checksummed: a batch that was cut short by a crash is ignored, along with anything after
+ * it. Values are written using the {@link Serializer} of their {@link Type}; variables holding values whose type has
+ * none are not stored.
+ */
+public class LogVariableStorage implements VariableStorage {
+    private static final int LOG_MAGIC = 0x534b564c; // SKVL
+    private static final int SNAPSHOT_MAGIC = 0x534b5653; // SKVS
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final byte SET = 0, DELETE = 1, END = 2;
+    private static final int MAX_BATCH_SIZE = 4096;
+    private static final int MAX_NAME_LENGTH = 65535;
+    // Compacting smaller logs isn't worth it
+    private static final long MIN_COMPACTION_SIZE = 8 * 1024 * 1024;
+    private static final String LOG_PREFIX = "log-", SNAPSHOT_PREFIX = "snapshot-", EXTENSION = ".dat";
+
+    private static final Change CLEAR = new Change("", null);
+    private static final Change CLOSE = new Change("", null);
+
+    private final Path folder;
+    private final BlockingQueue<Change> changes = new LinkedBlockingQueue<>();
+    // Only accessed by the thread that loads the variables, then by the writer thread
+    private final Map<Class<?>, Optional<? extends Type<?>>> typesByClass = new HashMap<>();
+    private final Map<String, Optional<? extends Serializer<?>>> serializersByName = new HashMap<>();
+    private final Set<Object> warned = new HashSet<>();
+    private long generation;
+    @Nullable
+    private FileChannel log;
+    private long logSize;
+    private long snapshotSize;
+    @Nullable
+    private Thread writer;
+    private volatile boolean closed = false;
+
+    /**
+     * @param folder the folder the variables are stored in, which is created if needed
+     */
+    public LogVariableStorage(Path folder) {
+        this.folder = folder;
+    }
+
+    @Override
+    public void load(BiConsumer<String, @Nullable Object> loader) throws IOException {
+        if (writer != null)
+            throw new IllegalStateException("The variables were already loaded");
+        Files.createDirectories(folder);
+        var snapshots = generations(SNAPSHOT_PREFIX);
+        var logs = generations(LOG_PREFIX);
+        var snapshot = snapshots.isEmpty() ? 0 : snapshots.last();
+        if (!snapshots.isEmpty()) {
+            var file = file(SNAPSHOT_PREFIX, snapshot);
+            var buffer = map(file);
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != VERSION)
+                throw new IOException("Invalid variable snapshot: " + file);
+            readRecords(buffer, loader);
+            snapshotSize = Files.size(file);
+        }
+        for (var g : logs.tailSet(snapshot)) {
+            var file = file(LOG_PREFIX, g);
+            readLog(file, loader);
+            logSize += Files.size(file);
+        }
+        // Logs are never appended to once reopened, as they may end with an incomplete batch
+        generation = Math.max(snapshot, logs.isEmpty() ? 0 : logs.last()) + 1;
+        log = openLog(generation);
+        logSize += HEADER_SIZE;
+        writer = new Thread(this::write, "Skript variable storage");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void save(String name, @Nullable Object value) {
+        if (!closed)
+            changes.add(new Change(name, value));
+    }
+
+    @Override
+    public void clear() {
+        // Compacting right away makes sure no older variable is ever loaded again
+        if (!closed)
+            changes.add(CLEAR);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        var writer = this.writer;
+        if (writer == null)
+            return;
+        changes.add(CLOSE);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while saving variables", e);
+        }
+    }
+
+    private void write() {
+        List<Change> batch = new ArrayList<>();
+        var buffer = new Buffer();
+        var output = new DataOutputStream(buffer);
+        var value = new Buffer();
+        while (true) {
+            try {
+                batch.add(changes.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            changes.drainTo(batch, MAX_BATCH_SIZE - 1);
+            var compact = false;
+            var stop = false;
+            try {
+                buffer.reset();
+                for (var change : batch) {
+                    if (change == CLEAR) {
+                        compact = true;
+                    } else if (change == CLOSE) {
+                        stop = true;
+                    } else {
+                        writeRecord(change.name, change.value, output, value);
+                    }
+                }
+                if (buffer.size() > 0)
+                    writeBatch(buffer);
+                if (stop) {
+                    if (logSize > HEADER_SIZE)
+                        compact();
+                    assert log != null;
+                    log.close();
+                    return;
+                }
+                if (compact || logSize > Math.max(MIN_COMPACTION_SIZE, snapshotSize))
+                    compact();
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("Couldn't save variables:");
+                e.printStackTrace();
+                if (stop)
+                    return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(Buffer batch) throws IOException {
+        assert log != null;
+        var crc = new CRC32();
+        crc.update(batch.wrap());
+        var header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(batch.size())
+                .putInt((int) crc.getValue())
+                .flip();
+        var buffers = new ByteBuffer[] {header, batch.wrap()};
+        while (buffers[1].hasRemaining())
+            log.write(buffers);
+        log.force(false);
+        logSize += HEADER_SIZE + batch.size();
+    }
+
+    /*
+     * Starts a new log, then writes all current variables to a snapshot. Variables that change while the snapshot is
+     * being written are also in the new log, which is replayed on top of the snapshot.
+     */
+    private void compact() throws IOException {
+        assert log != null;
+        var next = generation + 1;
+        var nextLog = openLog(next);
+        log.close();
+        log = nextLog;
+        generation = next;
+        logSize = HEADER_SIZE;
+
+        var temporary = folder.resolve(SNAPSHOT_PREFIX + next + ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            var output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            var value = new Buffer();
+            output.writeInt(SNAPSHOT_MAGIC);
+            output.writeInt(VERSION);
+            Variables.forEachGlobalVariable((name, v) -> {
+                try {
+                    writeRecord(name, v, output, value);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            output.writeByte(END);
+            output.flush();
+            channel.force(true);
+        }
+        var snapshot = file(SNAPSHOT_PREFIX, next);
+        Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        snapshotSize = Files.size(snapshot);
+        for (var prefix : new String[] {SNAPSHOT_PREFIX, LOG_PREFIX}) {
+            for (var old : generations(prefix).headSet(next)) {
+                try {
+                    Files.deleteIfExists(file(prefix, old));
+                } catch (IOException ignored) {
+                    // It will be deleted by the next compaction
+                }
+            }
+        }
+    }
+
+    private void writeRecord(String name, @Nullable Object value, DataOutputStream output, Buffer valueBuffer) throws IOException {
+        if (name.length() > MAX_NAME_LENGTH / 3 && encodedLength(name) > MAX_NAME_LENGTH) {
+            warn(name, "Couldn't save variable '" + name.substring(0, 50) + "...': its name is too long");
+            return;
+        }
+        if (value != null) {
+            var type = typesByClass.computeIfAbsent(value.getClass(), c -> TypeManager.getByClass(c)
+                    .filter(t -> t.getSerializer().isPresent()));
+            if (type.isPresent()) {
+                valueBuffer.reset();
+                try {
+                    serialize(type.get(), value, new DataOutputStream(valueBuffer));
+                    output.writeByte(SET);
+                    output.writeUTF(name);
+                    output.writeUTF(type.get().getBaseName());
+                    output.writeInt(valueBuffer.size());
+                    valueBuffer.writeTo(output);
+                    return;
+                } catch (IOException | RuntimeException e) {
+                    warn(value.getClass(), "Couldn't save variable '" + name + "': " + e);
+                }
+            } else {
+                warn(value.getClass(), "Variables holding values of class " + value.getClass().getName() + " can't be saved");
+            }
+        }
+        // A value that can't be saved shouldn't be replaced by an older one when loading
+        output.writeByte(DELETE);
+        output.writeUTF(name);
+    }
+
+    /*
+     * The length of the name once written with writeUTF
+     */
+    private static int encodedLength(String name) {
+        var length = 0;
+        for (var i = 0; i < name.length(); i++) {
+            var c = name.charAt(i);
+            length += c != 0 && c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        }
+        return length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void serialize(Type<T> type, Object value, DataOutputStream output) throws IOException {
+        type.getSerializer().orElseThrow().serialize((T) value, output);
+    }
+
+    private void readLog(Path file, BiConsumer<String, @Nullable Object> loader) throws IOException {
+        var buffer = map(file);
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != LOG_MAGIC || buffer.getInt() != VERSION)
+            return;
+        var crc = new CRC32();
+        while (buffer.remaining() >= HEADER_SIZE) {
+            var size = buffer.getInt();
+            var checksum = buffer.getInt();
+            if (size < 0 || size > buffer.remaining())
+                break;
+            var batch = buffer.slice(buffer.position(), size);
+            crc.reset();
+            crc.update(batch.duplicate());
+            if ((int) crc.getValue() != checksum)
+                break;
+            readRecords(batch, loader);
+            buffer.position(buffer.position() + size);
+        }
+    }
+
+    private void readRecords(ByteBuffer buffer, BiConsumer<String, @Nullable Object> loader) throws IOException {
+        var input = new DataInputStream(new BufferInput(buffer));
+        while (buffer.hasRemaining()) {
+            var kind = input.readByte();
+            if (kind == END)
+                return;
+            var name = input.readUTF();
+            if (kind == DELETE) {
+                loader.accept(name, null);
+                continue;
+            }
+            var typeName = input.readUTF();
+            var size = input.readInt();
+            var payload = buffer.slice(buffer.position(), size);
+            buffer.position(buffer.position() + size);
+            var serializer = serializersByName.computeIfAbsent(typeName, n -> TypeManager.getByExactName(n)
+                    .flatMap(Type::getSerializer));
+            if (serializer.isEmpty()) {
+                warn(typeName, "Variables of the unknown type '" + typeName + "' couldn't be loaded");
+                continue;
+            }
+            try {
+                loader.accept(name, serializer.get().deserialize(new DataInputStream(new BufferInput(payload))));
+            } catch (IOException | RuntimeException e) {
+                warn(name, "Couldn't load variable '" + name + "': " + e);
+            }
+        }
+    }
+
+    private void warn(Object key, String message) {
+        if (warned.add(key))
+            System.err.println(message);
+    }
+
+    private FileChannel openLog(long generation) throws IOException {
+        var channel = FileChannel.open(file(LOG_PREFIX, generation), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        var header = ByteBuffer.allocate(HEADER_SIZE).putInt(LOG_MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining())
+            channel.write(header);
+        return channel;
+    }
+
+    private Path file(String prefix, long generation) {
+        return folder.resolve(prefix + generation + EXTENSION);
+    }
+
+    private TreeSet<Long> generations(String prefix) throws IOException {
+        var generations = new TreeSet<Long>();
+        try (var files = Files.list(folder)) {
+            for (var file : (Iterable<Path>) files::iterator) {
+                var name = file.getFileName().toString();
+                if (!name.startsWith(prefix) || !name.endsWith(EXTENSION))
+                    continue;
+                try {
+                    generations.add(Long.parseLong(name.substring(prefix.length(), name.length() - EXTENSION.length())));
+                } catch (NumberFormatException ignored) {}
+            }
+        }
+        return generations;
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Variable file too large: " + file);
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static class Change {
+        private final String name;
+        @Nullable
+        private final Object value;
+
+        private Change(String name, @Nullable Object value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    /**
+     * A {@link ByteArrayOutputStream} whose contents can be read without being copied.
+     */
+    private static class Buffer extends ByteArrayOutputStream {
+        private Buffer() {
+            super(1 << 12);
+        }
+
+        private ByteBuffer wrap() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    /**
+     * Reads a {@link ByteBuffer}, such as a memory-mapped file.
+     */
+    private static class BufferInput extends InputStream {
+        private final ByteBuffer buffer;
+
+        private BufferInput(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0)
+                return 0;
+            if (!buffer.hasRemaining())
+                return -1;
+            length = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, length);
+            return length;
+        }
+    }
+}
@@ -2,24 +2,66 @@ package io.github.syst3ms.skriptparser.variables;
 
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.TreeMap;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
 
+/**
+ * A store of variables, organized as a tree whose nodes are the parts of the variable names, separated by
+ * {@link Variables#LIST_SEPARATOR}.
+ * <br>
+ * The elements of each list are kept sorted: numerical indices come first, by increasing value, followed by all other
+ * indices in natural order. Reading a whole list returns a read-only view of it rather than a copy.
+ * <br>
+ * Reads never lock. Writes to variables whose names start the same way lock the same stripe, so that they can't undo
+ * each other, while writes to unrelated variables can happen concurrently.
+ */
 class VariableMap {
     /**
-     * If all indexes are numerical, they should be ordered likewise. If not, natural order should take place.
+     * Orders numerical indices by value, before all other indices.
      */
-    private static final Comparator<String> NUMERIC_INDEX_COMPARATOR = Comparator.comparingInt(Integer::parseInt);
+    private static final Comparator<String> INDEX_COMPARATOR = (first, second) -> {
+        var firstNumerical = isNumerical(first);
+        var secondNumerical = isNumerical(second);
+        if (firstNumerical != secondNumerical)
+            return firstNumerical ? -1 : 1;
+        if (firstNumerical && first.length() != second.length())
+            return Integer.compare(first.length(), second.length());
+        return first.compareTo(second);
+    };
+    private static final int STRIPES = 32;
 
-    private final Map<String, Object> map = new HashMap<>(); // Ordering is not important right now
+    // Top-level variables are never listed, so they don't need to be sorted
+    private final Node root = new Node(new ConcurrentHashMap<>());
+    private final Object[] locks = new Object[STRIPES];
+    // Told about every change while its stripe is still locked, so that it sees changes in the order they were made
+    @Nullable
+    private volatile BiConsumer<String, Object> listener;
 
-    private static String[] splitList(String name) {
-        return Pattern.compile(Pattern.quote(Variables.LIST_SEPARATOR)).split(name);
+    {
+        for (var i = 0; i < STRIPES; i++)
+            locks[i] = new Object();
+    }
+
+    private static boolean isNumerical(String index) {
+        if (index.isEmpty() || index.charAt(0) == '0')
+            return false;
+        for (var i = 0; i < index.length(); i++) {
+            var c = index.charAt(i);
+            if (c < '0' || c > '9')
+                return false;
+        }
+        return true;
     }
 
     /**
@@ -30,39 +72,15 @@ class VariableMap {
      * @param name name of the variable
      * @return an Object for a normal Variable or a Map<String, Object> for a list variable, or null if the variable is not set.
      */
-    @SuppressWarnings("unchecked")
     public Optional<Object> getVariable(String name) {
         if (!name.endsWith("*")) {
-            return Optional.ofNullable(map.get(name));
-        } else {
-            var split = splitList(name);
-            var current = map;
-            for (var i = 0; i < split.length; i++) {
-                var n = split[i];
-                if (n.equals("*")) {
-                    assert i == split.length - 1;
-
-                    // We sort the indexes as best as we can
-                    boolean numerical = current.keySet().stream()
-                            .allMatch(val -> val.matches("[1-9][0-9]*"));
-                    var treeMap = new TreeMap<>(numerical ? NUMERIC_INDEX_COMPARATOR : Comparator.<String>naturalOrder());
-                    treeMap.putAll(current);
-
-                    return Optional.of(treeMap);
-                }
-                var o = current.get(n);
-                if (o == null) {
-                    return Optional.empty();
-                }
-                if (o instanceof Map) {
-                    current = (Map<String, Object>) o;
-                    assert i != split.length - 1;
-                } else {
-                    return Optional.empty();
-                }
-            }
-            return Optional.empty();
+            var node = find(name);
+            return node == null ? Optional.empty() : Optional.ofNullable(node.value);
         }
+        var node = find(listName(name));
+        if (node == null || node.isLeaf())
+            return Optional.empty();
+        return Optional.of(new ListView(node));
     }
 
     /**
@@ -71,71 +89,85 @@ class VariableMap {
 	 * @param name  The variable's name. Can be a "list variable::*" (<tt>value</tt> must be <tt>null</tt> in this case)
 	 * @param value The variable's value. Use <tt>null</tt> to delete the variable.
 	 */
-    @SuppressWarnings("unchecked")
     public void setVariable(String name, @Nullable Object value) {
-        if (!name.endsWith("*")) {
-            if (value == null) {
-                map.remove(name);
-            } else {
-                map.put(name, value);
-            }
-        }
-        var split = splitList(name);
-        var parent = map;
-        for (var i = 0; i < split.length; i++) {
-            var n = split[i];
-            var current = parent.get(n);
-            if (current == null) {
-                if (i == split.length - 1) {
-                    if (value != null) {
-                        parent.put(n, value);
-                    }
-                    break;
-                } else if (value != null) {
-                    parent.put(n, current = new HashMap<>());
-                    parent = (Map<String, Object>) current;
-                } else {
-                    break;
-                }
-            } else if (current instanceof Map) {
-                if (i == split.length - 1) {
-                    if (value == null) {
-                        ((Map<String, Object>) current).remove(null);
-                    } else {
-                        ((Map<String, Object>) current).put(null, value);
-                    }
-                    break;
-                } else if (i == split.length - 2 && split[i + 1].equals("*")) {
-                    assert value == null;
-                    deleteFromHashMap(String
-                        .join(Variables.LIST_SEPARATOR, Arrays.copyOfRange(split, 0, i + 1)), (Map<String, Object>) current);
-                    var v = ((Map<String, Object>) current).get(null);
-                    if (v == null) {
-                        parent.remove(n);
-                    } else {
-                        parent.put(n, v);
-                    }
-                    break;
-                } else {
-                    parent = (Map<String, Object>) current;
+        var list = name.endsWith(Variables.LIST_SEPARATOR + "*");
+        if (list && value != null)
+            return;
+        synchronized (lockFor(name)) {
+            if (value != null) {
+                var node = root;
+                var start = 0;
+                while (start >= 0) {
+                    var end = name.indexOf(Variables.LIST_SEPARATOR, start);
+                    var part = end == -1 ? name.substring(start) : name.substring(start, end);
+                    node = node.getOrCreateChild(part);
+                    start = end == -1 ? -1 : end + Variables.LIST_SEPARATOR.length();
                 }
+                node.value = value;
+                changed(name, value);
+                return;
+            }
+            // Remember the path, so that nodes left empty can be removed afterwards
+            var path = new ArrayList<Node>();
+            var parts = new ArrayList<String>();
+            var node = root;
+            var target = list ? listName(name) : name;
+            var start = 0;
+            while (start >= 0) {
+                var end = target.indexOf(Variables.LIST_SEPARATOR, start);
+                var part = end == -1 ? target.substring(start) : target.substring(start, end);
+                path.add(node);
+                parts.add(part);
+                node = node.getChild(part);
+                if (node == null)
+                    return;
+                start = end == -1 ? -1 : end + Variables.LIST_SEPARATOR.length();
+            }
+            if (list) {
+                node.children = null;
             } else {
-                if (i == split.length - 1) {
-                    if (value == null) {
-                        parent.remove(n);
-                    } else {
-                        parent.put(n, value);
-                    }
-                    break;
-                } else if (value != null) {
-                    Map<String, Object> c = new HashMap<>();
-                    c.put(null, current);
-                    parent.put(n, c);
-                    parent = c;
-                } else {
-                    break;
-                }
+                node.value = null;
             }
+            for (var i = path.size() - 1; i >= 0 && node.isEmpty(); i--) {
+                path.get(i).children.remove(parts.get(i));
+                node = path.get(i);
+            }
+            changed(name, null);
+        }
+    }
+
+    private void changed(String name, @Nullable Object value) {
+        var listener = this.listener;
+        if (listener != null)
+            listener.accept(name, value);
+    }
+
+    /**
+     * @param listener the code that is told about every change made to this map from now on
+     */
+    void setListener(@Nullable BiConsumer<String, Object> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Goes through all variables of this map that have a value, lists being visited in order.
+     * @param action the code to run for the name and value of each variable
+     */
+    void forEach(BiConsumer<String, Object> action) {
+        forEach(root, null, action);
+    }
+
+    private static void forEach(Node node, @Nullable String prefix, BiConsumer<String, Object> action) {
+        var children = node.children;
+        if (children == null)
+            return;
+        for (var entry : children.entrySet()) {
+            var name = prefix == null ? entry.getKey() : prefix + Variables.LIST_SEPARATOR + entry.getKey();
+            var child = entry.getValue();
+            var value = child.value;
+            if (value != null)
+                action.accept(name, value);
+            forEach(child, name, action);
         }
     }
 
@@ -143,20 +175,146 @@ class VariableMap {
      * Clears all variables
      */
     public void clearVariables() {
-        map.clear();
+        root.children.clear();
     }
 
-    @SuppressWarnings("unchecked")
-    private void deleteFromHashMap(String parent, Map<String, Object> current) {
-        for (var e : current.entrySet()) {
-            if (e.getKey() == null) {
-                continue;
-            }
-            map.remove(parent + Variables.LIST_SEPARATOR + e.getKey());
-            var val = e.getValue();
-            if (val instanceof Map) {
-                deleteFromHashMap(parent + Variables.LIST_SEPARATOR + e.getKey(), (Map<String, Object>) val);
-            }
+    private static String listName(String name) {
+        return name.substring(0, Math.max(0, name.length() - Variables.LIST_SEPARATOR.length() - 1));
+    }
+
+    private Object lockFor(String name) {
+        var end = name.indexOf(Variables.LIST_SEPARATOR);
+        var top = end == -1 ? name : name.substring(0, end);
+        return locks[(top.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    @Nullable
+    private Node find(String name) {
+        var node = root;
+        var start = 0;
+        while (node != null && start >= 0) {
+            var end = name.indexOf(Variables.LIST_SEPARATOR, start);
+            node = node.getChild(end == -1 ? name.substring(start) : name.substring(start, end));
+            start = end == -1 ? -1 : end + Variables.LIST_SEPARATOR.length();
+        }
+        return node;
+    }
+
+    private static class Node {
+        @Nullable
+        private volatile Object value;
+        // Only created once the node has children, which most nodes never have
+        @Nullable
+        private volatile Map<String, Node> children;
+
+        private Node(@Nullable Map<String, Node> children) {
+            this.children = children;
+        }
+
+        @Nullable
+        private Node getChild(String part) {
+            var children = this.children;
+            return children != null ? children.get(part) : null;
+        }
+
+        /*
+         * Only called while holding the lock of the stripe of the node
+         */
+        private Node getOrCreateChild(String part) {
+            var children = this.children;
+            if (children == null)
+                this.children = children = new ConcurrentSkipListMap<>(INDEX_COMPARATOR);
+            return children.computeIfAbsent(part, __ -> new Node(null));
+        }
+
+        private boolean isLeaf() {
+            var children = this.children;
+            return children == null || children.isEmpty();
+        }
+
+        private boolean isEmpty() {
+            return value == null && isLeaf();
+        }
+
+        /*
+         * How the node appears inside of a list: a list itself if it has elements, its value otherwise
+         */
+        @Nullable
+        private Object expose() {
+            return isLeaf() ? value : new ListView(this);
+        }
+    }
+
+    /**
+     * A read-only view of the elements of a list. Elements that are lists themselves are views as well, whose own
+     * value, if any, is mapped to the {@code null} key.
+     */
+    private static class ListView extends AbstractMap<String, Object> {
+        private final Node node;
+
+        private ListView(Node node) {
+            this.node = node;
+        }
+
+        @Nullable
+        @Override
+        public Object get(@Nullable Object key) {
+            if (key == null)
+                return node.value;
+            if (!(key instanceof String))
+                return null;
+            var child = node.getChild((String) key);
+            return child != null ? child.expose() : null;
+        }
+
+        @Override
+        public boolean containsKey(@Nullable Object key) {
+            return key != null && get(key) != null;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    var children = node.children;
+                    if (children == null)
+                        return Collections.emptyIterator();
+                    var entries = children.entrySet().iterator();
+                    return new Iterator<>() {
+                        @Nullable
+                        private Entry<String, Object> next;
+
+                        @Override
+                        public boolean hasNext() {
+                            while (next == null && entries.hasNext()) {
+                                var entry = entries.next();
+                                var value = entry.getValue().expose();
+                                if (value != null)
+                                    next = new SimpleImmutableEntry<>(entry.getKey(), value);
+                            }
+                            return next != null;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext())
+                                throw new NoSuchElementException();
+                            var entry = next;
+                            next = null;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    var size = 0;
+                    for (var iterator = iterator(); iterator.hasNext(); iterator.next())
+                        size++;
+                    return size;
+                }
+            };
         }
     }
 }
@@ -0,0 +1,39 @@
+package io.github.syst3ms.skriptparser.variables;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.function.BiConsumer;
+
+/**
+ * A place where global variables are kept, so that they survive restarts.
+ * @see Variables#setStorage(VariableStorage)
+ * @see LogVariableStorage
+ */
+public interface VariableStorage {
+    /**
+     * Loads all stored variables. This is called once, before any variable is saved.
+     * @param loader receives the name and value of every variable, in the order they should be set in. A {@code null}
+     *               value means the variable, which may be a whole list, was deleted.
+     * @throws IOException if the variables couldn't be read
+     */
+    void load(BiConsumer<String, @Nullable Object> loader) throws IOException;
+
+    /**
+     * Records a change to a variable. This is called on the thread that made the change, so it must not block.
+     * @param name the name of the variable, which may end with {@code ::*} if a whole list was deleted
+     * @param value the new value of the variable, or {@code null} if it was deleted
+     */
+    void save(String name, @Nullable Object value);
+
+    /**
+     * Records that all variables were deleted.
+     */
+    void clear();
+
+    /**
+     * Saves all pending changes and releases the storage.
+     * @throws IOException if the pending changes couldn't be saved
+     */
+    void close() throws IOException;
+}
@@ -0,0 +1,198 @@
+package io.github.syst3ms.skriptparser.variables;
+
+import io.github.syst3ms.skriptparser.lang.TriggerContext;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records which global variables are read while running some code, and notifies whoever is interested once one of
+ * them is written to. This allows re-evaluating something only when what it depends on changed, instead of polling it.
+ * <br>
+ * Only variables are tracked: code whose result may change on its own, such as the current date or random numbers,
+ * must {@linkplain #markVolatile() say so}, in which case it should still be polled.
+ */
+public class VariableTracker {
+    private static final ThreadLocal<Recording> current = new ThreadLocal<>();
+    private static final Map<String, Set<Watch>> watches = new ConcurrentHashMap<>();
+    // Incremented on every write to a global variable
+    private static final AtomicLong version = new AtomicLong();
+
+    private VariableTracker() {}
+
+    /**
+     * Runs the given code, recording what it reads.
+     * @param ctx the context the code runs with. Reading one of its local variables makes the recording volatile.
+     * @param code the code
+     * @return the recording
+     */
+    public static Recording record(TriggerContext ctx, Runnable code) {
+        var recording = new Recording(ctx, version.get());
+        var previous = current.get();
+        current.set(recording);
+        try {
+            code.run();
+        } finally {
+            current.set(previous);
+        }
+        if (previous != null) {
+            previous.names.addAll(recording.names);
+            previous.isVolatile |= recording.isVolatile;
+        }
+        return recording;
+    }
+
+    /**
+     * Signals that the value being computed may change without any variable being written to. Does nothing if nothing is
+     * being recorded.
+     */
+    public static void markVolatile() {
+        var recording = current.get();
+        if (recording != null)
+            recording.isVolatile = true;
+    }
+
+    static void read(String name, @Nullable TriggerContext ctx, boolean local) {
+        var recording = current.get();
+        if (recording == null)
+            return;
+        if (!local) {
+            recording.names.add(name);
+        } else if (ctx == recording.ctx) {
+            // The local variables of that context may be written to by the trigger itself
+            recording.isVolatile = true;
+        }
+    }
+
+    static void written(String name) {
+        version.incrementAndGet();
+        if (watches.isEmpty())
+            return;
+        notify(name);
+        var list = name;
+        var separator = list.lastIndexOf(Variables.LIST_SEPARATOR);
+        while (separator > 0) {
+            // The lists containing the variable changed as well
+            list = list.substring(0, separator);
+            notify(list + Variables.LIST_SEPARATOR + "*");
+            separator = list.lastIndexOf(Variables.LIST_SEPARATOR);
+        }
+        if (name.endsWith(Variables.LIST_SEPARATOR + "*")) {
+            // A whole list was deleted
+            var prefix = name.substring(0, name.length() - 1);
+            for (var watched : watches.keySet()) {
+                if (watched.startsWith(prefix))
+                    notify(watched);
+            }
+        }
+    }
+
+    static void cleared() {
+        version.incrementAndGet();
+        for (var watched : watches.keySet())
+            notify(watched);
+    }
+
+    private static void notify(String name) {
+        var watching = watches.get(name);
+        if (watching != null) {
+            for (var watch : watching)
+                watch.fire();
+        }
+    }
+
+    /**
+     * Runs the given code once one of the recorded variables is written to. If one of them may already have been
+     * written to since the recording started, the code is run right away.
+     * @param recording the recording
+     * @param onChange the code to run, at most once
+     * @return the watch, which may be cancelled
+     */
+    public static Watch watch(Recording recording, Runnable onChange) {
+        var watch = new Watch(recording.names, onChange);
+        for (var name : recording.names) {
+            watches.compute(name, (__, watching) -> {
+                if (watching == null)
+                    watching = ConcurrentHashMap.newKeySet();
+                watching.add(watch);
+                return watching;
+            });
+        }
+        if (version.get() != recording.version)
+            watch.fire();
+        return watch;
+    }
+
+    /**
+     * What was read while running some code.
+     */
+    public static class Recording {
+        @Nullable
+        private final TriggerContext ctx;
+        private final long version;
+        private final Set<String> names = new HashSet<>();
+        private boolean isVolatile = false;
+
+        private Recording(@Nullable TriggerContext ctx, long version) {
+            this.ctx = ctx;
+            this.version = version;
+        }
+
+        /**
+         * @return the names of the global variables that were read
+         */
+        public Set<String> getNames() {
+            return names;
+        }
+
+        /**
+         * @return whether the result of the code may change without any variable being written to
+         */
+        public boolean isVolatile() {
+            return isVolatile;
+        }
+    }
+
+    /**
+     * A request to be notified of a change to some variables.
+     */
+    public static class Watch {
+        private final AtomicBoolean done = new AtomicBoolean();
+        private final Set<String> names;
+        private final Runnable onChange;
+
+        private Watch(Set<String> names, Runnable onChange) {
+            this.names = names;
+            this.onChange = onChange;
+        }
+
+        private void fire() {
+            if (done.compareAndSet(false, true)) {
+                remove();
+                onChange.run();
+            }
+        }
+
+        /**
+         * Prevents the code from running, if it didn't already.
+         */
+        public void cancel() {
+            if (done.compareAndSet(false, true))
+                remove();
+        }
+
+        private void remove() {
+            for (var name : names) {
+                watches.computeIfPresent(name, (__, watching) -> {
+                    watching.remove(this);
+                    return watching.isEmpty() ? null : watching;
+                });
+            }
+        }
+    }
+}
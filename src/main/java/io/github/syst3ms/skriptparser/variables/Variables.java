@@ -9,9 +9,9 @@ import io.github.syst3ms.skriptparser.log.SkriptLogger;
 import io.github.syst3ms.skriptparser.parsing.ParserState;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
 
 /**
@@ -22,8 +22,8 @@ public class Variables {
     public static final String LOCAL_VARIABLE_TOKEN = "_";
     public static final Pattern REGEX_PATTERN = Pattern.compile("\\{([^{}]|%\\{|}%)+}");
     private static final VariableMap variableMap = new VariableMap();
-    // Yes, I know it should be trigger-specific, but I haven't got to that part yet, ok ? TODO make the change
-    private static final Map<TriggerContext, VariableMap> localVariables = new HashMap<>();
+    @Nullable
+    private static VariableStorage storage;
 
     public static <T> Optional<? extends Expression<T>> parseVariable(String s, Class<? extends T> types, ParserState parserState, SkriptLogger logger) {
         s = s.strip();
@@ -40,8 +40,16 @@ public class Variables {
                 parserState,
                 logger
         );
-        var finalS = s;
-        return vs.map(v -> new Variable<>(v, finalS.startsWith(LOCAL_VARIABLE_TOKEN), finalS.endsWith(LIST_SEPARATOR + "*"), types));
+        var local = s.startsWith(LOCAL_VARIABLE_TOKEN);
+        var list = s.endsWith(LIST_SEPARATOR + "*");
+        return vs.map(v -> {
+            if (local && v.isSimple() && !v.defaultVariableName().contains(LIST_SEPARATOR)) {
+                // The name is constant, so the variable can be found without looking its name up
+                var slot = parserState.getLocalVariableSlot(v.defaultVariableName());
+                return new Variable<>(v, slot, types);
+            }
+            return new Variable<>(v, local, list, types);
+        });
     }
 
     /**
@@ -83,11 +91,12 @@ public class Variables {
 	 * @return an Object for a normal Variable or a Map<String, Object> for a list variable, or null if the variable is not set.
 	 */
     public static Optional<Object> getVariable(String name, TriggerContext e, boolean local) {
+        VariableTracker.read(name, e, local);
         if (local) {
-            var map = localVariables.get(e);
-            if (map == null)
+            var frame = LocalVariables.of(e, false);
+            if (frame == null)
                 return Optional.empty();
-            return map.getVariable(name);
+            return frame.get(name);
         } else {
             return variableMap.getVariable(name);
         }
@@ -102,19 +111,99 @@ public class Variables {
     public static void setVariable(String name, @Nullable Object value, @Nullable TriggerContext e, boolean local) {
         if (local) {
             assert e != null : name;
-            var map = localVariables.get(e);
-            if (map == null)
-                localVariables.put(e, map = new VariableMap());
-            map.setVariable(name, value);
+            var frame = LocalVariables.of(e, value != null);
+            if (frame != null)
+                frame.set(name, value);
         } else {
             variableMap.setVariable(name, value);
+            VariableTracker.written(name);
         }
     }
 
+    /**
+     * Returns the internal value of a local variable whose name was resolved at parse time.
+     *
+     * @param slot the slot of the variable
+     * @param e the context of the execution
+     * @return the value of the variable, or an empty Optional if it is not set
+     */
+    public static Optional<Object> getVariable(LocalVariables.Slot slot, TriggerContext e) {
+        VariableTracker.read(slot.getName(), e, true);
+        var frame = LocalVariables.of(e, false);
+        if (frame == null)
+            return Optional.empty();
+        return frame.get(slot);
+    }
+
+    /**
+     * Sets a local variable whose name was resolved at parse time.
+     *
+     * @param slot the slot of the variable
+     * @param value the variable's value. Use <tt>null</tt> to delete the variable.
+     * @param e the context of the execution
+     */
+    public static void setVariable(LocalVariables.Slot slot, @Nullable Object value, TriggerContext e) {
+        var frame = LocalVariables.of(e, value != null);
+        if (frame != null)
+            frame.set(slot, value);
+    }
+
+    /**
+     * Discards all local variables of an execution, once it is known to be over.
+     *
+     * @param e the context of the execution
+     */
+    public static void freeLocalVariables(TriggerContext e) {
+        LocalVariables.free(e);
+    }
+
     /**
      * Clears all variables.
      */
     public static void clearVariables() {
         variableMap.clearVariables();
+        if (storage != null)
+            storage.clear();
+        VariableTracker.cleared();
+    }
+
+    /**
+     * Makes global variables persistent. The variables held by the given storage are loaded, after which every change
+     * to a global variable is saved to it. This should be done after all types are registered, but before any script
+     * runs.
+     *
+     * @param storage the storage
+     * @throws IOException if the variables couldn't be loaded
+     */
+    public static void setStorage(VariableStorage storage) throws IOException {
+        closeStorage();
+        storage.load(variableMap::setVariable);
+        Variables.storage = storage;
+        variableMap.setListener(storage::save);
+    }
+
+    /**
+     * @return the storage global variables are saved to, if any
+     */
+    public static Optional<VariableStorage> getStorage() {
+        return Optional.ofNullable(storage);
+    }
+
+    /**
+     * Saves all pending changes to the storage of global variables, and stops saving further changes.
+     *
+     * @throws IOException if the pending changes couldn't be saved
+     */
+    public static void closeStorage() throws IOException {
+        var storage = Variables.storage;
+        if (storage == null)
+            return;
+        variableMap.setListener(null);
+        Variables.storage = null;
+        storage.close();
+    }
+
+    static void forEachGlobalVariable(BiConsumer<String, Object> action) {
+        variableMap.forEach(action);
     }
 }
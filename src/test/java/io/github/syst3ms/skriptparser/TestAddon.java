@@ -4,6 +4,7 @@ import io.github.syst3ms.skriptparser.lang.SkriptEvent;
 import io.github.syst3ms.skriptparser.lang.Statement;
 import io.github.syst3ms.skriptparser.lang.Trigger;
 import io.github.syst3ms.skriptparser.registration.SkriptAddon;
+import io.github.syst3ms.skriptparser.structures.functions.StructFunction;
 import io.github.syst3ms.skriptparser.syntax.EvtTest;
 import io.github.syst3ms.skriptparser.syntax.TestContext;
 
@@ -22,9 +23,18 @@ public class TestAddon extends SkriptAddon {
 
         if (event instanceof EvtTest) {
             testTriggers.add(trigger);
+        } else if (event instanceof StructFunction function) {
+            function.register(trigger);
         }
     }
 
+    @Override
+    public void unhandleTrigger(Trigger trigger) {
+        testTriggers.remove(trigger);
+        if (trigger.getEvent() instanceof StructFunction function)
+            function.unregister();
+    }
+
     @Override
     public void finishedLoading() {
         for (Trigger trigger : testTriggers) {
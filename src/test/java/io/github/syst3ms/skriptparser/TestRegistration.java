@@ -30,6 +30,7 @@ public class TestRegistration {
 				"expressions",
 				"lang",
 				"sections",
+				"structures",
 				"tags"
 			);
 			FileUtils.loadClasses(
@@ -0,0 +1,82 @@
+package io.github.syst3ms.skriptparser.parsing;
+
+import io.github.syst3ms.skriptparser.TestRegistration;
+import io.github.syst3ms.skriptparser.lang.Expression;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.registration.SyntaxManager;
+import io.github.syst3ms.skriptparser.types.PatternType;
+import io.github.syst3ms.skriptparser.types.TypeManager;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static io.github.syst3ms.skriptparser.lang.TriggerContext.DUMMY;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ParseCacheTest {
+    static {
+        TestRegistration.register();
+    }
+
+    private static final List<String> LINES = List.of("test:", "\tset {_x} to 2 + 3");
+
+    @Test
+    public void testContexts() throws IOException {
+        var file = Files.createTempFile("script", ".cache");
+        try {
+            var cache = ParseCache.load(file, LINES);
+            var candidates = SyntaxManager.getAllExpressions();
+            var last = candidates.get(candidates.size() - 1);
+            cache.acknowledge(ParseCache.Kind.EXPRESSION, "number", "2 + 3", last);
+            assertSame(last, cache.prioritize(ParseCache.Kind.EXPRESSION, "number", "2 + 3", candidates).get(0));
+            // A syntax that matched for another expected type, or other code, isn't tried first
+            assertSame(candidates, cache.prioritize(ParseCache.Kind.EXPRESSION, "string", "2 + 3", candidates));
+            assertSame(candidates, cache.prioritize(ParseCache.Kind.EXPRESSION, "number", "2 + 4", candidates));
+            assertSame(candidates, cache.prioritize(ParseCache.Kind.EFFECT, "number", "2 + 3", candidates));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testExpectedTypes() throws IOException {
+        var file = Files.createTempFile("script", ".cache");
+        try {
+            var number = TypeManager.getPatternType("number").orElseThrow();
+            var integer = TypeManager.getPatternType("integer").orElseThrow();
+            var cold = ParseCache.load(file, LINES);
+            var coldNumber = parse("2 + 3", number, cold);
+            var coldInteger = parse("2 + 3", integer, cold);
+            cold.save();
+
+            var warm = ParseCache.load(file, LINES);
+            // Both orders, so that neither expected type can reuse what was recorded for the other one
+            assertSameExpression(coldInteger, parse("2 + 3", integer, warm));
+            assertSameExpression(coldNumber, parse("2 + 3", number, warm));
+            assertSameExpression(coldInteger, parse("2 + 3", integer, warm));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static Expression<?> parse(String s, PatternType<?> expectedType, ParseCache cache) {
+        var parserState = new ParserState();
+        parserState.setParseCache(cache);
+        var logger = new SkriptLogger();
+        var expression = SyntaxParser.parseExpression(s, expectedType, parserState, logger);
+        assertTrue(logger.close().toString(), expression.isPresent());
+        return expression.get();
+    }
+
+    private static void assertSameExpression(Expression<?> expected, Expression<?> actual) {
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(expected.getReturnType(), actual.getReturnType());
+        assertArrayEquals(expected.getValues(DUMMY), actual.getValues(DUMMY));
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.syst3ms.skriptparser.parsing;
+
+import io.github.syst3ms.skriptparser.TestRegistration;
+import io.github.syst3ms.skriptparser.file.FileElement;
+import io.github.syst3ms.skriptparser.file.FileSection;
+import io.github.syst3ms.skriptparser.registration.SyntaxInfo;
+import io.github.syst3ms.skriptparser.registration.SyntaxManager;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParseProfilerTest {
+    static {
+        TestRegistration.register();
+    }
+
+    private static final long DELAY_MILLIS = 50;
+    private static final long DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(DELAY_MILLIS);
+
+    @Test
+    public void testCounts() throws IOException {
+        var profiler = new ParseProfiler();
+        var syntaxes = distinctSyntaxes();
+        var first = syntaxes.get(0);
+        var second = syntaxes.get(1);
+        profiler.startLine(new FileElement("counts.sk", 1, "set {x} to 1", 1));
+        profiler.startAttempt(first);
+        profiler.endAttempt(false);
+        profiler.startAttempt(second);
+        profiler.startAttempt(first);
+        profiler.endAttempt(true);
+        profiler.endAttempt(true);
+        profiler.endLine();
+
+        var json = json(profiler);
+        var line = find(json, "\"file\": \"counts.sk\"");
+        assertEquals(3, field(line, "attempts"));
+        assertEquals(1, field(line, "failures"));
+        assertEquals(2, field(line, "maxDepth"));
+        var firstStats = find(json, className(first));
+        assertEquals(2, field(firstStats, "attempts"));
+        assertEquals(1, field(firstStats, "failures"));
+        assertEquals(2, field(firstStats, "maxDepth"));
+        var secondStats = find(json, className(second));
+        assertEquals(1, field(secondStats, "attempts"));
+        assertEquals(0, field(secondStats, "failures"));
+        assertEquals(1, field(secondStats, "maxDepth"));
+    }
+
+    @Test
+    public void testNestedTime() throws IOException, InterruptedException {
+        var syntaxes = distinctSyntaxes();
+        var outer = syntaxes.get(0);
+        var inner = syntaxes.get(1);
+
+        // Attempts don't account for the attempts nested in them
+        var profiler = new ParseProfiler();
+        profiler.startLine(new FileElement("nested.sk", 1, "set {x} to 1", 1));
+        profiler.startAttempt(outer);
+        profiler.startAttempt(inner);
+        Thread.sleep(DELAY_MILLIS);
+        profiler.endAttempt(false);
+        profiler.endAttempt(true);
+        profiler.endLine();
+        var json = json(profiler);
+        assertTrue(field(find(json, className(inner)), "nanos") >= DELAY_NANOS);
+        assertTrue(field(find(json, className(outer)), "nanos") < DELAY_NANOS);
+        // Whereas the line they belong to does
+        assertTrue(field(find(json, "\"line\": 1,"), "nanos") >= DELAY_NANOS);
+
+        // Neither the line of a section nor the attempt that parses the section account for the lines inside of it
+        profiler = new ParseProfiler();
+        var innerLine = new FileElement("nested.sk", 2, "\tset {x} to 1", 1);
+        profiler.startLine(new FileSection("nested.sk", 1, "test:", List.of(innerLine), 0));
+        profiler.startAttempt(outer);
+        profiler.startLine(innerLine);
+        Thread.sleep(DELAY_MILLIS);
+        profiler.endLine();
+        profiler.endAttempt(true);
+        profiler.endLine();
+        json = json(profiler);
+        assertTrue(field(find(json, "\"line\": 2,"), "nanos") >= DELAY_NANOS);
+        assertTrue(field(find(json, "\"line\": 1,"), "nanos") < DELAY_NANOS);
+        assertTrue(field(find(json, className(outer)), "nanos") < DELAY_NANOS);
+    }
+
+    @Test
+    public void testJson() throws IOException, InterruptedException {
+        var profiler = new ParseProfiler();
+        var syntax = distinctSyntaxes().get(0);
+        profiler.startLine(new FileElement("json.sk", 1, "set {x} to \"a\\b\"\t", 1));
+        profiler.startAttempt(syntax);
+        profiler.endAttempt(false);
+        profiler.endLine();
+        profiler.startLine(new FileElement("json.sk", 2, "set {y} to 2", 1));
+        Thread.sleep(DELAY_MILLIS);
+        profiler.endLine();
+
+        var json = json(profiler);
+        assertTrue(json, json.startsWith("{\n  \"lines\": [\n    {"));
+        assertTrue(json, json.endsWith("}\n  ]\n}\n"));
+        // Special characters are escaped
+        assertTrue(json, json.contains("\"code\": \"set {x} to \\\"a\\\\b\\\"\\u0009\""));
+        // The most expensive line comes first
+        assertTrue(json, json.indexOf("\"line\": 2,") < json.indexOf("\"line\": 1,"));
+        var syntaxStats = find(json, className(syntax));
+        assertTrue(syntaxStats, syntaxStats.contains("\"patterns\": [\""));
+    }
+
+    /*
+     * Syntaxes whose classes are all different, so that they can be told apart in the output
+     */
+    private static List<SyntaxInfo<?>> distinctSyntaxes() {
+        var expressions = SyntaxManager.getAllExpressions();
+        for (var expression : expressions) {
+            if (expression.getSyntaxClass() != expressions.get(0).getSyntaxClass())
+                return List.of(expressions.get(0), expression);
+        }
+        throw new AssertionError();
+    }
+
+    private static String className(SyntaxInfo<?> info) {
+        return "\"class\": \"" + info.getSyntaxClass().getName() + '"';
+    }
+
+    private static String json(ParseProfiler profiler) throws IOException {
+        var file = Files.createTempFile("profile", ".json");
+        try {
+            profiler.writeJson(file);
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /*
+     * Every line and syntax is written as an object on a line of its own
+     */
+    private static String find(String json, String key) {
+        for (var line : json.split("\n")) {
+            if (line.contains(key))
+                return line;
+        }
+        throw new AssertionError("Nothing matching " + key + " in " + json);
+    }
+
+    private static long field(String object, String name) {
+        var matcher = Pattern.compile('"' + name + "\": (\\d+)").matcher(object);
+        assertTrue(object, matcher.find());
+        return Long.parseLong(matcher.group(1));
+    }
+}
@@ -0,0 +1,296 @@
+package io.github.syst3ms.skriptparser.parsing;
+
+import io.github.syst3ms.skriptparser.TestRegistration;
+import io.github.syst3ms.skriptparser.lang.Statement;
+import io.github.syst3ms.skriptparser.lang.Trigger;
+import io.github.syst3ms.skriptparser.log.LogEntry;
+import io.github.syst3ms.skriptparser.log.LogType;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.registration.SkriptAddon;
+import io.github.syst3ms.skriptparser.syntax.TestContext;
+import io.github.syst3ms.skriptparser.variables.Variables;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static io.github.syst3ms.skriptparser.lang.TriggerContext.DUMMY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ScriptLoaderTest {
+    static {
+        TestRegistration.register();
+    }
+
+    private static final int SCRIPT_COUNT = 8;
+
+    @Test
+    public void testParallelFunctions() throws IOException {
+        var folder = Files.createTempDirectory("scripts");
+        try {
+            // Every script calls a function defined by the next one, so calls are resolved across all of them
+            for (var i = 0; i < SCRIPT_COUNT; i++) {
+                var next = (i + 1) % SCRIPT_COUNT;
+                var previous = (i + SCRIPT_COUNT - 1) % SCRIPT_COUNT;
+                write(folder.resolve("functions" + i + ".sk"),
+                        "function forward" + i + "(n: number) :: number:",
+                        "\treturn backward" + next + "({_n}) + 1",
+                        "function backward" + i + "(n: number) :: number:",
+                        "\treturn {_n} + " + previous,
+                        "test:",
+                        "\tset {parallel::" + i + "} to forward" + i + "(10)"
+                );
+            }
+            var errors = errors(ScriptLoader.loadScriptsFolder(folder.toFile(), new SkriptLogger(), false, true));
+            assertTrue(errors.toString(), errors.isEmpty());
+            SkriptAddon.getAddons().forEach(SkriptAddon::finishedLoading);
+            for (var i = 0; i < SCRIPT_COUNT; i++) {
+                var value = Variables.getVariable("parallel::" + i, DUMMY, false);
+                assertTrue(value.isPresent());
+                assertEquals(11 + i, ((Number) value.get()).intValue());
+            }
+        } finally {
+            Variables.clearVariables();
+            delete(folder);
+        }
+    }
+
+    @Test
+    public void testParallelDuplicateFunctions() throws IOException {
+        var folder = Files.createTempDirectory("scripts");
+        try {
+            for (var i = 0; i < SCRIPT_COUNT; i++) {
+                write(folder.resolve("duplicate" + i + ".sk"),
+                        "function duplicate():",
+                        "\tset {duplicate} to " + i
+                );
+            }
+            // Exactly one of the scripts wins the name, no matter how they were parsed
+            var errors = errors(ScriptLoader.loadScriptsFolder(folder.toFile(), new SkriptLogger(), false, true));
+            assertEquals(errors.toString(), SCRIPT_COUNT - 1, errors.size());
+        } finally {
+            delete(folder);
+        }
+    }
+
+    @Test
+    public void testReload() throws IOException {
+        var folder = Files.createTempDirectory("scripts");
+        try {
+            var functions = folder.resolve("reloaded.sk");
+            write(functions,
+                    "function greeting() :: string:",
+                    "\treturn \"first\"",
+                    "test:",
+                    "\tset {reload::unchanged} to 1",
+                    "test:",
+                    "\tset {reload::changed} to 1"
+            );
+            write(folder.resolve("caller.sk"),
+                    "test:",
+                    "\tset {reload::caller} to greeting()"
+            );
+            var errors = errors(ScriptLoader.loadScriptsFolder(folder.toFile(), new SkriptLogger(), false));
+            assertTrue(errors.toString(), errors.isEmpty());
+            run("caller.sk");
+            assertEquals("first", Variables.getVariable("reload::caller", DUMMY, false).orElse(null));
+            var triggers = ScriptLoader.getTriggerMap().get("reloaded.sk");
+
+            // Only the modified trigger is loaded again
+            write(functions,
+                    "function greeting() :: string:",
+                    "\treturn \"first\"",
+                    "test:",
+                    "\tset {reload::unchanged} to 1",
+                    "test:",
+                    "\tset {reload::changed} to 2"
+            );
+            errors = errors(ScriptLoader.reloadScript(functions, new SkriptLogger()));
+            assertTrue(errors.toString(), errors.isEmpty());
+            var reloaded = ScriptLoader.getTriggerMap().get("reloaded.sk");
+            assertEquals(3, reloaded.size());
+            assertEquals(2, reloaded.stream().filter(triggers::contains).count());
+            run("reloaded.sk");
+            assertEquals(2, ((Number) Variables.getVariable("reload::changed", DUMMY, false).orElseThrow()).intValue());
+
+            // Calls from other scripts run the new version of a function
+            write(functions,
+                    "function greeting() :: string:",
+                    "\treturn \"second\"",
+                    "test:",
+                    "\tset {reload::unchanged} to 1",
+                    "test:",
+                    "\tset {reload::changed} to 2"
+            );
+            errors = errors(ScriptLoader.reloadScript(functions, new SkriptLogger()));
+            assertTrue(errors.toString(), errors.isEmpty());
+            run("caller.sk");
+            assertEquals("second", Variables.getVariable("reload::caller", DUMMY, false).orElse(null));
+
+            // A reload that fails changes nothing, so the function is still there
+            triggers = ScriptLoader.getTriggerMap().get("reloaded.sk");
+            write(functions,
+                    "function greeting() :: string:",
+                    "\treturn \"third\"",
+                    "\tthis is not an effect"
+            );
+            errors = errors(ScriptLoader.reloadScript(functions, new SkriptLogger()));
+            assertFalse(errors.isEmpty());
+            assertEquals(triggers, ScriptLoader.getTriggerMap().get("reloaded.sk"));
+            run("caller.sk");
+            assertEquals("second", Variables.getVariable("reload::caller", DUMMY, false).orElse(null));
+        } finally {
+            Variables.clearVariables();
+            delete(folder);
+        }
+    }
+
+    @Test
+    public void testReloadSignature() throws IOException {
+        var folder = Files.createTempDirectory("scripts");
+        try {
+            var functions = folder.resolve("signature.sk");
+            write(functions,
+                    "function signature(n: number) :: number:",
+                    "\treturn {_n} + 1"
+            );
+            write(folder.resolve("signatureCaller.sk"),
+                    "test:",
+                    "\tset {signature} to signature(1)"
+            );
+            var errors = errors(ScriptLoader.loadScriptsFolder(folder.toFile(), new SkriptLogger(), false));
+            assertTrue(errors.toString(), errors.isEmpty());
+            run("signatureCaller.sk");
+            assertEquals(2, ((Number) Variables.getVariable("signature", DUMMY, false).orElseThrow()).intValue());
+
+            // Calls parsed against the old version don't run a new one they don't fit
+            write(functions,
+                    "function signature(n: number, m: number) :: number:",
+                    "\treturn {_n} + {_m}"
+            );
+            errors = errors(ScriptLoader.reloadScript(functions, new SkriptLogger()));
+            assertTrue(errors.toString(), errors.isEmpty());
+            Variables.clearVariables();
+            run("signatureCaller.sk");
+            assertTrue(Variables.getVariable("signature", DUMMY, false).isEmpty());
+
+            write(functions,
+                    "function signature(n: number) :: string:",
+                    "\treturn \"text\""
+            );
+            errors = errors(ScriptLoader.reloadScript(functions, new SkriptLogger()));
+            assertTrue(errors.toString(), errors.isEmpty());
+            run("signatureCaller.sk");
+            assertTrue(Variables.getVariable("signature", DUMMY, false).isEmpty());
+
+            // They run it again once it fits
+            write(functions,
+                    "function signature(n: number) :: number:",
+                    "\treturn {_n} + 2"
+            );
+            errors = errors(ScriptLoader.reloadScript(functions, new SkriptLogger()));
+            assertTrue(errors.toString(), errors.isEmpty());
+            run("signatureCaller.sk");
+            assertEquals(3, ((Number) Variables.getVariable("signature", DUMMY, false).orElseThrow()).intValue());
+        } finally {
+            Variables.clearVariables();
+            delete(folder);
+        }
+    }
+
+    @Test
+    public void testReloadSingleScript() throws IOException {
+        var folder = Files.createTempDirectory("scripts");
+        try {
+            var script = folder.resolve("single.sk");
+            write(script,
+                    "test:",
+                    "\tset {single} to 1"
+            );
+            var errors = errors(ScriptLoader.loadScript(script, new SkriptLogger(), false));
+            assertTrue(errors.toString(), errors.isEmpty());
+            assertEquals(1, ScriptLoader.getTriggerMap().get("single.sk").size());
+
+            // The triggers loaded at first are replaced, not kept under another name
+            write(script,
+                    "test:",
+                    "\tset {single} to 2"
+            );
+            errors = errors(ScriptLoader.reloadScript(script, new SkriptLogger()));
+            assertTrue(errors.toString(), errors.isEmpty());
+            assertFalse(ScriptLoader.getTriggerMap().containsKey("single"));
+            assertEquals(1, ScriptLoader.getTriggerMap().get("single.sk").size());
+            run("single.sk");
+            assertEquals(2, ((Number) Variables.getVariable("single", DUMMY, false).orElseThrow()).intValue());
+        } finally {
+            Variables.clearVariables();
+            delete(folder);
+        }
+    }
+
+    @Test
+    public void testFunctionWait()throws IOException, InterruptedException {
+        var folder = Files.createTempDirectory("scripts");
+        try {
+            write(folder.resolve("waiting.sk"),
+                    "function waiting(n: number, m: number):",
+                    "\twait 50 milliseconds",
+                    "\tset {waited} to {_n} + {_m}",
+                    "test:",
+                    "\twaiting(10, 1)"
+            );
+            var errors = errors(ScriptLoader.loadScriptsFolder(folder.toFile(), new SkriptLogger(), false));
+            assertTrue(errors.toString(), errors.isEmpty());
+            run("waiting.sk");
+            // The rest of the function runs later, and still has its parameters
+            var start = System.currentTimeMillis();
+            while (Variables.getVariable("waited", DUMMY, false).isEmpty() && System.currentTimeMillis() - start < 5000)
+                Thread.sleep(10);
+            assertEquals(11, ((Number) Variables.getVariable("waited", DUMMY, false).orElseThrow()).intValue());
+        } finally {
+            // Otherwise, the trigger would run again whenever another test finishes loading
+            unload(folder);
+            Variables.clearVariables();
+            delete(folder);
+        }
+    }
+
+    private static void run(String scriptName) {
+        for (Trigger trigger : ScriptLoader.getTriggerMap().get(scriptName))
+            Statement.runAll(trigger, new TestContext.SubTestContext());
+    }
+
+    private static void unload(Path folder) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            for (var file : files.collect(Collectors.toList())) {
+                write(file);
+                ScriptLoader.reloadScript(file, new SkriptLogger());
+            }
+        }
+    }
+
+    private static List<LogEntry> errors(List<LogEntry> logs) {
+        return logs.stream()
+                .filter(log -> log.getType() == LogType.ERROR)
+                .collect(Collectors.toList());
+    }
+
+    private static void write(Path file, String... lines) throws IOException {
+        Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+    }
+
+    private static void delete(Path folder) throws IOException {
+        try (Stream<Path> files = Files.walk(folder)) {
+            for (var file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+                Files.delete(file);
+        }
+    }
+}
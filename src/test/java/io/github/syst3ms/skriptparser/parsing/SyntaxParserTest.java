@@ -1,6 +1,7 @@
 package io.github.syst3ms.skriptparser.parsing;
 
 import io.github.syst3ms.skriptparser.TestRegistration;
+import io.github.syst3ms.skriptparser.lang.compiled.CompiledTrigger;
 import io.github.syst3ms.skriptparser.log.LogEntry;
 import io.github.syst3ms.skriptparser.log.LogType;
 import io.github.syst3ms.skriptparser.registration.SkriptAddon;
@@ -38,6 +39,23 @@ public class SyntaxParserTest {
 
     @TestFactory
     public Iterator<DynamicNode> syntaxTest() {
+        return syntaxTest(false, false);
+    }
+
+    @TestFactory
+    public Iterator<DynamicNode> compiledSyntaxTest() {
+        return syntaxTest(true, false);
+    }
+
+    /**
+     * Turns every trigger into bytecode the first time it runs, so the generated classes run the whole suite.
+     */
+    @TestFactory
+    public Iterator<DynamicNode> jitSyntaxTest() {
+        return syntaxTest(true, true);
+    }
+
+    private Iterator<DynamicNode> syntaxTest(boolean compiled, boolean jit) {
         String[] folders = {"effects", "expressions", "literals", "sections", "tags", "general"};
         ArrayList<DynamicNode> containerList = new ArrayList<>();
         for (String folder : folders) {
@@ -50,6 +68,13 @@ public class SyntaxParserTest {
                             var executor = Executors.newSingleThreadExecutor();
                             Future<List<LogEntry>> future;
 
+                            ScriptLoader.setCompilingTriggers(compiled);
+                            var threshold = CompiledTrigger.getJitThreshold();
+                            var failures = CompiledTrigger.getJitFailures();
+                            if (jit) {
+                                CompiledTrigger.setJitEnabled(true);
+                                CompiledTrigger.setJitThreshold(1);
+                            }
                             future = executor.submit(() -> ScriptLoader.loadScript(file.toPath(), true));
                             List<LogEntry> logs;
                             try {
@@ -67,6 +92,9 @@ public class SyntaxParserTest {
                                 errorsFound.add(ex);
                             }
 
+                            if (jit && CompiledTrigger.getJitFailures() != failures)
+                                errorsFound.add(new IllegalStateException("A trigger of '" + file.getName() + "' couldn't be turned into bytecode"));
+
                             // For some weird reason some errors are duplicated
                             var allErrors = new ArrayList<>(errorsFound);
                             Set<String> duplicateErrors = new HashSet<>();
@@ -74,6 +102,9 @@ public class SyntaxParserTest {
 
                             // Reset variables
                             Variables.clearVariables();
+                            ScriptLoader.setCompilingTriggers(false);
+                            CompiledTrigger.setJitEnabled(false);
+                            CompiledTrigger.setJitThreshold(threshold);
                             errorsFound.clear();
 
                             MultipleFailureException.assertEmpty(allErrors);
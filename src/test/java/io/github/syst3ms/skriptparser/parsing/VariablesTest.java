@@ -8,14 +8,25 @@ import io.github.syst3ms.skriptparser.lang.Statement;
 import io.github.syst3ms.skriptparser.log.SkriptLogger;
 import io.github.syst3ms.skriptparser.types.PatternType;
 import io.github.syst3ms.skriptparser.types.TypeManager;
+import io.github.syst3ms.skriptparser.variables.VariableTracker;
+import io.github.syst3ms.skriptparser.variables.Variables;
 import org.junit.Test;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.github.syst3ms.skriptparser.lang.TriggerContext.DUMMY;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
@@ -73,4 +84,137 @@ public class VariablesTest {
 				SyntaxParser.parseExpression("{number}", numberType, parserState, logger)
 		);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testTracking() {
+		SkriptLogger logger = new SkriptLogger();
+		ParserState parserState = new ParserState();
+		PatternType<Number> numberType = new PatternType<>(TypeManager.getByClassExact(Number.class).orElseThrow(AssertionError::new), true);
+		try {
+			var sum = SyntaxParser.parseExpression("{tracked::a} + {other}", numberType, parserState, logger).orElseThrow(AssertionError::new);
+			var recording = VariableTracker.record(DUMMY, () -> sum.getValues(DUMMY));
+			assertEquals(Set.of("tracked::a", "other"), recording.getNames());
+			assertFalse(recording.isVolatile());
+
+			// Local variables of the context may change without any global variable being written to
+			var local = SyntaxParser.parseExpression("{_local}", SyntaxParser.OBJECT_PATTERN_TYPE, parserState, logger).orElseThrow(AssertionError::new);
+			assertTrue(VariableTracker.record(DUMMY, () -> local.getValues(DUMMY)).isVolatile());
+			// So may random picks
+			var either = SyntaxParser.parseExpression("{tracked::*} or {other::*}", TypeManager.getPatternType("numbers").orElseThrow(), parserState, logger).orElseThrow(AssertionError::new);
+			assertTrue(VariableTracker.record(DUMMY, () -> either.getValues(DUMMY)).isVolatile());
+			assertTrue(VariableTracker.record(DUMMY, () -> either.iterator(DUMMY)).isVolatile());
+			var shuffled = SyntaxParser.parseExpression("shuffled {tracked::*}", SyntaxParser.OBJECTS_PATTERN_TYPE, parserState, logger).orElseThrow(AssertionError::new);
+			assertTrue(VariableTracker.record(DUMMY, () -> shuffled.getValues(DUMMY)).isVolatile());
+			var reversed = SyntaxParser.parseExpression("reversed {tracked::*}", SyntaxParser.OBJECTS_PATTERN_TYPE, parserState, logger).orElseThrow(AssertionError::new);
+			assertFalse(VariableTracker.record(DUMMY, () -> reversed.getValues(DUMMY)).isVolatile());
+
+			var changes = new AtomicInteger();
+			VariableTracker.watch(recording, changes::incrementAndGet);
+			Variables.setVariable("tracked::b", 1, DUMMY, false);
+			assertEquals(0, changes.get());
+			Variables.setVariable("tracked::a", 1, DUMMY, false);
+			assertEquals(1, changes.get());
+			// Watches only fire once
+			Variables.setVariable("other", 1, DUMMY, false);
+			assertEquals(1, changes.get());
+
+			// Writing to an element changes the list, and deleting the list changes its elements
+			var list = SyntaxParser.parseExpression("{tracked::*}", SyntaxParser.OBJECTS_PATTERN_TYPE, parserState, logger).orElseThrow(AssertionError::new);
+			VariableTracker.watch(VariableTracker.record(DUMMY, () -> list.getValues(DUMMY)), changes::incrementAndGet);
+			Variables.setVariable("tracked::c", 1, DUMMY, false);
+			assertEquals(2, changes.get());
+			VariableTracker.watch(VariableTracker.record(DUMMY, () -> sum.getValues(DUMMY)), changes::incrementAndGet);
+			Variables.setVariable("tracked::*", null, DUMMY, false);
+			assertEquals(3, changes.get());
+
+			// A change made before watching isn't missed
+			recording = VariableTracker.record(DUMMY, () -> sum.getValues(DUMMY));
+			Variables.setVariable("other", 2, DUMMY, false);
+			VariableTracker.watch(recording, changes::incrementAndGet);
+			assertEquals(4, changes.get());
+
+			VariableTracker.watch(VariableTracker.record(DUMMY, () -> sum.getValues(DUMMY)), changes::incrementAndGet).cancel();
+			Variables.setVariable("other", 3, DUMMY, false);
+			assertEquals(4, changes.get());
+		} finally {
+			Variables.clearVariables();
+		}
+	}
+
+	@Test
+	public void testListOrder() {
+		try {
+			for (var index : List.of("b", "10", "02", "a", "2", "-1", "1", "100"))
+				Variables.setVariable("ordered::" + index, index, DUMMY, false);
+			// Numbers first by value, then everything else, including what only looks like a number, in natural order
+			assertEquals(List.of("1", "2", "10", "100", "-1", "02", "a", "b"), new ArrayList<>(list("ordered").keySet()));
+		} finally {
+			Variables.clearVariables();
+		}
+	}
+
+	@Test
+	public void testNestedDeletion() {
+		try {
+			Variables.setVariable("nested::a::b::c", 1, DUMMY, false);
+			Variables.setVariable("nested::a::d", 2, DUMMY, false);
+			Variables.setVariable("nested::e", 3, DUMMY, false);
+			Variables.setVariable("nested::e::f", 4, DUMMY, false);
+
+			// Lists left empty disappear along with their last element
+			Variables.setVariable("nested::a::b::c", null, DUMMY, false);
+			assertTrue(Variables.getVariable("nested::a::b::*", DUMMY, false).isEmpty());
+			assertEquals(Set.of("d"), list("nested::a").keySet());
+			Variables.setVariable("nested::a::d", null, DUMMY, false);
+			assertEquals(Set.of("e"), list("nested").keySet());
+
+			// Deleting a list keeps the value of the variable of the same name
+			Variables.setVariable("nested::e::*", null, DUMMY, false);
+			assertTrue(Variables.getVariable("nested::e::f", DUMMY, false).isEmpty());
+			assertEquals(Optional.of(3), Variables.getVariable("nested::e", DUMMY, false));
+			assertEquals(Map.of("e", 3), list("nested"));
+
+			Variables.setVariable("nested::e", null, DUMMY, false);
+			assertTrue(Variables.getVariable("nested::*", DUMMY, false).isEmpty());
+		} finally {
+			Variables.clearVariables();
+		}
+	}
+
+	@Test
+	public void testListIteration() {
+		try {
+			Variables.setVariable("iterated::1", "a", DUMMY, false);
+			Variables.setVariable("iterated::2", "b", DUMMY, false);
+			Variables.setVariable("iterated::2::1", "c", DUMMY, false);
+			Variables.setVariable("iterated::3::1", "d", DUMMY, false);
+			var list = list("iterated");
+			var entries = new ArrayList<>(list.entrySet());
+			assertEquals(3, entries.size());
+			assertEquals(Map.entry("1", "a"), entries.get(0));
+			// Elements that are lists themselves are lists as well, with their own value under the null key
+			assertTrue(entries.get(1).getValue() instanceof Map);
+			var sublist = (Map<?, ?>) entries.get(1).getValue();
+			assertEquals("b", sublist.get(null));
+			assertEquals(Map.of("1", "c"), new HashMap<>(sublist));
+			assertEquals(Map.of("1", "d"), list.get("3"));
+
+			// Lists are views, which see later changes
+			Variables.setVariable("iterated::0", "e", DUMMY, false);
+			Variables.setVariable("iterated::1", null, DUMMY, false);
+			assertEquals(List.of("2", "3", "0"), new ArrayList<>(list.keySet()));
+			try {
+				list.put("4", "f");
+				fail("Lists can't be modified through their views");
+			} catch (UnsupportedOperationException ignored) {
+			}
+		} finally {
+			Variables.clearVariables();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> list(String name) {
+		return (Map<String, Object>) Variables.getVariable(name + Variables.LIST_SEPARATOR + "*", DUMMY, false).orElseThrow(AssertionError::new);
+	}
+}
@@ -0,0 +1,81 @@
+package io.github.syst3ms.skriptparser.registration;
+
+import io.github.syst3ms.skriptparser.Parser;
+import io.github.syst3ms.skriptparser.TestRegistration;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.pattern.PatternElement;
+import io.github.syst3ms.skriptparser.pattern.PatternParser;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SyntaxIndexTest {
+    static {
+        TestRegistration.register();
+    }
+
+    private static SyntaxInfo<Object> info(String... patterns) {
+        var logger = new SkriptLogger();
+        List<PatternElement> elements = Arrays.stream(patterns)
+                .map(p -> PatternParser.parsePattern(p, logger).orElseThrow(AssertionError::new))
+                .collect(Collectors.toList());
+        return new SyntaxInfo<>(Parser.getMainRegistration().getRegisterer(), Object.class, 5, elements);
+    }
+
+    private static Set<String> prefixes(String pattern) {
+        return SyntaxIndex.getPrefixes(PatternParser.parsePattern(pattern, new SkriptLogger()).orElseThrow(AssertionError::new));
+    }
+
+    @Test
+    public void testPrefixes() {
+        assertEquals(Set.of("set"), prefixes("set %objects% to %objects%"));
+        assertEquals(Set.of("on", "script load"), prefixes("[on] script load"));
+        assertEquals(Set.of("wait", "halt"), prefixes("(wait|halt) [for] %duration%"));
+        assertEquals(Set.of("the", "length of"), prefixes("[the] length of %string%"));
+        assertEquals(Set.of(""), prefixes("%number% + %number%"));
+        assertEquals(Set.of("loop", ""), prefixes("[loop] %objects%"));
+        assertEquals(Set.of("a", "b", "c"), prefixes("((a|b) [x]|c)"));
+    }
+
+    @Test
+    public void testCandidates() {
+        var set = info("set %objects% to %objects%");
+        var settings = info("settings");
+        var loop = info("loop %integer% times", "loop %objects%");
+        var arithmetic = info("%number% + %number%");
+        var print = info("(print|broadcast) %string%");
+        var index = new SyntaxIndex<>(List.of(set, settings, loop, arithmetic, print));
+
+        assertEquals(List.of(set, arithmetic), index.getCandidates("set {x} to 5"));
+        assertEquals(List.of(set, settings, arithmetic), index.getCandidates("SETTINGS"));
+        assertEquals(List.of(loop, arithmetic), index.getCandidates("  loop-value"));
+        assertEquals(List.of(arithmetic, print), index.getCandidates("broadcast \"hi\""));
+        assertEquals(List.of(arithmetic), index.getCandidates("1 + 2"));
+        assertEquals(List.of(arithmetic), index.getCandidates(""));
+    }
+
+    @Test
+    public void testFilter() {
+        var set = info("set %objects% to %objects%");
+        var loop = info("loop %integer% times", "loop %objects%");
+        var arithmetic = info("%number% + %number%");
+        var print = info("(print|broadcast) %string%");
+        var index = new SyntaxIndex<>(List.of(set, loop, arithmetic, print));
+
+        var filter = index.getFilter("SET {x} TO 5");
+        assertTrue(filter.test(set));
+        assertFalse(filter.test(loop));
+        assertFalse(filter.test(arithmetic));
+        assertTrue(filter.test(print));
+        assertFalse(index.getFilter("set {x}").test(set));
+        assertTrue(index.getFilter("loop {list::*}").test(loop));
+        assertTrue(index.getFilter("1 + 2").test(arithmetic));
+    }
+}
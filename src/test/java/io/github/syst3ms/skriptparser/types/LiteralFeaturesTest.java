@@ -0,0 +1,133 @@
+package io.github.syst3ms.skriptparser.types;
+
+import io.github.syst3ms.skriptparser.TestRegistration;
+import io.github.syst3ms.skriptparser.lang.VariableString;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.parsing.ParserState;
+import io.github.syst3ms.skriptparser.parsing.SyntaxParser;
+import org.junit.Test;
+
+import java.util.List;
+
+import static io.github.syst3ms.skriptparser.lang.TriggerContext.DUMMY;
+import static io.github.syst3ms.skriptparser.types.LiteralFeatures.ANY;
+import static io.github.syst3ms.skriptparser.types.LiteralFeatures.DIGITS;
+import static io.github.syst3ms.skriptparser.types.LiteralFeatures.LETTERS;
+import static io.github.syst3ms.skriptparser.types.LiteralFeatures.NUMERIC;
+import static io.github.syst3ms.skriptparser.types.LiteralFeatures.QUOTED;
+import static io.github.syst3ms.skriptparser.types.LiteralFeatures.UNQUOTED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LiteralFeaturesTest {
+    static {
+        TestRegistration.register();
+    }
+
+    // Literals of every registered type, along with text close to them that may or may not parse
+    private static final List<String> SAMPLES = List.of(
+            "5", "-5", "5.2", "-0.5", ".5", "5.", "1_000", "_1", "1_", "-", "5-2", "1e5",
+            "true", "FALSE", "yes",
+            "red", "light blue", "light_blue", "blue5",
+            "number", "numbers", "integer", "boolean", "type",
+            "5 minutes", "1 hour", "2 days and 3 hours", "minute", "5minutes",
+            "12h", "12h30", "12:30", "12:30:15", "12:30:15.250", "11 pm", "11:30am", "25:00",
+            "\"text\"", "\"5\"", "'text'", "\"\"", ""
+    );
+
+    @Test
+    public void testClassifier() {
+        assertEquals(UNQUOTED, LiteralFeatures.of(""));
+        // Quoted strings are never numeric or unquoted, whatever they contain
+        assertEquals(QUOTED | LETTERS, LiteralFeatures.of("\"text\""));
+        assertEquals(QUOTED | LETTERS, LiteralFeatures.of("'text'"));
+        assertEquals(QUOTED | DIGITS, LiteralFeatures.of("\"5\""));
+        assertEquals(QUOTED, LiteralFeatures.of("\"\""));
+        // Numbers
+        assertEquals(UNQUOTED | DIGITS | NUMERIC, LiteralFeatures.of("5"));
+        assertEquals(UNQUOTED | DIGITS | NUMERIC, LiteralFeatures.of("-3.5"));
+        assertEquals(UNQUOTED | DIGITS | NUMERIC, LiteralFeatures.of("1_000"));
+        assertEquals(UNQUOTED | DIGITS | NUMERIC, LiteralFeatures.of(".5"));
+        // A minus sign anywhere else, or no digit at all, isn't numeric
+        assertEquals(UNQUOTED | DIGITS, LiteralFeatures.of("5-2"));
+        assertEquals(UNQUOTED | DIGITS, LiteralFeatures.of("12:30"));
+        assertEquals(UNQUOTED, LiteralFeatures.of("-"));
+        assertEquals(UNQUOTED, LiteralFeatures.of("._"));
+        // Letters
+        assertEquals(UNQUOTED | LETTERS, LiteralFeatures.of("red"));
+        assertEquals(UNQUOTED | LETTERS, LiteralFeatures.of("été"));
+        assertEquals(UNQUOTED | LETTERS | DIGITS, LiteralFeatures.of("5 minutes"));
+        assertEquals(UNQUOTED | LETTERS | DIGITS, LiteralFeatures.of("1e5"));
+    }
+
+    @Test
+    public void testDeclaredFeatures() {
+        // Text with more features than declared still goes to the literal parser
+        var number = TypeManager.getByExactName("number").orElseThrow();
+        assertTrue(number.mayParseLiteral(UNQUOTED | DIGITS | NUMERIC));
+        assertFalse(number.mayParseLiteral(UNQUOTED | DIGITS));
+        var time = TypeManager.getByExactName("time").orElseThrow();
+        assertTrue(time.mayParseLiteral(UNQUOTED | DIGITS));
+        assertTrue(time.mayParseLiteral(UNQUOTED | DIGITS | LETTERS));
+        assertFalse(time.mayParseLiteral(UNQUOTED | LETTERS));
+        assertFalse(time.mayParseLiteral(QUOTED | DIGITS));
+    }
+
+    @Test
+    public void testUndeclaredFeatures() {
+        // Types that don't declare any feature are handed every literal, like before features existed
+        var type = new Type<>(Object.class, "undeclared", "undeclared@s", s -> s);
+        for (var features = ANY; features <= (NUMERIC | QUOTED | UNQUOTED | LETTERS | DIGITS); features++)
+            assertTrue(type.mayParseLiteral(features));
+        for (var sample : SAMPLES)
+            assertTrue(sample, type.mayParseLiteral(LiteralFeatures.of(sample)));
+    }
+
+    @Test
+    public void testFiltering() {
+        // Filtering on features never skips a literal parser that would have accepted the text
+        for (var type : TypeManager.getClassToTypeMap().values()) {
+            var literalParser = type.getLiteralParser();
+            if (literalParser.isEmpty())
+                continue;
+            for (var sample : SAMPLES) {
+                Object literal;
+                try {
+                    literal = literalParser.get().apply(sample);
+                } catch (RuntimeException e) {
+                    literal = null;
+                }
+                if (literal != null)
+                    assertTrue(type.getBaseName() + ": " + sample, type.mayParseLiteral(LiteralFeatures.of(sample)));
+            }
+        }
+    }
+
+    @Test
+    public void testParsing() {
+        assertLiteral("number", "5", "5");
+        assertLiteral("number", "-5.2", "-5.2");
+        assertLiteral("number", "1_000", "1000");
+        assertLiteral("boolean", "true", "true");
+        assertLiteral("color", "red", "#ff0000");
+        assertLiteral("type", "number", "number");
+        assertLiteral("duration", "5 minutes", "5 minutes");
+        assertLiteral("time", "12:30", "12:30:00.000");
+        assertLiteral("time", "11 pm", "23:00:00.000");
+        // Strings have no literal parser, so only quoted text is tried as one
+        var string = TypeManager.getPatternType("string").orElseThrow();
+        var quoted = SyntaxParser.parseLiteral("\"text\"", string, new ParserState(), new SkriptLogger());
+        assertTrue(quoted.isPresent());
+        assertTrue(quoted.get() instanceof VariableString);
+        assertEquals("text", quoted.get().getSingle(DUMMY).orElseThrow());
+        assertFalse(SyntaxParser.parseLiteral("text", string, new ParserState(), new SkriptLogger()).isPresent());
+    }
+
+    private static void assertLiteral(String typeName, String s, String expected) {
+        var type = TypeManager.getPatternType(typeName).orElseThrow();
+        var literal = SyntaxParser.parseLiteral(s, type, new ParserState(), new SkriptLogger());
+        assertTrue(typeName + ": " + s, literal.isPresent());
+        assertEquals(expected, TypeManager.toString(literal.get().getValues(DUMMY)));
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.syst3ms.skriptparser.types;
+
+import io.github.syst3ms.skriptparser.TestAddon;
+import io.github.syst3ms.skriptparser.TestRegistration;
+import io.github.syst3ms.skriptparser.registration.SkriptRegistration;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TypeManagerTest {
+    static {
+        TestRegistration.register();
+    }
+
+    @Test
+    public void testTypesByClass() {
+        // Interfaces don't extend Object, so these have no type at all
+        assertTrue(TypeManager.getByClass(Shape.class).isEmpty());
+        assertTrue(TypeManager.getByClass(Polygon.class).isEmpty());
+
+        // The lack of a type is remembered as well, until types are registered
+        var type = new Type<>(Shape.class, "cachedshape", "cachedshape@s");
+        TypeManager.getClassToTypeMap().put(Shape.class, type);
+        try {
+            assertTrue(TypeManager.getByClass(Shape.class).isEmpty());
+            assertTrue(TypeManager.getByClass(Polygon.class).isEmpty());
+            TypeManager.register(new SkriptRegistration(new TestAddon()));
+            assertEquals(type, TypeManager.getByClass(Shape.class).orElseThrow());
+            assertEquals(type, TypeManager.getByClass(Polygon.class).orElseThrow());
+        } finally {
+            TypeManager.getClassToTypeMap().remove(Shape.class);
+            TypeManager.register(new SkriptRegistration(new TestAddon()));
+        }
+        assertTrue(TypeManager.getByClass(Polygon.class).isEmpty());
+    }
+
+    private interface Shape {
+    }
+
+    private interface Polygon extends Shape {
+    }
+}
@@ -0,0 +1,223 @@
+package io.github.syst3ms.skriptparser.types.conversions;
+
+import io.github.syst3ms.skriptparser.Parser;
+import io.github.syst3ms.skriptparser.TestRegistration;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ConverterGraphTest {
+    static {
+        TestRegistration.register();
+    }
+
+    @Test
+    public void testChains() {
+        var registered = List.of(
+                converter(A.class, B.class, B::new, Converters.ALL_CHAINING),
+                converter(B.class, C.class, C::new, Converters.ALL_CHAINING),
+                converter(C.class, D.class, D::new, Converters.ALL_CHAINING),
+                converter(B.class, D.class, D::new, Converters.ALL_CHAINING),
+                converter(E.class, Special.class, Special::new, Converters.ALL_CHAINING)
+        );
+        var chains = new ConverterGraph(registered).createChains(registered);
+        assertEquals("A>B>C", convert(chains, new A(), C.class));
+        // The shortest chain wins
+        assertEquals("A>B>D", convert(chains, new A(), D.class));
+        // Converters from a superclass of the class reached can follow
+        assertEquals("E>Special>C", convert(chains, new E("E"), C.class));
+        assertEquals("E>Special>D", convert(chains, new E("E"), D.class));
+        // Registered converters are never replaced by chains
+        assertNull(find(chains, B.class, D.class));
+        assertEquals(4, chains.size());
+        assertEquals(pairs(baseline(registered)), pairs(registered, chains));
+    }
+
+    @Test
+    public void testFlags() {
+        // Nothing can follow a converter that can't be chained on its right
+        var registered = List.of(
+                converter(A.class, B.class, B::new, Converters.NO_RIGHT_CHAINING),
+                converter(B.class, C.class, C::new, Converters.ALL_CHAINING),
+                converter(C.class, D.class, D::new, Converters.ALL_CHAINING)
+        );
+        var chains = new ConverterGraph(registered).createChains(registered);
+        assertNull(find(chains, A.class, C.class));
+        assertNull(find(chains, A.class, D.class));
+        assertEquals("B>C>D", convert(chains, new B("B"), D.class));
+        assertEquals(pairs(baseline(registered)), pairs(registered, chains));
+
+        // A converter that can't be chained on its left can't follow any other
+        registered = List.of(
+                converter(A.class, B.class, B::new, Converters.ALL_CHAINING),
+                converter(B.class, C.class, C::new, Converters.NO_LEFT_CHAINING),
+                converter(C.class, D.class, D::new, Converters.ALL_CHAINING)
+        );
+        chains = new ConverterGraph(registered).createChains(registered);
+        assertNull(find(chains, A.class, C.class));
+        assertNull(find(chains, A.class, D.class));
+        assertEquals("B>C>D", convert(chains, new B("B"), D.class));
+        assertEquals(pairs(baseline(registered)), pairs(registered, chains));
+
+        // Chains keep the flags of the converters they are made of
+        registered = List.of(
+                converter(A.class, B.class, B::new, Converters.NO_LEFT_CHAINING),
+                converter(B.class, C.class, C::new, Converters.NO_RIGHT_CHAINING)
+        );
+        chains = new ConverterGraph(registered).createChains(registered);
+        var chain = find(chains, A.class, C.class);
+        assertNotNull(chain);
+        assertEquals(Converters.NO_CHAINING, chain.getFlags());
+    }
+
+    @Test
+    public void testNoPath() {
+        var registered = List.of(
+                converter(A.class, B.class, B::new, Converters.ALL_CHAINING),
+                converter(C.class, D.class, D::new, Converters.ALL_CHAINING),
+                // Already linked, so no chain is needed
+                converter(B.class, E.class, E::new, Converters.ALL_CHAINING),
+                converter(A.class, E.class, E::new, Converters.ALL_CHAINING)
+        );
+        var chains = new ConverterGraph(registered).createChains(registered);
+        assertEquals(List.of(), chains);
+        assertEquals(pairs(baseline(registered)), pairs(registered, chains));
+        // Classes that aren't the source of any converter have no chain either
+        assertEquals(List.of(), new ConverterGraph(List.of()).createChains(List.of()));
+    }
+
+    @Test
+    public void testRegisteredConverters() {
+        var registered = new ArrayList<>(Parser.getMainRegistration().getConverters());
+        var chains = new ConverterGraph(registered).createChains(registered);
+        assertEquals(pairs(baseline(registered)), pairs(registered, chains));
+    }
+
+    /*
+     * How chains were created before the graph, by chaining every pair of converters until nothing changes
+     */
+    private static List<ConverterInfo<?, ?>> baseline(List<ConverterInfo<?, ?>> registered) {
+        var converters = new ArrayList<>(registered);
+        for (var i = 0; i < converters.size(); i++) {
+            var info = converters.get(i);
+            for (var j = 0; j < converters.size(); j++) {
+                var info2 = converters.get(j);
+                if ((info.getFlags() & Converters.NO_RIGHT_CHAINING) == 0 && (info2.getFlags() & Converters.NO_LEFT_CHAINING) == 0
+                        && info2.getFrom().isAssignableFrom(info.getTo()) && !exists(converters, info.getFrom(), info2.getTo())) {
+                    converters.add(chain(info, info2));
+                } else if ((info.getFlags() & Converters.NO_LEFT_CHAINING) == 0 && (info2.getFlags() & Converters.NO_RIGHT_CHAINING) == 0
+                        && info.getFrom().isAssignableFrom(info2.getTo()) && !exists(converters, info2.getFrom(), info.getTo())) {
+                    converters.add(chain(info2, info));
+                }
+            }
+        }
+        return converters;
+    }
+
+    private static boolean exists(List<ConverterInfo<?, ?>> converters, Class<?> from, Class<?> to) {
+        for (var info : converters) {
+            if ((info.getFrom().isAssignableFrom(from) || from.isAssignableFrom(info.getFrom()))
+                    && (info.getTo().isAssignableFrom(to) || to.isAssignableFrom(info.getTo())))
+                return true;
+        }
+        return false;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes", "MagicConstant"})
+    private static ConverterInfo<?, ?> chain(ConverterInfo<?, ?> first, ConverterInfo<?, ?> second) {
+        return new ConverterInfo<>(
+                (Class<Object>) first.getFrom(),
+                (Class<Object>) second.getTo(),
+                ChainedConverter.newInstance(
+                        (Function<Object, Optional<?>>) (Function) first.getConverter(),
+                        (Function<Object, Optional<?>>) (Function) second.getConverter()
+                ),
+                first.getFlags() | second.getFlags()
+        );
+    }
+
+    @SafeVarargs
+    private static Set<List<Class<?>>> pairs(List<ConverterInfo<?, ?>>... converters) {
+        var pairs = new HashSet<List<Class<?>>>();
+        for (var list : converters) {
+            for (var info : list)
+                pairs.add(List.of(info.getFrom(), info.getTo()));
+        }
+        return pairs;
+    }
+
+    @Nullable
+    private static ConverterInfo<?, ?> find(List<ConverterInfo<?, ?>> chains, Class<?> from, Class<?> to) {
+        for (var info : chains) {
+            if (info.getFrom() == from && info.getTo() == to)
+                return info;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String convert(List<ConverterInfo<?, ?>> chains, Node value, Class<? extends Node> to) {
+        var chain = (ConverterInfo<Node, Node>) find(chains, value.getClass(), to);
+        assertNotNull("No chain from " + value.getClass().getSimpleName() + " to " + to.getSimpleName(), chain);
+        return chain.getConverter().apply(value).map(node -> node.path).orElse(null);
+    }
+
+    @SuppressWarnings("MagicConstant")
+    private static <F extends Node, T extends Node> ConverterInfo<?, ?> converter(Class<F> from, Class<T> to, Function<String, T> constructor, int flags) {
+        return new ConverterInfo<>(from, to, node -> Optional.of(constructor.apply(node.path + ">" + to.getSimpleName())), flags);
+    }
+
+    private static class Node {
+        final String path;
+
+        private Node(String path) {
+            this.path = path;
+        }
+    }
+
+    private static class A extends Node {
+        private A() {
+            super("A");
+        }
+    }
+
+    private static class B extends Node {
+        private B(String path) {
+            super(path);
+        }
+    }
+
+    private static class C extends Node {
+        private C(String path) {
+            super(path);
+        }
+    }
+
+    private static class D extends Node {
+        private D(String path) {
+            super(path);
+        }
+    }
+
+    private static class E extends Node {
+        private E(String path) {
+            super(path);
+        }
+    }
+
+    private static class Special extends B {
+        private Special(String path) {
+            super(path);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.syst3ms.skriptparser.types.conversions;
+
+import io.github.syst3ms.skriptparser.TestRegistration;
+import io.github.syst3ms.skriptparser.types.comparisons.Comparator;
+import io.github.syst3ms.skriptparser.types.comparisons.Comparators;
+import io.github.syst3ms.skriptparser.types.comparisons.Relation;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConvertersTest {
+    static {
+        TestRegistration.register();
+    }
+
+    @Test
+    public void testConverterCache() {
+        assertTrue(Converters.getConverter(Celsius.class, Fahrenheit.class).isEmpty());
+        assertTrue(Converters.getConverter(Celsius.class, Fahrenheit.class).isEmpty());
+        // A missing converter is only missing until one is registered
+        Converters.registerConverter(Celsius.class, Fahrenheit.class, c -> Optional.of(new Fahrenheit(c.degrees * 1.8 + 32)));
+        var converter = Converters.getConverter(Celsius.class, Fahrenheit.class).orElseThrow();
+        assertEquals(212, converter.apply(new Celsius(100)).orElseThrow().degrees, 0);
+        assertTrue(Converters.getConverter(Fahrenheit.class, Celsius.class).isEmpty());
+    }
+
+    @Test
+    public void testComparatorCache() {
+        assertTrue(Comparators.getComparator(Kelvin.class, Rankine.class).isEmpty());
+        // Values of the same class can only be equal or not until a comparator is registered
+        assertEquals(Relation.NOT_EQUAL, Comparators.compare(new Rankine(1), new Rankine(2)));
+        Comparators.registerComparator(Rankine.class, Rankine.class, new Comparator<>(true) {
+            @Override
+            public Relation apply(Rankine r, Rankine r2) {
+                return Relation.get(Double.compare(r.degrees, r2.degrees));
+            }
+        });
+        assertEquals(Relation.SMALLER, Comparators.compare(new Rankine(1), new Rankine(2)));
+        assertTrue(Comparators.getComparator(Kelvin.class, Rankine.class).isEmpty());
+
+        // A missing comparator is only missing until a converter makes an existing one usable
+        Converters.registerConverter(Kelvin.class, Rankine.class, k -> Optional.of(new Rankine(k.degrees * 1.8)));
+        assertTrue(Comparators.getComparator(Kelvin.class, Rankine.class).isPresent());
+        assertEquals(Relation.EQUAL, Comparators.compare(new Kelvin(10), new Rankine(18)));
+        assertEquals(Relation.SMALLER, Comparators.compare(new Kelvin(10), new Rankine(20)));
+    }
+
+    private static class Celsius {
+        final double degrees;
+
+        private Celsius(double degrees) {
+            this.degrees = degrees;
+        }
+    }
+
+    private static class Fahrenheit {
+        final double degrees;
+
+        private Fahrenheit(double degrees) {
+            this.degrees = degrees;
+        }
+    }
+
+    private static class Kelvin {
+        final double degrees;
+
+        private Kelvin(double degrees) {
+            this.degrees = degrees;
+        }
+    }
+
+    private static class Rankine {
+        final double degrees;
+
+        private Rankine(double degrees) {
+            this.degrees = degrees;
+        }
+    }
+}
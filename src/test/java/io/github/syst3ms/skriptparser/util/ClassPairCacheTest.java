@@ -0,0 +1,37 @@
+package io.github.syst3ms.skriptparser.util;
+
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ClassPairCacheTest {
+
+    @Test
+    public void testCache() {
+        var loads = new AtomicInteger();
+        var cache = new ClassPairCache<String>((first, second) -> {
+            loads.incrementAndGet();
+            return first == second ? Optional.of(first.getSimpleName()) : Optional.empty();
+        });
+        assertEquals(Optional.of("String"), cache.get(String.class, String.class));
+        assertEquals(Optional.of("String"), cache.get(String.class, String.class));
+        assertEquals(1, loads.get());
+
+        // Pairs without a value are remembered as well
+        assertTrue(cache.get(String.class, Integer.class).isEmpty());
+        assertTrue(cache.get(String.class, Integer.class).isEmpty());
+        assertEquals(2, loads.get());
+        // The order of the classes matters
+        assertTrue(cache.get(Integer.class, String.class).isEmpty());
+        assertEquals(3, loads.get());
+
+        cache.clear();
+        assertTrue(cache.get(String.class, Integer.class).isEmpty());
+        assertEquals(Optional.of("String"), cache.get(String.class, String.class));
+        assertEquals(5, loads.get());
+    }
+}
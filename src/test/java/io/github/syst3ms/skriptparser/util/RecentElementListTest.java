@@ -0,0 +1,110 @@
+package io.github.syst3ms.skriptparser.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class RecentElementListTest {
+
+    @Test
+    public void testDecay() {
+        // Without decay, the element used the most comes first
+        var list = new RecentElementList<String>(10, 1);
+        acknowledge(list, "a", "a", "a", "b", "b");
+        assertEquals(List.of("a", "b"), order(list));
+
+        // With it, recent uses outweigh older ones
+        list = new RecentElementList<>(10, 0.5);
+        acknowledge(list, "a", "a", "a", "b", "b");
+        assertEquals(List.of("b", "a"), order(list));
+        acknowledge(list, "a");
+        assertEquals(List.of("a", "b"), order(list));
+
+        // Scores are brought back down once they get too large, without changing the order
+        for (var i = 0; i < 1000; i++)
+            acknowledge(list, "a", "b", "b");
+        assertEquals(List.of("b", "a"), order(list));
+        acknowledge(list, "a", "a");
+        assertEquals(List.of("a", "b"), order(list));
+    }
+
+    @Test
+    public void testCapacity() {
+        var list = new RecentElementList<String>(2, 0.5);
+        acknowledge(list, "a", "b");
+        assertEquals(List.of("b", "a"), order(list));
+        // The least used element makes room for a new one that weighs more
+        acknowledge(list, "c");
+        assertEquals(List.of("c", "b"), order(list));
+        acknowledge(list, "a");
+        assertEquals(List.of("a", "c"), order(list));
+
+        // Without decay, a new element never weighs more than the ones already there
+        list = new RecentElementList<>(2, 1);
+        acknowledge(list, "a", "a", "b", "c", "c");
+        assertEquals(List.of("a", "b"), order(list));
+
+        list = new RecentElementList<>(0, 0.5);
+        acknowledge(list, "a");
+        assertEquals(List.of(), order(list));
+    }
+
+    @Test
+    public void testThreads() throws InterruptedException {
+        var list = new RecentElementList<String>();
+        acknowledge(list, "a");
+        var other = new AtomicReference<List<String>>();
+        var thread = new Thread(() -> {
+            acknowledge(list, "b", "c", "c");
+            other.set(order(list));
+        });
+        thread.start();
+        thread.join();
+        // Every thread only sees what it acknowledged
+        assertEquals(List.of("c", "b"), other.get());
+        assertEquals(List.of("a"), order(list));
+    }
+
+    @Test
+    public void testMergeWith() {
+        var list = new RecentElementList<String>(10, 0.5);
+        var all = List.of("a", "b", "c", "d");
+        assertEquals(all, list.mergeWith(all));
+
+        acknowledge(list, "c", "e");
+        var merged = list.mergeWith(all);
+        // Recent elements that aren't part of the other list are left out
+        assertEquals(List.of("c", "a", "b", "d"), merged);
+        assertSame(merged, list.mergeWith(all));
+        // Lists with the same elements aren't mistaken for one another
+        var copy = new ArrayList<>(all);
+        assertEquals(merged, list.mergeWith(copy));
+        assertNotSame(merged, list.mergeWith(copy));
+
+        // The result is only computed again once the order changes
+        acknowledge(list, "e");
+        assertSame(merged, list.mergeWith(all));
+        acknowledge(list, "b");
+        merged = list.mergeWith(all);
+        assertEquals(List.of("b", "c", "a", "d"), merged);
+        assertSame(merged, list.mergeWith(all));
+    }
+
+    @SafeVarargs
+    private static <T> void acknowledge(RecentElementList<T> list, T... elements) {
+        for (var element : elements)
+            list.acknowledge(element);
+    }
+
+    private static <T> List<T> order(RecentElementList<T> list) {
+        var order = new ArrayList<T>();
+        list.forEach(order::add);
+        return order;
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.syst3ms.skriptparser.util;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class SchedulerTest {
+    private static final Duration DELAY = Duration.ofMillis(DurationUtils.TICK * 3);
+
+    @Test
+    public void testSchedule() throws InterruptedException {
+        var ran = new CountDownLatch(1);
+        var start = System.nanoTime();
+        Scheduler.get().schedule(ran::countDown, DELAY);
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        // Delays are only ever rounded up
+        assertTrue(System.nanoTime() - start >= DELAY.toNanos());
+
+        var cancelled = new AtomicBoolean();
+        var task = Scheduler.get().schedule(() -> cancelled.set(true), DELAY);
+        task.cancel();
+        assertTrue(task.isCancelled());
+        Thread.sleep(DELAY.multipliedBy(3).toMillis());
+        assertFalse(cancelled.get());
+    }
+
+    @Test
+    public void testScheduleAtFixedRate() throws InterruptedException {
+        var count = new AtomicInteger();
+        var ran = new CountDownLatch(5);
+        var start = System.nanoTime();
+        var task = Scheduler.get().scheduleAtFixedRate(() -> {
+            count.incrementAndGet();
+            ran.countDown();
+        }, DELAY, Duration.ofMillis(DurationUtils.TICK));
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        // The initial delay, then four periods
+        assertTrue(System.nanoTime() - start >= DELAY.toNanos() + TimeUnit.MILLISECONDS.toNanos(DurationUtils.TICK * 4));
+        task.cancel();
+        // An execution may have already started when it was cancelled
+        Thread.sleep(DurationUtils.TICK * 2);
+        var stopped = count.get();
+        Thread.sleep(DurationUtils.TICK * 4);
+        assertEquals(stopped, count.get());
+    }
+
+    @Test
+    public void testShutdownNow() throws InterruptedException {
+        var scheduler = Scheduler.get();
+        var ran = new AtomicBoolean();
+        scheduler.schedule(() -> ran.set(true), DELAY);
+        scheduler.scheduleAtFixedRate(() -> ran.set(true), DELAY, DELAY);
+        var completed = scheduler.getCompletedTasks();
+        Scheduler.shutdownNow();
+        Thread.sleep(DELAY.multipliedBy(3).toMillis());
+        assertFalse(ran.get());
+        assertEquals(completed, scheduler.getCompletedTasks());
+
+        // A new scheduler takes over
+        var next = Scheduler.get();
+        assertNotSame(scheduler, next);
+        var executed = new CountDownLatch(1);
+        next.execute(executed::countDown);
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.syst3ms.skriptparser.util;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testCascade() {
+        var wheel = new Recorder(3);
+        // Around the bounds of every level, so that most of them go down at least one level before firing
+        var delays = List.of(1L, 2L, 63L, 64L, 65L, 127L, 128L, 4095L, 4096L, 4097L, 5000L, 70000L);
+        delays.forEach(wheel::schedule);
+        wheel.advance(70000);
+        for (var delay : delays)
+            assertEquals("Timeout after " + delay + " ticks", delay, wheel.fired.get(delay));
+        assertEquals(0, wheel.wheel.size());
+    }
+
+    @Test
+    public void testCancel() {
+        var wheel = new Recorder(3);
+        var first = wheel.schedule(10);
+        var second = wheel.schedule(100);
+        var third = wheel.schedule(200);
+        var kept = wheel.schedule(300);
+        assertEquals(4, wheel.wheel.size());
+
+        // Before it even reached the wheel
+        first.cancel();
+        assertEquals(3, wheel.wheel.size());
+        wheel.advance(1);
+        // While it is on the second level
+        second.cancel();
+        wheel.advance(150);
+        // Once it went down to the first level
+        third.cancel();
+        assertEquals(1, wheel.wheel.size());
+        wheel.advance(150);
+        assertEquals(Map.of(300L, 300L), wheel.fired);
+        assertEquals(0, wheel.wheel.size());
+
+        // Cancelling a timeout that already fired changes nothing
+        kept.cancel();
+        assertEquals(0, wheel.wheel.size());
+    }
+
+    @Test
+    public void testWrapAround() {
+        // The top level of a wheel this small spans 4096 ticks, so longer delays go around it several times
+        var wheel = new Recorder(2);
+        var delays = List.of(4095L, 4096L, 4097L, 10000L, 3 * 4096L + 7);
+        delays.forEach(wheel::schedule);
+        wheel.advance(9999);
+        assertFalse(wheel.fired.containsKey(10000L));
+        assertEquals(2, wheel.wheel.size());
+        wheel.advance(3 * 4096 + 7 - 9999);
+        for (var delay : delays)
+            assertEquals("Timeout after " + delay + " ticks", delay, wheel.fired.get(delay));
+        assertEquals(0, wheel.wheel.size());
+    }
+
+    @Test
+    public void testLateSchedule() {
+        var wheel = new Recorder(2);
+        wheel.advance(1000);
+        // Deadlines count from when the timeout was added, not from when the wheel was created
+        wheel.schedule(1);
+        wheel.schedule(100);
+        wheel.advance(100);
+        assertEquals(Long.valueOf(1), wheel.fired.get(1L));
+        assertEquals(Long.valueOf(100), wheel.fired.get(100L));
+    }
+
+    /**
+     * Records the tick every timeout fired at, keyed by its delay.
+     */
+    private static class Recorder {
+        private final TimingWheel wheel;
+        private final Map<Long, Long> fired = new HashMap<>();
+        private long elapsed = 0;
+
+        private Recorder(int levels) {
+            wheel = new TimingWheel(levels);
+        }
+
+        private TimingWheel.Timeout schedule(long delay) {
+            var start = elapsed;
+            return wheel.schedule(() -> fired.put(delay, elapsed - start), Duration.ofMillis(DurationUtils.TICK * delay));
+        }
+
+        private void advance(long ticks) {
+            for (var i = 0L; i < ticks; i++) {
+                elapsed++;
+                wheel.advance(1);
+            }
+        }
+    }
+}
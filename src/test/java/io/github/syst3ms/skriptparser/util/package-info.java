@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package io.github.syst3ms.skriptparser.util;
+
+import javax.annotation.ParametersAreNonnullByDefault;
\ No newline at end of file
@@ -0,0 +1,185 @@
+package io.github.syst3ms.skriptparser.variables;
+
+import io.github.syst3ms.skriptparser.TestRegistration;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static io.github.syst3ms.skriptparser.lang.TriggerContext.DUMMY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LogVariableStorageTest {
+    static {
+        TestRegistration.register();
+    }
+
+    private static final int HEADER_SIZE = 8;
+
+    @Test
+    public void testTornBatch() throws IOException, InterruptedException {
+        var folder = Files.createTempDirectory("variables");
+        var crashed = Files.createTempDirectory("variables");
+        var storage = new LogVariableStorage(folder);
+        try {
+            storage.load((name, value) -> {});
+            save(storage, folder, "first", "a");
+            save(storage, folder, "second", "b");
+            save(storage, folder, "third", "c");
+            copy(folder, crashed);
+
+            // The last batch was only partly written
+            var log = crashed.resolve("log-1.dat");
+            try (var channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - 3);
+            }
+            assertEquals(Map.of("first", "a", "second", "b"), load(crashed));
+        } finally {
+            storage.close();
+            delete(folder);
+            delete(crashed);
+        }
+    }
+
+    @Test
+    public void testChecksumMismatch() throws IOException, InterruptedException {
+        var folder = Files.createTempDirectory("variables");
+        var crashed = Files.createTempDirectory("variables");
+        var storage = new LogVariableStorage(folder);
+        try {
+            storage.load((name, value) -> {});
+            save(storage, folder, "first", "a");
+            save(storage, folder, "second", "b");
+            save(storage, folder, "third", "c");
+            copy(folder, crashed);
+
+            // Corrupts the second batch, which hides the third one as well
+            var log = crashed.resolve("log-1.dat");
+            try (var channel = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                var size = ByteBuffer.allocate(4);
+                channel.read(size, HEADER_SIZE);
+                var second = HEADER_SIZE + HEADER_SIZE + size.flip().getInt();
+                var corrupted = ByteBuffer.allocate(1);
+                channel.read(corrupted, second + HEADER_SIZE + 1);
+                corrupted.put(0, (byte) ~corrupted.get(0));
+                channel.write(corrupted.flip(), second + HEADER_SIZE + 1);
+            }
+            assertEquals(Map.of("first", "a"), load(crashed));
+        } finally {
+            storage.close();
+            delete(folder);
+            delete(crashed);
+        }
+    }
+
+    @Test
+    public void testCrashDuringCompaction() throws IOException, InterruptedException {
+        var folder = Files.createTempDirectory("variables");
+        var beforeMove = Files.createTempDirectory("variables");
+        var beforeDeletion = Files.createTempDirectory("variables");
+        var storage = new LogVariableStorage(folder);
+        try {
+            storage.load((name, value) -> {});
+            // Snapshots are made of the global variables
+            Variables.setVariable("first", "a", DUMMY, false);
+            save(storage, folder, "first", "a");
+            compact(storage, folder, 2);
+            save(storage, folder, "second", "b");
+            copy(folder, beforeMove);
+            copy(folder, beforeDeletion);
+
+            // The next log was started, but the snapshot was never completed
+            try (var channel = FileChannel.open(beforeMove.resolve("log-3.dat"), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(Files.readAllBytes(folder.resolve("log-2.dat")), 0, HEADER_SIZE));
+            }
+            Files.write(beforeMove.resolve("snapshot-3.tmp"), new byte[] {1, 2, 3});
+            assertEquals(Map.of("first", "a", "second", "b"), load(beforeMove));
+
+            // The snapshot was completed, but the files it replaces weren't deleted
+            Variables.setVariable("second", "b", DUMMY, false);
+            compact(storage, folder, 3);
+            save(storage, folder, "third", "c");
+            copy(folder, beforeDeletion);
+            assertEquals(Map.of("first", "a", "second", "b", "third", "c"), load(beforeDeletion));
+        } finally {
+            storage.close();
+            Variables.clearVariables();
+            delete(folder);
+            delete(beforeMove);
+            delete(beforeDeletion);
+        }
+    }
+
+    /*
+     * Saves the variable in a batch of its own, by waiting for it to be written
+     */
+    private static void save(LogVariableStorage storage, Path folder, String name, Object value) throws IOException, InterruptedException {
+        var size = logSize(folder);
+        storage.save(name, value);
+        var start = System.currentTimeMillis();
+        while (logSize(folder) == size) {
+            assertTrue("The variable wasn't saved", System.currentTimeMillis() - start < 5000);
+            Thread.sleep(5);
+        }
+    }
+
+    /*
+     * Waits for the snapshot of the given generation to be written and the files before it to be deleted
+     */
+    private static void compact(LogVariableStorage storage, Path folder, long generation) throws InterruptedException {
+        storage.clear();
+        var start = System.currentTimeMillis();
+        while (!Files.exists(folder.resolve("snapshot-" + generation + ".dat")) || Files.exists(folder.resolve("log-" + (generation - 1) + ".dat"))) {
+            assertTrue("The variables weren't compacted", System.currentTimeMillis() - start < 5000);
+            Thread.sleep(5);
+        }
+    }
+
+    private static long logSize(Path folder) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            var size = 0L;
+            for (var file : files.filter(f -> f.getFileName().toString().startsWith("log-")).collect(Collectors.toList()))
+                size += Files.size(file);
+            return size;
+        }
+    }
+
+    private static Map<String, Object> load(Path folder) throws IOException {
+        var variables = new HashMap<String, Object>();
+        var storage = new LogVariableStorage(folder);
+        storage.load((name, value) -> {
+            if (value != null) {
+                variables.put(name, value);
+            } else {
+                variables.remove(name);
+            }
+        });
+        storage.close();
+        return variables;
+    }
+
+    private static void copy(Path from, Path to) throws IOException {
+        try (Stream<Path> files = Files.list(from)) {
+            for (var file : files.collect(Collectors.toList()))
+                Files.copy(file, to.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void delete(Path folder) throws IOException {
+        try (Stream<Path> files = Files.walk(folder)) {
+            for (var file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+                Files.delete(file);
+        }
+    }
+}